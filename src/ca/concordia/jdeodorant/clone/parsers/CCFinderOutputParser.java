@@ -1,13 +1,17 @@
 package ca.concordia.jdeodorant.clone.parsers;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,27 +29,73 @@ import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFou
 
 public class CCFinderOutputParser extends CloneDetectorOutputParser {
 
-	private static class Token {
+	/*
+	 * Reads a file through memory-mapped windows, so that the clone pairs are decoded in bulk 
+	 * instead of issuing a read for every few bytes, and files larger than 2GB can still be mapped.
+	 */
+	private static class MappedFileReader {
 		
-		private final int startOffset;
-		private final int endOffst;
+		private static final int MAPPED_WINDOW_SIZE = 64 * 1024 * 1024;
+		private final FileChannel channel;
+		private final long size;
+		private long windowPosition;
+		private MappedByteBuffer window;
+		private ByteOrder order = ByteOrder.BIG_ENDIAN;
 		
-		public Token(int startOffset, int endOffset) {
-			this.startOffset = startOffset;
-			endOffst = endOffset;
+		public MappedFileReader(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			map(0);
 		}
-
-		public int getStartOffset() {
-			return startOffset;
+		
+		private void map(long position) throws IOException {
+			windowPosition = position;
+			window = channel.map(MapMode.READ_ONLY, position, Math.min(MAPPED_WINDOW_SIZE, size - position));
+			window.order(order);
 		}
-
-		public int getEndOffst() {
-			return endOffst;
+		
+		public long position() {
+			return windowPosition + window.position();
 		}
 		
-		@Override
-		public String toString() {
-			return String.format("<%s, %s>", getStartOffset(), getEndOffst());
+		public void order(ByteOrder order) {
+			this.order = order;
+			window.order(order);
+		}
+		
+		// Returns false if fewer than the given number of bytes are left in the file
+		public boolean isAvailable(int bytes) throws IOException {
+			if (window.remaining() < bytes) {
+				if (size - position() < bytes)
+					return false;
+				map(position());
+			}
+			return true;
+		}
+		
+		private void ensureAvailable(int bytes) throws IOException {
+			if (!isAvailable(bytes))
+				throw new EOFException();
+		}
+		
+		public byte readByte() throws IOException {
+			ensureAvailable(1);
+			return window.get();
+		}
+		
+		public void readBytes(byte[] bytes) throws IOException {
+			ensureAvailable(bytes.length);
+			window.get(bytes);
+		}
+		
+		public int readInt() throws IOException {
+			ensureAvailable(4);
+			return window.getInt();
+		}
+		
+		public long readLong() throws IOException {
+			ensureAvailable(8);
+			return window.getLong();
 		}
 	}
 	
@@ -124,12 +174,40 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 		
 	}
 
+	private static class CloneFragmentOffsets {
+		
+		private final String path;
+		private final int startOffset;
+		private final int endOffset;
+		
+		public CloneFragmentOffsets(String path, int startOffset, int endOffset) {
+			this.path = path;
+			this.startOffset = startOffset;
+			this.endOffset = endOffset;
+		}
+		
+		public String getPath() {
+			return path;
+		}
+		
+		public int getStartOffset() {
+			return startOffset;
+		}
+		
+		public int getEndOffset() {
+			return endOffset;
+		}
+	}
+
 	private final String pathToCcfxprepdir; 
-	private final RandomAccessFile raFile;
 	private String analyzedPathPrefix;
 	private String preprocessedFilePostfix;
 	private static final byte LINE_FEED_BYTE = (byte) 0xa/* \n */;
-	private final Map<String, List<Token>> preprocessedFilesTokens = new HashMap<String, List<Token>>();
+	private static final int CLONE_PAIR_RECORD_SIZE = 32;
+	private static final Pattern PREPROCESSED_TOKEN_PATTERN = 
+			Pattern.compile("([a-f0-9]+)\\.([a-f0-9]+)\\.([a-f0-9]+)\\t(([\\+a-f0-9]+)|([a-f0-9]+)\\.([a-f0-9]+)\\.([a-f0-9]+))\\t(.+)");
+	// The start and end offsets of the i-th token of a preprocessed file are kept at indices 2 * i and 2 * i + 1
+	private final Map<String, int[]> preprocessedFilesTokens = new HashMap<String, int[]>();
 	private Map<Long, Set<CloneFragment>> cloneFragments = new HashMap<Long, Set<CloneFragment>>();
 	private Set<Long> cloneSetIDs = new TreeSet<Long>(new Comparator<Long>() {
 		public int compare(Long o1, Long o2) {
@@ -141,25 +219,24 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 		super(iJavaProject, formatPath(cloneOutputFilePath));
 		this.pathToCcfxprepdir = formatPath(pathToCcfxprepdir);
 		
+		RandomAccessFile raFile = null;
 		try {
 			raFile = new RandomAccessFile(cloneOutputFilePath, "r");
-			FileChannel channel = raFile.getChannel();
+			MappedFileReader reader = new MappedFileReader(raFile.getChannel());
 
-			ByteBuffer buffer = ByteBuffer.allocate(8);
-			channel.read(buffer);
-			byte[] ary = buffer.array();
+			byte[] ary = new byte[8];
+			reader.readBytes(ary);
 			String magicString = new String(ary);
 			if (!magicString.equals("ccfxraw0")) {
 				throw new InvalidInputFileException();
 			}
 			
-			int v1 = readInt(channel);
-			int v2 = readInt(channel);
-			readInt(channel);
+			int v1 = reader.readInt();
+			int v2 = reader.readInt();
+			reader.readInt();
 			
-			buffer = ByteBuffer.allocate(4);
-			channel.read(buffer);
-			ary = buffer.array();
+			ary = new byte[4];
+			reader.readBytes(ary);
 			String b = new String(ary);
 			if (b.equals("pa:d")) {
 				if (!(v1 == 167772160 && v2 == 33554432)) {
@@ -169,14 +246,22 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 				throw new InvalidInputFileException("Invalid format");
 			}
 			
+			readCloneSetData(reader);
+			
 		} catch (FileNotFoundException e) {
 			throw new InvalidInputFileException(e);
 		} catch (IOException e) {
 			throw new InvalidInputFileException(e);
+		} finally {
+			if (raFile != null) {
+				try {
+					raFile.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
 		}
 		
-		readCloneSetData();
-		
 		this.setCloneGroupCount(cloneSetIDs.size());
 	}
 
@@ -184,36 +269,47 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 	public CloneGroupList readInputFile() throws InvalidInputFileException {
 
 		CloneGroupList cloneGroups = new CloneGroupList(getIJavaProject());
+		// The token offsets are looked up here, since the preprocessed files are cached, and the clone instances are resolved by the resolvers
+		List<CloneGroupResolver> cloneGroupResolvers = new ArrayList<CloneGroupResolver>();
 		int cloneSetIndex = 0;
 		for (long cloneSetID : cloneSetIDs) {
 			
-			CloneGroup cloneGroup = new CloneGroup((int)cloneSetID);
+			final int cloneGroupID = (int)cloneSetID;
+			final List<CloneFragmentOffsets> cloneFragmentOffsets = new ArrayList<CloneFragmentOffsets>();
 			
 			Set<CloneFragment> cloneFragments = this.cloneFragments.get(cloneSetID);
-			int cloneInstanceIndex = 0;
 			for (CloneFragment cloneFragment : cloneFragments) {
-				try {
-					String path = cloneFragment.getPath();
-					String preprocessedFilePath = 
-							this.pathToCcfxprepdir + path.replace(this.analyzedPathPrefix, "") + this.preprocessedFilePostfix;
-					List<Token> tokens = getPreproprossedFile(preprocessedFilePath);
-					int startOffst = tokens.get(cloneFragment.getStart()).getStartOffset();
-					int endOffset = tokens.get(cloneFragment.getEnd() - 1).getEndOffst() - 1;
-					CloneInstance cloneInstance = getCloneInstance(path, cloneInstanceIndex, true, startOffst, endOffset);
-					cloneGroup.addClone(cloneInstance);
-					cloneInstanceIndex++;
-				} catch (JavaModelException jme) {
-					addExceptionHappenedDuringParsing(jme);
-				} catch (ICompilationUnitNotFoundException iunf) {
-					addExceptionHappenedDuringParsing(iunf);
-				}
+				String path = cloneFragment.getPath();
+				String preprocessedFilePath = 
+						this.pathToCcfxprepdir + path.replace(this.analyzedPathPrefix, "") + this.preprocessedFilePostfix;
+				int[] tokens = getPreproprossedFile(preprocessedFilePath);
+				int startOffst = tokens[2 * cloneFragment.getStart()];
+				int endOffset = tokens[2 * (cloneFragment.getEnd() - 1) + 1] - 1;
+				cloneFragmentOffsets.add(new CloneFragmentOffsets(path, startOffst, endOffset));
 			}
-
-			if (cloneGroup.getCloneGroupSize() > 1)
-				cloneGroups.add(cloneGroup);
 			
-			progress(cloneSetIndex++);
+			cloneGroupResolvers.add(new CloneGroupResolver(cloneSetIndex++) {
+				@Override
+				protected CloneGroup resolveCloneGroup() {
+					CloneGroup cloneGroup = new CloneGroup(cloneGroupID);
+					int cloneInstanceIndex = 0;
+					for (CloneFragmentOffsets cloneFragment : cloneFragmentOffsets) {
+						try {
+							CloneInstance cloneInstance = getCloneInstance(cloneFragment.getPath(), cloneInstanceIndex, true, 
+									cloneFragment.getStartOffset(), cloneFragment.getEndOffset());
+							cloneGroup.addClone(cloneInstance);
+							cloneInstanceIndex++;
+						} catch (JavaModelException jme) {
+							addExceptionHappenedDuringParsing(jme);
+						} catch (ICompilationUnitNotFoundException iunf) {
+							addExceptionHappenedDuringParsing(iunf);
+						}
+					}
+					return cloneGroup;
+				}
+			});
 		}
+		resolveCloneGroups(cloneGroupResolvers.iterator(), cloneGroups);
 		
 		if (cloneGroups.getCloneGroupsCount() == 0)
 			throw new InvalidInputFileException();
@@ -222,21 +318,19 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 
 	}
 	
-	private void readCloneSetData() throws InvalidInputFileException {
+	private void readCloneSetData(MappedFileReader reader) throws InvalidInputFileException {
 		
-		FileChannel channel = raFile.getChannel();
-
 		try {
 			// Skip options, get n and preprocessed_file_postfix only
 			while (true) {
-				String line = readUtf8StringUntil(channel, LINE_FEED_BYTE);
+				String line = readUtf8StringUntil(reader, LINE_FEED_BYTE);
 				if (line.startsWith("n")) {
 					this.analyzedPathPrefix = formatPath(line.split("\t")[1]);
 				} else if (line.startsWith("preprocessed_file_postfix")) {
 					this.preprocessedFilePostfix = line.split("\t")[1];
 				}
 				if (line.length() == 0) {
-					line = readUtf8StringUntil(channel, LINE_FEED_BYTE); 
+					line = readUtf8StringUntil(reader, LINE_FEED_BYTE); 
 					if (!"java".equals(line))
 						throw new InvalidInputFileException();
 					break;
@@ -247,32 +341,32 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 
 			// Read file info
 			while (true) {
-				String filePath = readUtf8StringUntil(channel, LINE_FEED_BYTE);
+				String filePath = readUtf8StringUntil(reader, LINE_FEED_BYTE);
 				if (filePath.length() == 0) {
-					int fileId = readInt(channel);
-					int length = readInt(channel);
+					int fileId = reader.readInt();
+					int length = reader.readInt();
 					if (!(fileId == 0 && length == 0)) {
 						throw new InvalidInputFileException("Invalid file terminator");
 					}
 					break;
 				}
 				sourceFilesList.add(filePath.replace("\\", "/"));
-				/*int fileId = */readInt(channel);
-				/*int length = */readInt(channel);
+				/*int fileId = */reader.readInt();
+				/*int length = */reader.readInt();
 			}
 
 			// read source file remarks
 			Map<Integer, List<String>> sourceFileRemarks = new HashMap<Integer, List<String>>();
 			while (true) {
-				String remarkText = readUtf8StringUntil(channel, LINE_FEED_BYTE);
+				String remarkText = readUtf8StringUntil(reader, LINE_FEED_BYTE);
 				if (remarkText.length() == 0) {
-					int fileId = readInt(channel);
+					int fileId = reader.readInt();
 					if (fileId != 0) {
 						throw new InvalidInputFileException("Invalid file remark terminator");
 					}
 					break; // while true
 				}
-				int fileId = readInt(channel);
+				int fileId = reader.readInt();
 				List<String> remarks = null;
 				if (!sourceFileRemarks.containsKey(fileId)) {
 					remarks = new ArrayList<String>();
@@ -283,22 +377,18 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 				remarks.add(remarkText);
 			}
 			
-			// read clone data
-			ByteBuffer bbuffer32 = ByteBuffer.allocate(32);
-			bbuffer32.order(ByteOrder.LITTLE_ENDIAN);
-			long position = channel.position();
-			while (position < channel.size()) {
-				bbuffer32.clear();
-				channel.read(bbuffer32);
-				int leftFileIndex = bbuffer32.getInt(0);
+			// read clone data, which is a sequence of 32-byte little-endian records terminated by a zero file index
+			reader.order(ByteOrder.LITTLE_ENDIAN);
+			while (reader.isAvailable(CLONE_PAIR_RECORD_SIZE)) {
+				int leftFileIndex = reader.readInt();
 				if (leftFileIndex == 0)
 					break;
-				int leftFileBegin = bbuffer32.getInt(4);
-				int leftFileEnd = bbuffer32.getInt(8);
-				int rightFileIndex = bbuffer32.getInt(12);
-				int rightFileBegin = bbuffer32.getInt(16);
-				int rightFileEnd = bbuffer32.getInt(20);
-				long cloneGroupID = bbuffer32.getLong(24);
+				int leftFileBegin = reader.readInt();
+				int leftFileEnd = reader.readInt();
+				int rightFileIndex = reader.readInt();
+				int rightFileBegin = reader.readInt();
+				int rightFileEnd = reader.readInt();
+				long cloneGroupID = reader.readLong();
 				cloneSetIDs.add(cloneGroupID);
 				CloneFragment cloneFragmentLeft = new CloneFragment(cloneGroupID, sourceFilesList.get(leftFileIndex - 1), leftFileBegin, leftFileEnd);
 				CloneFragment cloneFragmentRight = new CloneFragment(cloneGroupID, sourceFilesList.get(rightFileIndex - 1), rightFileBegin, rightFileEnd);
@@ -311,55 +401,40 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 				}
 				cloneFragmentsForThisCloneSet.add(cloneFragmentLeft);
 				cloneFragmentsForThisCloneSet.add(cloneFragmentRight);
-				position = channel.position();
 			}
 
 		} catch (IOException ioex) {
 			ioex.printStackTrace();
-		} finally {
-			try {
-				channel.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
 		}
 	}
 
-	private String readUtf8StringUntil(FileChannel c, byte terminatingByte) throws IOException {
-		List<Byte> bytes = new ArrayList<Byte>();
+	private String readUtf8StringUntil(MappedFileReader reader, byte terminatingByte) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
 		while (true) {
-			ByteBuffer buffer = ByteBuffer.allocate(1);
-			if (c.read(buffer) == -1) {
-				throw new IOException();
-			}
-			byte[] array = buffer.array();
-			if (array[0] == terminatingByte) {
-				byte[] toReturnBytes = new byte[bytes.size()];
-				for (int i = 0; i < bytes.size(); i++)
-					toReturnBytes[i] = bytes.get(i);
+			byte currentByte = reader.readByte();
+			if (currentByte == terminatingByte) {
 				try {	
-					return new String(toReturnBytes, "UTF-8");
+					return bytes.toString("UTF-8");
 				} catch (UnsupportedEncodingException e) {
 					return "";
 				}
 			}
-			bytes.add(array[0]);
+			bytes.write(currentByte);
 		}
 		
 	}
 	
-	private List<Token> getPreproprossedFile(String filePath) {
+	private int[] getPreproprossedFile(String filePath) {
 		
 		if (this.preprocessedFilesTokens.containsKey(filePath))
 			return this.preprocessedFilesTokens.get(filePath);
 		
-		List<Token> toReturn = new ArrayList<Token>();
+		int[] toReturn = new int[256];
+		int tokenCount = 0;
 		
 		String fileContents = readFileContents(filePath);
 		
-		String linePattern = "([a-f0-9]+)\\.([a-f0-9]+)\\.([a-f0-9]+)\\t(([\\+a-f0-9]+)|([a-f0-9]+)\\.([a-f0-9]+)\\.([a-f0-9]+))\\t(.+)";
-		Pattern pattern = Pattern.compile(linePattern);
-		Matcher matcher = pattern.matcher(fileContents);
+		Matcher matcher = PREPROCESSED_TOKEN_PATTERN.matcher(fileContents);
 		
 		while (matcher.find()) {
 			int beginOffset = Integer.valueOf(matcher.group(3), 16);
@@ -370,21 +445,18 @@ public class CCFinderOutputParser extends CloneDetectorOutputParser {
 			} else {
 				length = Integer.valueOf(matcher.group(8), 16);
 			}
-			Token token = new Token(beginOffset, beginOffset + length);
-			toReturn.add(token);
+			if (2 * tokenCount + 2 > toReturn.length)
+				toReturn = Arrays.copyOf(toReturn, 2 * toReturn.length);
+			toReturn[2 * tokenCount] = beginOffset;
+			toReturn[2 * tokenCount + 1] = beginOffset + length;
+			tokenCount++;
 		}
 		
+		toReturn = Arrays.copyOf(toReturn, 2 * tokenCount);
 		this.preprocessedFilesTokens.put(filePath, toReturn);
 		
 		return toReturn;
 		
 	}
-	
-	public int readInt(FileChannel channel) throws IOException {
-		ByteBuffer buffer = ByteBuffer.allocate(4);
-		channel.read(buffer);
-		buffer.rewind();
-		return buffer.getInt();
-	}
 
 }
@@ -1,7 +1,11 @@
 package ca.concordia.jdeodorant.clone.parsers;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
@@ -15,6 +19,10 @@ import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFou
 
 public class CloneDROutputParser extends CloneDetectorOutputParser {
 
+	private static final Pattern CLONE_INSTANCE_PATTERN = 
+			Pattern.compile("<a id=\\\"CloneInstance\\d+\\\">.*<br/>(\\d+)</a><td>Line Count<br/>(\\d+)</td><td>Source Line<br/>(\\d+).*Source File</div><pre>(.*)</pre>");
+	private static final Pattern CLONE_SET_FILE_NAME_PATTERN = Pattern.compile("xCloneSet(\\d+).html");
+	private static final Pattern COMMON_PATH_PREFIX_PATTERN = Pattern.compile("<h2>Common Path Prefix: <tt>(.+)</tt></h2>");
 	private final Set<Integer> allCloneGroupIDs;
 
 	public CloneDROutputParser(IJavaProject iJavaProject, String cloneDROutputFilePath) throws InvalidInputFileException {
@@ -30,50 +38,64 @@ public class CloneDROutputParser extends CloneDetectorOutputParser {
 
 		CloneGroupList cloneGroups = new CloneGroupList(getIJavaProject());
 		
-		String commonPathPrefix = getCommonPathPrefix(getToolOutputFilePath());
+		final String commonPathPrefix = getCommonPathPrefix(getToolOutputFilePath());
 		
-		for (Integer cloneGroupID : this.allCloneGroupIDs) {
+		// Reading the clone set files is also done by the resolvers, since each clone group is reported in a separate file
+		List<CloneGroupResolver> cloneGroupResolvers = new ArrayList<CloneGroupResolver>();
+		for (final Integer cloneGroupID : this.allCloneGroupIDs) {
 			
-			if (isOperationCanceled())
-				break;
-
-			String filePath = this.getToolOutputFilePath() + "xCloneSet" + cloneGroupID + ".html";
-
-			// There will be one clone group for each file
-			CloneGroup cloneGroup = new CloneGroup(cloneGroupID);
-
-			String fileContents = readFileContents(filePath);
-			Pattern pattern = Pattern.compile("<a id=\\\"CloneInstance\\d+\\\">.*<br/>(\\d+)</a><td>Line Count<br/>(\\d+)</td><td>Source Line<br/>(\\d+).*Source File</div><pre>(.*)</pre>");
-			Matcher cloneMatcher = pattern.matcher(fileContents);
-			int cloneCount = 0;
-			while (cloneMatcher.find()) {
-				try {
-					int cloneLineCount = Integer.parseInt(cloneMatcher.group(2));
-					int startLine = Integer.parseInt(cloneMatcher.group(3));
-					int endLine = startLine + cloneLineCount - 1;
-					String cloneFilePath =  cloneMatcher.group(4);
-					if (!"".equals(commonPathPrefix)) {
-						cloneFilePath = commonPathPrefix + "/" + cloneFilePath;
+			cloneGroupResolvers.add(new CloneGroupResolver(cloneGroupID) {
+				@Override
+				protected CloneGroup resolveCloneGroup() {
+
+					String filePath = getToolOutputFilePath() + "xCloneSet" + cloneGroupID + ".html";
+
+					// There will be one clone group for each file
+					CloneGroup cloneGroup = new CloneGroup(cloneGroupID);
+
+					// The pattern does not span lines, so the file is matched line by line
+					BufferedReader reader = null;
+					try {
+						reader = createLineReader(filePath);
+						int cloneCount = 0;
+						String line;
+						while ((line = reader.readLine()) != null) {
+							Matcher cloneMatcher = CLONE_INSTANCE_PATTERN.matcher(line);
+							while (cloneMatcher.find()) {
+								try {
+									int cloneLineCount = Integer.parseInt(cloneMatcher.group(2));
+									int startLine = Integer.parseInt(cloneMatcher.group(3));
+									int endLine = startLine + cloneLineCount - 1;
+									String cloneFilePath =  cloneMatcher.group(4);
+									if (!"".equals(commonPathPrefix)) {
+										cloneFilePath = commonPathPrefix + "/" + cloneFilePath;
+									}
+									cloneCount++;
+									CloneInstance cloneInstance = getCloneInstance(cloneFilePath, cloneCount, true, startLine, 0, endLine, 0);
+									cloneGroup.addClone(cloneInstance);
+								} catch (NullPointerException npex) {
+									addExceptionHappenedDuringParsing(npex);
+								} catch (StringIndexOutOfBoundsException siobex) {
+									addExceptionHappenedDuringParsing(siobex);
+								} catch (NumberFormatException nfex) {
+									addExceptionHappenedDuringParsing(nfex);
+								} catch (JavaModelException jme) {
+									addExceptionHappenedDuringParsing(jme);
+								} catch (ICompilationUnitNotFoundException infe) {
+									addExceptionHappenedDuringParsing(infe);
+								}
+							}
+						}
+					} catch (IOException ioex) {
+						addExceptionHappenedDuringParsing(ioex);
+					} finally {
+						closeLineReader(reader);
 					}
-					cloneCount++;
-					CloneInstance cloneInstance = getCloneInstance(cloneFilePath, cloneCount, true, startLine, 0, endLine, 0);
-					cloneGroup.addClone(cloneInstance);
-				} catch (NullPointerException npex) {
-					addExceptionHappenedDuringParsing(npex);
-				} catch (StringIndexOutOfBoundsException siobex) {
-					addExceptionHappenedDuringParsing(siobex);
-				} catch (NumberFormatException nfex) {
-					addExceptionHappenedDuringParsing(nfex);
-				} catch (JavaModelException jme) {
-					addExceptionHappenedDuringParsing(jme);
-				} catch (ICompilationUnitNotFoundException infe) {
-					addExceptionHappenedDuringParsing(infe);
+					return cloneGroup;
 				}
-			}
-			if (cloneGroup.getCloneGroupSize() > 1)
-				cloneGroups.add(cloneGroup);
-			progress(cloneGroupID);
+			});
 		}
+		resolveCloneGroups(cloneGroupResolvers.iterator(), cloneGroups);
 
 		if (cloneGroups.getCloneGroupsCount() == 0)
 			throw new InvalidInputFileException();
@@ -92,8 +114,7 @@ public class CloneDROutputParser extends CloneDetectorOutputParser {
 			}
 		});
 		for (File file : files) {
-			Pattern pattern = Pattern.compile("xCloneSet(\\d+).html");
-			Matcher matcher = pattern.matcher(file.getName());
+			Matcher matcher = CLONE_SET_FILE_NAME_PATTERN.matcher(file.getName());
 			if (matcher.find()) {
 				toReturn.add(Integer.parseInt(matcher.group(1)));
 			}
@@ -103,11 +124,20 @@ public class CloneDROutputParser extends CloneDetectorOutputParser {
 	}
 	
 	private String getCommonPathPrefix(String pathToFiles) {
-		String readFileContents = readFileContents(pathToFiles + "jFilesAnalyzed.html");
-		Pattern pattern = Pattern.compile("<h2>Common Path Prefix: <tt>(.+)</tt></h2>");
-		Matcher matcher = pattern.matcher(readFileContents);
-		if (matcher.find()) {
-			return matcher.group(1);
+		BufferedReader reader = null;
+		try {
+			reader = createLineReader(pathToFiles + "jFilesAnalyzed.html");
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Matcher matcher = COMMON_PATH_PREFIX_PATTERN.matcher(line);
+				if (matcher.find()) {
+					return matcher.group(1);
+				}
+			}
+		} catch (IOException ioex) {
+			ioex.printStackTrace();
+		} finally {
+			closeLineReader(reader);
 		}
 		return "";
 	}
@@ -1,11 +1,26 @@
 package ca.concordia.jdeodorant.clone.parsers;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
@@ -20,6 +35,7 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.NodeFinder;
 
 import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFoundException;
+import gr.uom.java.ast.util.OrderedTaskExecutor;
 
 public abstract class CloneDetectorOutputParser {
 	
@@ -27,13 +43,15 @@ public abstract class CloneDetectorOutputParser {
 	private final IJavaProject iJavaProject;
 	private List<CloneDetectorOutputParserProgressObserver> cloneDetectorOutputParserProgressObservers = 
 			new ArrayList<CloneDetectorOutputParserProgressObserver>();
-	private boolean operationCanceled;
+	private volatile boolean operationCanceled;
 	private List<Throwable> exceptions = new ArrayList<Throwable>();
 	private int cloneGroupCount;
+	private final ResourceInfoCache resourceInfoCache;
 	
 	public CloneDetectorOutputParser(IJavaProject iJavaProject, String cloneOutputFilePath) throws InvalidInputFileException {
 		this.toolOutputFilePath = cloneOutputFilePath;
 		this.iJavaProject = iJavaProject; 
+		this.resourceInfoCache = new ResourceInfoCache(iJavaProject);
 	}
 
 	public String getToolOutputFilePath() {
@@ -87,6 +105,62 @@ public abstract class CloneDetectorOutputParser {
 		return readFileContents(getToolOutputFilePath());
 	}
 	
+	/*
+	 * Returns a reader over the lines of a file, for the clone detectors whose output is processed line by line, 
+	 * so that only the lines of the current clone group are kept in memory.
+	 */
+	protected BufferedReader createLineReader(String filePath) throws FileNotFoundException {
+		return new BufferedReader(new FileReader(filePath));
+	}
+	
+	protected static void closeLineReader(BufferedReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
+	/*
+	 * Returns a StAX reader over the tool output, for the clone detectors reporting in XML, 
+	 * so that the report is read without keeping its DOM in memory. Closing the reader closes the file as well.
+	 */
+	protected XMLStreamReader createXMLStreamReader() throws IOException, XMLStreamException {
+		final InputStream inputStream = new BufferedInputStream(new FileInputStream(getToolOutputFilePath()));
+		try {
+			XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
+			return new StreamReaderDelegate(reader) {
+				@Override
+				public void close() throws XMLStreamException {
+					try {
+						super.close();
+					} finally {
+						try {
+							inputStream.close();
+						} catch (IOException e) {
+							e.printStackTrace();
+						}
+					}
+				}
+			};
+		} catch (XMLStreamException e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+	
+	protected static void closeXMLStreamReader(XMLStreamReader reader) {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+	
 	protected void progress(int cloneGroupIndex) {
 		for (CloneDetectorOutputParserProgressObserver observer : cloneDetectorOutputParserProgressObservers)
 			observer.notify(cloneGroupIndex);
@@ -173,18 +247,208 @@ public abstract class CloneDetectorOutputParser {
 	}
 
 	protected void addExceptionHappenedDuringParsing(Throwable ex) {
-		exceptions.add(new CloneDetectorOutputParseException(ex));
+		synchronized (exceptions) {
+			exceptions.add(new CloneDetectorOutputParseException(ex));
+		}
 	}
 
 	public List<Throwable> getWarningExceptions() {
-		return new ArrayList<Throwable>(this.exceptions);
+		synchronized (exceptions) {
+			return new ArrayList<Throwable>(this.exceptions);
+		}
+	}
+	
+	// A clone instance as it is reported by the clone detectors giving whole lines, before it is resolved
+	protected static class CloneInstanceLines {
+		
+		private final String filePath;
+		private final int cloneInstanceID;
+		private final int startLine;
+		private final int endLine;
+		
+		public CloneInstanceLines(String filePath, int cloneInstanceID, int startLine, int endLine) {
+			this.filePath = filePath;
+			this.cloneInstanceID = cloneInstanceID;
+			this.startLine = startLine;
+			this.endLine = endLine;
+		}
+
+		public String getFilePath() {
+			return filePath;
+		}
+
+		public int getCloneInstanceID() {
+			return cloneInstanceID;
+		}
+
+		public int getStartLine() {
+			return startLine;
+		}
+
+		public int getEndLine() {
+			return endLine;
+		}
+	}
+	
+	/*
+	 * Resolves the clone instances of a clone group read from the output of the clone detector, 
+	 * i.e., parses the files containing them and looks up the IMethods containing them. 
+	 * The resolvers run in worker threads, so everything they need from the tool output 
+	 * (e.g., DOM nodes, token tables) must be read in the calling thread before they are created.
+	 * The exceptions are collected by the resolver (its addExceptionHappenedDuringParsing() hides the one of the parser), 
+	 * and are reported to the parser in the order of the clone groups. 
+	 */
+	protected abstract class CloneGroupResolver implements Callable<CloneGroupResolver> {
+		
+		private final int cloneGroupIndex;
+		private final List<Throwable> exceptions = new ArrayList<Throwable>();
+		private CloneGroup cloneGroup;
+		
+		public CloneGroupResolver(int cloneGroupIndex) {
+			this.cloneGroupIndex = cloneGroupIndex;
+		}
+		
+		// Returns null if the clone group could not be resolved
+		protected abstract CloneGroup resolveCloneGroup();
+		
+		protected void addExceptionHappenedDuringParsing(Throwable ex) {
+			exceptions.add(ex);
+		}
+		
+		public CloneGroupResolver call() {
+			cloneGroup = resolveCloneGroup();
+			return this;
+		}
+	}
+	
+	// Reports an exception happened while reading a clone group from the tool output, in the order of the clone groups
+	protected class FailedCloneGroupResolver extends CloneGroupResolver {
+		
+		private final Throwable exception;
+		
+		public FailedCloneGroupResolver(int cloneGroupIndex, Throwable exception) {
+			super(cloneGroupIndex);
+			this.exception = exception;
+		}
+		
+		@Override
+		protected CloneGroup resolveCloneGroup() {
+			addExceptionHappenedDuringParsing(exception);
+			return null;
+		}
+	}
+	
+	// Resolves a clone group given as whole lines, which is discarded if any of its clone instances cannot be resolved
+	protected class CloneInstanceLinesResolver extends CloneGroupResolver {
+		
+		private final int cloneGroupID;
+		private final List<CloneInstanceLines> cloneInstances;
+		private final boolean isAbsoluteFilePath;
+		
+		public CloneInstanceLinesResolver(int cloneGroupIndex, int cloneGroupID, List<CloneInstanceLines> cloneInstances, boolean isAbsoluteFilePath) {
+			super(cloneGroupIndex);
+			this.cloneGroupID = cloneGroupID;
+			this.cloneInstances = cloneInstances;
+			this.isAbsoluteFilePath = isAbsoluteFilePath;
+		}
+		
+		@Override
+		protected CloneGroup resolveCloneGroup() {
+			try {
+				CloneGroup cloneGroup = new CloneGroup(cloneGroupID);
+				for (CloneInstanceLines cloneInstanceLines : cloneInstances) {
+					CloneInstance cloneInstance = getCloneInstance(cloneInstanceLines, isAbsoluteFilePath);
+					cloneGroup.addClone(cloneInstance);
+				}
+				return cloneGroup;
+			} catch (NullPointerException npex) {
+				addExceptionHappenedDuringParsing(npex);
+			} catch (StringIndexOutOfBoundsException siobex) {
+				addExceptionHappenedDuringParsing(siobex);
+			} catch (JavaModelException jme) {
+				addExceptionHappenedDuringParsing(jme);
+			} catch (ICompilationUnitNotFoundException infe) {
+				addExceptionHappenedDuringParsing(infe);
+			}
+			return null;
+		}
+	}
+	
+	/*
+	 * Reads the clone groups from the tool output one by one, as resolveCloneGroups asks for more resolvers, 
+	 * so that only the clone groups pending in the worker threads are kept in memory.
+	 */
+	protected abstract class CloneGroupReader implements Iterator<CloneGroupResolver> {
+		
+		private CloneGroupResolver nextResolver;
+		private boolean endOfOutput;
+		
+		// Returns null at the end of the tool output
+		protected abstract CloneGroupResolver readNextCloneGroup();
+		
+		// Reports an exception that prevents reading the rest of the tool output, after the clone groups read so far
+		protected CloneGroupResolver stopReading(int cloneGroupIndex, Throwable ex) {
+			endOfOutput = true;
+			return new FailedCloneGroupResolver(cloneGroupIndex, ex);
+		}
+		
+		public boolean hasNext() {
+			if (nextResolver == null && !endOfOutput) {
+				nextResolver = readNextCloneGroup();
+				if (nextResolver == null)
+					endOfOutput = true;
+			}
+			return nextResolver != null;
+		}
+		
+		public CloneGroupResolver next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			CloneGroupResolver resolver = nextResolver;
+			nextResolver = null;
+			return resolver;
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+	
+	/*
+	 * Runs the resolvers in a pool of worker threads. The resolved clone groups are added to cloneGroups 
+	 * and the progress is reported in the calling thread, in the order of the resolvers, 
+	 * so that the result is the same as when the clone groups are resolved one after another.
+	 * Returns when all the resolvers have been consumed or the operation has been canceled.
+	 */
+	protected void resolveCloneGroups(Iterator<? extends CloneGroupResolver> resolvers, final CloneGroupList cloneGroups) {
+		final IProgressMonitor monitor = new NullProgressMonitor();
+		if (this.isOperationCanceled())
+			return;
+		OrderedTaskExecutor.ResultHandler<CloneGroupResolver> handler = new OrderedTaskExecutor.ResultHandler<CloneGroupResolver>() {
+			public void handleResult(CloneGroupResolver resolver) {
+				for (Throwable ex : resolver.exceptions)
+					addExceptionHappenedDuringParsing(ex);
+				if (resolver.cloneGroup != null && resolver.cloneGroup.getCloneGroupSize() > 1)
+					cloneGroups.add(resolver.cloneGroup);
+				progress(resolver.cloneGroupIndex);
+				if (isOperationCanceled())
+					monitor.setCanceled(true);
+			}
+		};
+		try {
+			new OrderedTaskExecutor<CloneGroupResolver>().execute(resolvers, handler, monitor);
+		} catch (OperationCanceledException ex) {
+			if (!monitor.isCanceled())
+				throw ex;
+		}
 	}
 	
 	protected CloneInstance getCloneInstance(String filePath, int cloneInstanceID, boolean isAbsoluteFilePath, 
 			int startLine, int startColumn, int endLine, int endColumn) 
 			throws JavaModelException, ICompilationUnitNotFoundException {
-		ResourceInfo resourceInfo = ResourceInfo.getResourceInfo(this.getIJavaProject(), filePath, isAbsoluteFilePath);
-		CloneInstanceLocationInfo locationInfo = new CloneInstanceLocationInfo(resourceInfo.getFullPath(), startLine, startColumn, endLine, endColumn);
+		ResourceInfo resourceInfo = resourceInfoCache.getResourceInfo(filePath, isAbsoluteFilePath);
+		CloneInstanceLocationInfo locationInfo = new CloneInstanceLocationInfo(resourceInfo.getFullPath(), resourceInfo.getSourceFileLines(), 
+				startLine, startColumn, endLine, endColumn);
 		CloneInstance cloneInstance = getCloneInstance(cloneInstanceID, resourceInfo, locationInfo);
 		return cloneInstance;
 	}
@@ -192,12 +456,19 @@ public abstract class CloneDetectorOutputParser {
 	protected CloneInstance getCloneInstance(String filePath, int cloneInstanceIndex, boolean isAbsoluteFilePath, 
 			int startOffset, int endOffset) 
 			throws JavaModelException, ICompilationUnitNotFoundException {
-		ResourceInfo resourceInfo = ResourceInfo.getResourceInfo(this.getIJavaProject(), filePath, isAbsoluteFilePath);
-		CloneInstanceLocationInfo locationInfo = new CloneInstanceLocationInfo(resourceInfo.getFullPath(), startOffset, endOffset);
+		ResourceInfo resourceInfo = resourceInfoCache.getResourceInfo(filePath, isAbsoluteFilePath);
+		CloneInstanceLocationInfo locationInfo = new CloneInstanceLocationInfo(resourceInfo.getFullPath(), resourceInfo.getSourceFileLines(), 
+				startOffset, endOffset);
 		CloneInstance cloneInstance = getCloneInstance(cloneInstanceIndex, resourceInfo, locationInfo);
 		return cloneInstance;
 	}
 
+	protected CloneInstance getCloneInstance(CloneInstanceLines cloneInstanceLines, boolean isAbsoluteFilePath) 
+			throws JavaModelException, ICompilationUnitNotFoundException {
+		return getCloneInstance(cloneInstanceLines.getFilePath(), cloneInstanceLines.getCloneInstanceID(), isAbsoluteFilePath, 
+				cloneInstanceLines.getStartLine(), 0, cloneInstanceLines.getEndLine(), 0);
+	}
+
 	private CloneInstance getCloneInstance(int cloneInstanceIndex, ResourceInfo resourceInfo, CloneInstanceLocationInfo locationInfo) {
 		CloneInstance cloneInstance = new CloneInstance(locationInfo, cloneInstanceIndex);
 		cloneInstance.setSourceFolder(resourceInfo.getSourceFolder());
@@ -21,40 +21,48 @@ public class CloneInstanceLocationInfo {
 	private int updatedEndOffset;
 	
 	public CloneInstanceLocationInfo(String filePath, int startOffset, int endOffset) {
+		this(filePath, SourceFileLines.readSourceFileLines(filePath), startOffset, endOffset);
+	}
+
+	public CloneInstanceLocationInfo(String filePath, SourceFileLines sourceFileLines, int startOffset, int endOffset) {
 		this.filePath = filePath;
 		this.startOffset = startOffset;
 		this.endOffset = endOffset;
 		this.updatedStartOffset = startOffset;
 		this.updatedEndOffset = endOffset;
 		this.length = endOffset - startOffset + 1;
-		String containingFileContents = readFileContents(filePath);
+		String containingFileContents = sourceFileLines.getContents();
 		if (!"".equals(containingFileContents)) {
 			if (this.length < containingFileContents.length()) {			
-				String linesBeforeAndIncludingOffset = containingFileContents.substring(0, startOffset - 1);
-				this.startLine = getLines(linesBeforeAndIncludingOffset).length;
-				this.startColumn = this.startOffset - getNumberOfCharsForLines(linesBeforeAndIncludingOffset, this.startLine - 1);
+				int linesBeforeAndIncludingOffset = startOffset - 1;
+				this.startLine = sourceFileLines.getNumberOfLines(linesBeforeAndIncludingOffset);
+				this.startColumn = this.startOffset - sourceFileLines.getNumberOfCharsForLines(linesBeforeAndIncludingOffset, this.startLine - 1);
 				
-				linesBeforeAndIncludingOffset = containingFileContents.substring(0, endOffset - 1);
-				this.endLine = getLines(linesBeforeAndIncludingOffset).length;
-				this.endColumn = endOffset - getNumberOfCharsForLines(linesBeforeAndIncludingOffset, this.endLine - 1);
+				linesBeforeAndIncludingOffset = endOffset - 1;
+				this.endLine = sourceFileLines.getNumberOfLines(linesBeforeAndIncludingOffset);
+				this.endColumn = endOffset - sourceFileLines.getNumberOfCharsForLines(linesBeforeAndIncludingOffset, this.endLine - 1);
 			}
 		}
 	}
 
 	public CloneInstanceLocationInfo(String filePath, int startLine, int startColumn, int endLine, int endColumn) {
+		this(filePath, SourceFileLines.readSourceFileLines(filePath), startLine, startColumn, endLine, endColumn);
+	}
+
+	public CloneInstanceLocationInfo(String filePath, SourceFileLines sourceFileLines, int startLine, int startColumn, int endLine, int endColumn) {
 		this.filePath = filePath;
 		this.startLine = startLine;
 		this.startColumn = startColumn;
 		this.endLine = endLine;
 		this.endColumn = endColumn;
-		String fileContents = readFileContents(filePath);
-		int numberOfCharsForLines = getNumberOfCharsForLines(fileContents, startLine - 1); // The first offset of the start line
+		String fileContents = sourceFileLines.getContents();
+		int numberOfCharsForLines = sourceFileLines.getNumberOfCharsForLines(fileContents.length(), startLine - 1); // The first offset of the start line
 
 		this.startOffset = numberOfCharsForLines + this.startColumn;
 		while (this.startOffset < fileContents.length() && isWhiteSpaceCharacter(fileContents.charAt(startOffset))) {
 			this.startOffset++;
 		}
-		numberOfCharsForLines = getNumberOfCharsForLines(fileContents, endLine) - 1; // The last offset of the end line
+		numberOfCharsForLines = sourceFileLines.getNumberOfCharsForLines(fileContents.length(), endLine) - 1; // The last offset of the end line
 		this.endOffset = numberOfCharsForLines + this.endColumn;
 
 		while (this.endOffset >= 0 && isWhiteSpaceCharacter(fileContents.charAt(this.endOffset))) {
@@ -88,28 +96,6 @@ public class CloneInstanceLocationInfo {
 		return "";
 	}
 
-	private String[] getLines(String string) {
-		if (string.indexOf("\n") >= 0) {
-			return string.split("\n");
-		} else if (string.indexOf("\r") >= 0) {
-			return string.split("\r");
-		}
-		return new String[] { string };
-	}
-	
-	private int getNumberOfCharsForLines(String fileContents, int line) {
-		int charsBeforeLine = 0;
-		String[] lines = getLines(fileContents);
-		for (int i = 0; i < line && i < lines.length; i++) {
-			charsBeforeLine += lines[i].length() + 1; // 1 for Line Feed character
-		}
-		// Happens when the last char of the document is not a line feed character
-		if (charsBeforeLine > fileContents.length() - 1) {
-			charsBeforeLine = fileContents.length() - 1;
-		}
-		return charsBeforeLine;
-	}
-	
 	public String getContainingFilePath() {
 		try {
 			return (new File(filePath)).getCanonicalPath();
@@ -1,49 +1,54 @@
 package ca.concordia.jdeodorant.clone.parsers;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.jdt.core.IJavaProject;
-import org.eclipse.jdt.core.JavaModelException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFoundException;
 
 public class ConQATOutputParser extends CloneDetectorOutputParser{
 	
-	private Document document;
+	private final Map<Integer, String> filesMap = new HashMap<Integer, String>();
 
 	public ConQATOutputParser(IJavaProject iJavaProject, String cloneOutputFilePath) throws InvalidInputFileException {
 		super(iJavaProject, cloneOutputFilePath);
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setIgnoringElementContentWhitespace(true);
+		// The source files are collected and the clone classes are counted in a first pass over the report
+		XMLStreamReader reader = null;
 		try {
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			File file = new File(this.getToolOutputFilePath());
-			this.document = builder.parse(file);
-			NodeList cloneClassesNodeList = document.getElementsByTagName("cloneClass");
-			if (cloneClassesNodeList.getLength() != 0) {
-				this.setCloneGroupCount(cloneClassesNodeList.getLength());
-			} else {			
-				this.document = null;
+			reader = createXMLStreamReader();
+			int cloneClassCount = 0;
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					if ("cloneClass".equals(reader.getLocalName())) {
+						cloneClassCount++;
+					} else if ("sourceFile".equals(reader.getLocalName())) {
+						int id = Integer.parseInt(reader.getAttributeValue(null, "id")); 
+						String location = reader.getAttributeValue(null, "location");
+						if (location == null)
+							throw new InvalidInputFileException();
+						filesMap.put(id, location.replace("\\", "/"));
+					}
+				}
+			}
+			if (cloneClassCount != 0) {
+				this.setCloneGroupCount(cloneClassCount);
+			} else {
 				throw new InvalidInputFileException();
 			}
+		} catch (NumberFormatException nfex) {
+			throw new InvalidInputFileException(nfex);
 		} catch (IOException ioex) {
-			ioex.printStackTrace();
-		} catch (SAXException saxe) {
-			saxe.printStackTrace();
-		} catch (ParserConfigurationException e) {
-			e.printStackTrace();
+			throw new InvalidInputFileException(ioex);
+		} catch (XMLStreamException xmlex) {
+			throw new InvalidInputFileException(xmlex);
+		} finally {
+			closeXMLStreamReader(reader);
 		}
 	}
 
@@ -52,49 +57,16 @@ public class ConQATOutputParser extends CloneDetectorOutputParser{
 
 		CloneGroupList cloneGroups = new CloneGroupList(getIJavaProject());
 		
-		if (this.document == null)
-			throw new InvalidInputFileException();
-		
-		Map<Integer, String> filesMap = getFilesIdToPathMap();
-		
-		NodeList cloneClassesNodeList = this.document.getElementsByTagName("cloneClass");
-		for (int i = 0; i < cloneClassesNodeList.getLength(); i++) {
-			
-			if (this.isOperationCanceled())
-				break;
-			
-			try {
-				int cloneGroupIndex = i + 1;
-				Node cloneClassNode = cloneClassesNodeList.item(i);
-				int cloneGroupID = Integer.parseInt(cloneClassNode.getAttributes().getNamedItem("id").getNodeValue());
-				CloneGroup cloneGroup = new CloneGroup(cloneGroupID);
-				NodeList cloneClassNodeChilds = ((Element)cloneClassNode).getElementsByTagName("clone");
-				for (int j = 0; j < cloneClassNodeChilds.getLength(); j++) {
-					int cloneInstanceID = j + 1;
-					Node cloneNode = cloneClassNodeChilds.item(j);
-					int cloneFileID = Integer.parseInt(cloneNode.getAttributes().getNamedItem("sourceFileId").getNodeValue());
-					String filePath = filesMap.get(cloneFileID);
-					int startLine = Integer.parseInt(cloneNode.getAttributes().getNamedItem("startLine").getNodeValue()); 
-					int endLine = Integer.parseInt(cloneNode.getAttributes().getNamedItem("endLine").getNodeValue()); ; 
-					CloneInstance cloneInstance = getCloneInstance(filePath, cloneInstanceID, true, startLine, 0, endLine, 0);
-					cloneGroup.addClone(cloneInstance);
-				}
-				
-				if (cloneGroup.getCloneGroupSize() > 1)
-					cloneGroups.add(cloneGroup);
-				
-				progress(cloneGroupIndex);
-			} catch (NullPointerException npex) {
-				addExceptionHappenedDuringParsing(npex);
-			} catch (StringIndexOutOfBoundsException siobex) {
-				addExceptionHappenedDuringParsing(siobex);
-			} catch (NumberFormatException nfex) {
-				addExceptionHappenedDuringParsing(nfex);
-			} catch (JavaModelException jme) {
-				addExceptionHappenedDuringParsing(jme);
-			} catch (ICompilationUnitNotFoundException infe) {
-				addExceptionHappenedDuringParsing(infe);
-			}
+		XMLStreamReader reader = null;
+		try {
+			reader = createXMLStreamReader();
+			resolveCloneGroups(new ConQATCloneGroupReader(reader), cloneGroups);
+		} catch (IOException ioex) {
+			throw new InvalidInputFileException(ioex);
+		} catch (XMLStreamException xmlex) {
+			throw new InvalidInputFileException(xmlex);
+		} finally {
+			closeXMLStreamReader(reader);
 		}
 		
 		if (cloneGroups.getCloneGroupsCount() == 0)
@@ -103,16 +75,60 @@ public class ConQATOutputParser extends CloneDetectorOutputParser{
 		return cloneGroups;
 	}
 	
-	private Map<Integer, String> getFilesIdToPathMap() {
-		Map<Integer, String> resultingMap = new HashMap<Integer, String>();
-		NodeList sourceFiles = this.document.getElementsByTagName("sourceFile");
-		for (int i = 0; i < sourceFiles.getLength(); i++) {
-			Node fileNode = sourceFiles.item(i);
-			int id = Integer.parseInt(fileNode.getAttributes().getNamedItem("id").getNodeValue()); 
-			String path = fileNode.getAttributes().getNamedItem("location").getNodeValue().replace("\\", "/");
-			resultingMap.put(id, path);
+	private class ConQATCloneGroupReader extends CloneGroupReader {
+		
+		private final XMLStreamReader reader;
+		private int cloneGroupIndex = 0;
+		
+		public ConQATCloneGroupReader(XMLStreamReader reader) {
+			this.reader = reader;
+		}
+		
+		@Override
+		protected CloneGroupResolver readNextCloneGroup() {
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && "cloneClass".equals(reader.getLocalName())) {
+						cloneGroupIndex++;
+						try {
+							return readCloneClass();
+						} catch (NumberFormatException nfex) {
+							return new FailedCloneGroupResolver(cloneGroupIndex, nfex);
+						}
+					}
+				}
+			} catch (XMLStreamException xmlex) {
+				return stopReading(cloneGroupIndex, xmlex);
+			}
+			return null;
+		}
+		
+		// If an attribute is invalid, the rest of the cloneClass element is skipped by readNextCloneGroup()
+		private CloneGroupResolver readCloneClass() throws XMLStreamException {
+			int cloneGroupID = Integer.parseInt(reader.getAttributeValue(null, "id"));
+			List<CloneInstanceLines> cloneInstances = new ArrayList<CloneInstanceLines>();
+			int cloneInstanceID = 0;
+			int depth = 0;
+			while (true) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					if ("clone".equals(reader.getLocalName())) {
+						cloneInstanceID++;
+						int cloneFileID = Integer.parseInt(reader.getAttributeValue(null, "sourceFileId"));
+						String filePath = filesMap.get(cloneFileID);
+						int startLine = Integer.parseInt(reader.getAttributeValue(null, "startLine")); 
+						int endLine = Integer.parseInt(reader.getAttributeValue(null, "endLine")); 
+						cloneInstances.add(new CloneInstanceLines(filePath, cloneInstanceID, startLine, endLine));
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					if (depth == 0)
+						break;
+					depth--;
+				}
+			}
+			return new CloneInstanceLinesResolver(cloneGroupIndex, cloneGroupID, cloneInstances, true);
 		}
-		return resultingMap;
 	}
 
 }
@@ -1,5 +1,11 @@
 package ca.concordia.jdeodorant.clone.parsers;
 
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -9,18 +15,28 @@ import org.eclipse.jdt.core.JavaModelException;
 import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFoundException;
 
 public class DeckardOutputParser extends CloneDetectorOutputParser {
-	private String resultsFile;
+	private static final Pattern BLANK_LINE_PATTERN = Pattern.compile("\\s*");
+	private static final Pattern CLONE_INSTANCE_LINE_PATTERN = 
+			Pattern.compile("[0-9]+\\sdist:\\d+\\.\\d+\\sFILE\\s([[\\w\\s\\.-]+/]+[\\w\\s\\.-]+)\\sLINE:([0-9]+):([0-9]+)\\s.*");
 	
 	public DeckardOutputParser(IJavaProject javaProject, String deckardOutputFilePath) throws InvalidInputFileException {
 		super(javaProject, deckardOutputFilePath);
-		resultsFile = getResultsFileContents();
-		Pattern pattern = Pattern.compile("(?m)^\\s*$");
-		Matcher matcher = pattern.matcher(resultsFile);
+		// Each clone group is followed by a blank line
 		int cloneGroupCount = 0;
-		while (matcher.find())
-			cloneGroupCount++;
+		BufferedReader reader = null;
+		try {
+			reader = createLineReader(getToolOutputFilePath());
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (BLANK_LINE_PATTERN.matcher(line).matches())
+					cloneGroupCount++;
+			}
+		} catch (IOException ioex) {
+			throw new InvalidInputFileException(ioex);
+		} finally {
+			closeLineReader(reader);
+		}
 		if (cloneGroupCount == 0) {
-			resultsFile = null;
 			throw new InvalidInputFileException();
 		}
 		this.setCloneGroupCount(cloneGroupCount);
@@ -29,41 +45,78 @@ public class DeckardOutputParser extends CloneDetectorOutputParser {
 	@Override
 	public CloneGroupList readInputFile() throws InvalidInputFileException {
 		
-		if (resultsFile == null)
+		CloneGroupList cloneGroups = new CloneGroupList(getIJavaProject());
+		
+		BufferedReader reader = null;
+		try {
+			reader = createLineReader(getToolOutputFilePath());
+			resolveCloneGroups(new DeckardCloneGroupReader(reader), cloneGroups);
+		} catch (FileNotFoundException fnfex) {
+			throw new InvalidInputFileException(fnfex);
+		} finally {
+			closeLineReader(reader);
+		}
+		
+		if (cloneGroups.getCloneGroupsCount() == 0)
 			throw new InvalidInputFileException();
 		
-		CloneGroupList cloneGroups = new CloneGroupList(getIJavaProject());
+		return cloneGroups;
+	}
+	
+	// Collects the lines of each clone group, whose clone instances are read by the resolvers
+	private class DeckardCloneGroupReader extends CloneGroupReader {
 		
-		int groupID = 0;
+		private final BufferedReader reader;
+		private int groupID = 0;
 		
-		boolean inGroup = false;
-		int cloneInstanceNumber = 0;
-		CloneGroup cloneGroup = null;
+		public DeckardCloneGroupReader(BufferedReader reader) {
+			this.reader = reader;
+		}
 		
-		Pattern pattern = Pattern.compile("(.*)\r?\n");
-		Matcher matcher = pattern.matcher(resultsFile);
-
-		while (matcher.find()) {
-			
-			if (isOperationCanceled())
-				return cloneGroups;
-
-			String strLine = matcher.group(1);
-
-			String lookingFor = "[0-9]+\\sdist:\\d+\\.\\d+\\sFILE\\s([[\\w\\s\\.-]+/]+[\\w\\s\\.-]+)\\sLINE:([0-9]+):([0-9]+)\\s.*";
-
-			Pattern linePattern = Pattern.compile(lookingFor);
-			Matcher lineMatcher = linePattern.matcher(strLine);
-
-			if (lineMatcher.find()) {
-
-				if (!inGroup) {
-					inGroup = true;
-					groupID++;
-					cloneInstanceNumber = 1;
-					cloneGroup = new CloneGroup(groupID);
+		@Override
+		protected CloneGroupResolver readNextCloneGroup() {
+			List<MatchResult> cloneInstanceLines = null;
+			try {
+				String strLine;
+				while ((strLine = reader.readLine()) != null) {
+					
+					Matcher lineMatcher = CLONE_INSTANCE_LINE_PATTERN.matcher(strLine);
+					
+					if (lineMatcher.find()) {
+						
+						if (cloneInstanceLines == null) {
+							groupID++;
+							cloneInstanceLines = new ArrayList<MatchResult>();
+						}
+						cloneInstanceLines.add(lineMatcher.toMatchResult());
+						
+					} else if (cloneInstanceLines != null) {
+						return new DeckardCloneGroupResolver(groupID, cloneInstanceLines);
+					}
 				}
-
+			} catch (IOException ioex) {
+				return stopReading(groupID, ioex);
+			}
+			return null;
+		}
+	}
+	
+	private class DeckardCloneGroupResolver extends CloneGroupResolver {
+		
+		private final int groupID;
+		private final List<MatchResult> cloneInstanceLines;
+		
+		public DeckardCloneGroupResolver(int groupID, List<MatchResult> cloneInstanceLines) {
+			super(groupID);
+			this.groupID = groupID;
+			this.cloneInstanceLines = cloneInstanceLines;
+		}
+		
+		@Override
+		protected CloneGroup resolveCloneGroup() {
+			CloneGroup cloneGroup = new CloneGroup(groupID);
+			int cloneInstanceNumber = 1;
+			for (MatchResult lineMatcher : cloneInstanceLines) {
 				String filePath = lineMatcher.group(1);
 				try {
 					int startLine = Integer.parseInt(lineMatcher.group(2));
@@ -81,18 +134,8 @@ public class DeckardOutputParser extends CloneDetectorOutputParser {
 				} catch (ICompilationUnitNotFoundException ex) {
 					addExceptionHappenedDuringParsing(ex);
 				}
-			} else {
-				if (cloneGroup != null && cloneGroup.getCloneGroupSize() > 1)
-					cloneGroups.add(cloneGroup);
-				inGroup = false;
-				progress(groupID);
 			}
-
+			return cloneGroup;
 		}
-		
-		if (cloneGroups.getCloneGroupsCount() == 0)
-			throw new InvalidInputFileException();
-		
-		return cloneGroups;
 	}
 }
@@ -1,99 +1,136 @@
 package ca.concordia.jdeodorant.clone.parsers;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.eclipse.jdt.core.IJavaProject;
-import org.eclipse.jdt.core.JavaModelException;
-import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFoundException;
 
 
 public class NiCadOutputParser extends CloneDetectorOutputParser {
 
-	private Document document;
-
 	public NiCadOutputParser(IJavaProject iJavaProject, String cloneOutputFilePath) throws InvalidInputFileException {
 		super(iJavaProject, cloneOutputFilePath);
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setIgnoringElementContentWhitespace(true);
+		XMLStreamReader reader = null;
 		try {
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			File file = new File(this.getToolOutputFilePath());
-			this.document  = builder.parse(file);
-			NodeList classInfoNodeList = document.getElementsByTagName("classinfo");
-			try {
-				this.setCloneGroupCount(Integer.parseInt(classInfoNodeList.item(0).getAttributes().getNamedItem("nclasses").getNodeValue()));
-			} catch (Exception nfe) {
-				this.document = null;
-				throw new InvalidInputFileException();
+			reader = createXMLStreamReader();
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT && "classinfo".equals(reader.getLocalName())) {
+					try {
+						this.setCloneGroupCount(Integer.parseInt(reader.getAttributeValue(null, "nclasses")));
+						return;
+					} catch (NumberFormatException nfe) {
+						break;
+					}
+				}
 			}
+			throw new InvalidInputFileException();
 		} catch (IOException ioex) {
-			ioex.printStackTrace();
-		} catch (SAXException saxe) {
-			saxe.printStackTrace();
-		} catch (ParserConfigurationException e) {
-			e.printStackTrace();
+			throw new InvalidInputFileException(ioex);
+		} catch (XMLStreamException xmlex) {
+			throw new InvalidInputFileException(xmlex);
+		} finally {
+			closeXMLStreamReader(reader);
 		}
 	}
 
 	@Override
 	public CloneGroupList readInputFile() throws InvalidInputFileException {
 		
-		if (this.document == null)
-			throw new InvalidInputFileException();
-
 		CloneGroupList cloneGroups = new CloneGroupList(getIJavaProject());
 
-		NodeList classNodeList = document.getElementsByTagName("class");
-		for (int cloneClassIndex = 0; cloneClassIndex < classNodeList.getLength(); cloneClassIndex++) {
-			if (this.isOperationCanceled())
-				break;
-			Node classNode = classNodeList.item(cloneClassIndex);
-			try {
-				int cloneGroupID = Integer.parseInt(classNode.getAttributes().getNamedItem("classid").getNodeValue());
-				CloneGroup cloneGroup = new CloneGroup(cloneGroupID);
-				NodeList cloneInstancesNodeList = classNode.getChildNodes();
-				for (int cloneInstanceIndex = 0; cloneInstanceIndex < cloneInstancesNodeList.getLength(); cloneInstanceIndex++) {
-					Node cloneInstanceNode = cloneInstancesNodeList.item(cloneInstanceIndex);
-					if ("source".equals(cloneInstanceNode.getNodeName())) {
-						NamedNodeMap cloneInstanceAttributes = cloneInstanceNode.getAttributes();
-						String filePath = cloneInstanceAttributes.getNamedItem("file").getNodeValue();
-						int startLine = Integer.parseInt(cloneInstanceAttributes.getNamedItem("startline").getNodeValue());
-						int endLine = Integer.parseInt(cloneInstanceAttributes.getNamedItem("endline").getNodeValue());
-						CloneInstance cloneInstance = getCloneInstance(filePath, cloneInstanceIndex, true, startLine, 0, endLine, 0);
-						cloneGroup.addClone(cloneInstance);
-					}
-				}
-				if (cloneGroup.getCloneGroupSize() > 1)
-					cloneGroups.add(cloneGroup);
-			} catch (NullPointerException npex) {
-				addExceptionHappenedDuringParsing(npex);
-			} catch (StringIndexOutOfBoundsException siobex) {
-				addExceptionHappenedDuringParsing(siobex);
-			} catch (NumberFormatException nfex) {
-				addExceptionHappenedDuringParsing(nfex);
-			} catch (JavaModelException jme) {
-				addExceptionHappenedDuringParsing(jme);
-			} catch (ICompilationUnitNotFoundException infe) {
-				addExceptionHappenedDuringParsing(infe);
-			}
-			progress(cloneClassIndex);
-		}	
+		XMLStreamReader reader = null;
+		try {
+			reader = createXMLStreamReader();
+			resolveCloneGroups(new NiCadCloneGroupReader(reader), cloneGroups);
+		} catch (IOException ioex) {
+			throw new InvalidInputFileException(ioex);
+		} catch (XMLStreamException xmlex) {
+			throw new InvalidInputFileException(xmlex);
+		} finally {
+			closeXMLStreamReader(reader);
+		}
 
 		if (cloneGroups.getCloneGroupsCount() == 0)
 			throw new InvalidInputFileException();
 
 		return cloneGroups;
 	}
+	
+	private class NiCadCloneGroupReader extends CloneGroupReader {
+		
+		private final XMLStreamReader reader;
+		private int cloneClassIndex = 0;
+		
+		public NiCadCloneGroupReader(XMLStreamReader reader) {
+			this.reader = reader;
+		}
+		
+		@Override
+		protected CloneGroupResolver readNextCloneGroup() {
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && "class".equals(reader.getLocalName())) {
+						try {
+							return readCloneClass();
+						} catch (NumberFormatException nfex) {
+							return new FailedCloneGroupResolver(cloneClassIndex, nfex);
+						} finally {
+							cloneClassIndex++;
+						}
+					}
+				}
+			} catch (XMLStreamException xmlex) {
+				return stopReading(cloneClassIndex, xmlex);
+			}
+			return null;
+		}
+
+		/*
+		 * The clone instances are numbered by their index among the child nodes of the class element 
+		 * (including the text between the elements), the same as when the report was read as a DOM.
+		 * If an attribute is invalid, the rest of the class element is skipped by readNextCloneGroup().
+		 */
+		private CloneGroupResolver readCloneClass() throws XMLStreamException {
+			int cloneGroupID = Integer.parseInt(reader.getAttributeValue(null, "classid"));
+			List<CloneInstanceLines> cloneInstances = new ArrayList<CloneInstanceLines>();
+			int cloneInstanceIndex = -1;
+			boolean inText = false;
+			int depth = 0;
+			while (true) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.END_ELEMENT) {
+					if (depth == 0)
+						break;
+					depth--;
+				} else if (depth == 0) {
+					if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+						if (!inText)
+							cloneInstanceIndex++;
+						inText = true;
+						continue;
+					}
+					cloneInstanceIndex++;
+					inText = false;
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						depth++;
+						if ("source".equals(reader.getLocalName())) {
+							String filePath = reader.getAttributeValue(null, "file");
+							int startLine = Integer.parseInt(reader.getAttributeValue(null, "startline"));
+							int endLine = Integer.parseInt(reader.getAttributeValue(null, "endline"));
+							cloneInstances.add(new CloneInstanceLines(filePath, cloneInstanceIndex, startLine, endLine));
+						}
+					}
+				} else if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+				}
+			}
+			return new CloneInstanceLinesResolver(cloneClassIndex, cloneGroupID, cloneInstances, true);
+		}
+	}
 
 }
@@ -26,6 +26,7 @@ public class ResourceInfo {
 	private final String packageName;
 	private final String className;
 	private final String givenPath;
+	private SourceFileLines sourceFileLines;
 
 	public ResourceInfo(String sourceFolder, ICompilationUnit iCompilationUnit, String givenPath) {
 		this.sourceFolder = sourceFolder;
@@ -104,6 +105,13 @@ public class ResourceInfo {
 		throw new ICompilationUnitNotFoundException(String.format("ICompilationUnit not found for %s", fullResourceName));
 	}
 
+	// The contents of the file are read once, and shared by all the clone instances of the file
+	public synchronized SourceFileLines getSourceFileLines() {
+		if (this.sourceFileLines == null)
+			this.sourceFileLines = SourceFileLines.readSourceFileLines(getFullPath());
+		return this.sourceFileLines;
+	}
+
 	public String getFullPath() {
 		if (this.iCompilationUnit != null)
 			return this.iCompilationUnit.getResource().getLocation().toPortableString();
@@ -0,0 +1,53 @@
+package ca.concordia.jdeodorant.clone.parsers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+
+import ca.concordia.jdeodorant.clone.parsers.ResourceInfo.ICompilationUnitNotFoundException;
+
+/*
+ * Caches the ResourceInfo of the files reported by a clone detector during an import, so that each file is located and
+ * parsed once, and its contents are read and indexed once, instead of once for every clone instance of the file.
+ * The least recently used files are evicted, so that at most MAXIMUM_CACHE_SIZE parsed compilation units are kept in memory.
+ */
+public class ResourceInfoCache {
+
+	private static final int MAXIMUM_CACHE_SIZE = 256;
+	private final IJavaProject iJavaProject;
+	private final LinkedHashMap<String, ResourceInfo> resourceInfoMap;
+
+	public ResourceInfoCache(IJavaProject iJavaProject) {
+		this.iJavaProject = iJavaProject;
+		this.resourceInfoMap = new LinkedHashMap<String, ResourceInfo>(16, 0.75f, true);
+	}
+
+	public ResourceInfo getResourceInfo(String filePath, boolean isAbsoluteFilePath) throws JavaModelException, ICompilationUnitNotFoundException {
+		String key = (isAbsoluteFilePath ? "absolute:" : "relative:") + filePath;
+		synchronized (this) {
+			ResourceInfo resourceInfo = resourceInfoMap.get(key);
+			if (resourceInfo != null)
+				return resourceInfo;
+		}
+		// The file is located and parsed outside the lock, so that different files can be parsed concurrently
+		ResourceInfo resourceInfo = ResourceInfo.getResourceInfo(iJavaProject, filePath, isAbsoluteFilePath);
+		synchronized (this) {
+			ResourceInfo cachedResourceInfo = resourceInfoMap.get(key);
+			if (cachedResourceInfo != null)
+				return cachedResourceInfo;
+			resourceInfoMap.put(key, resourceInfo);
+			Iterator<String> iterator = resourceInfoMap.keySet().iterator();
+			while (resourceInfoMap.size() > MAXIMUM_CACHE_SIZE && iterator.hasNext()) {
+				iterator.next();
+				iterator.remove();
+			}
+		}
+		return resourceInfo;
+	}
+
+	public synchronized void clear() {
+		resourceInfoMap.clear();
+	}
+}
@@ -0,0 +1,124 @@
+package ca.concordia.jdeodorant.clone.parsers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+/*
+ * The contents of a source file together with the sorted offsets of its line separators, so that line numbers
+ * are converted to offsets (and vice versa) by binary search, instead of splitting the file into lines for every clone instance.
+ * The conversions return the same results as splitting the first prefixLength characters of the contents with String.split,
+ * on line feeds, or on carriage returns if the prefix does not contain any line feed.
+ */
+public class SourceFileLines {
+
+	private final String contents;
+	private final int[] lineFeedOffsets;
+	private final int[] carriageReturnOffsets;
+
+	public SourceFileLines(String contents) {
+		this.contents = contents;
+		this.lineFeedOffsets = getSeparatorOffsets(contents, '\n');
+		this.carriageReturnOffsets = getSeparatorOffsets(contents, '\r');
+	}
+
+	public static SourceFileLines readSourceFileLines(String filePath) {
+		try {
+			InputStream in = new FileInputStream(new File(filePath));
+			InputStreamReader isr = new InputStreamReader(in);
+			StringWriter sw = new StringWriter();
+			int DEFAULT_BUFFER_SIZE = 1024 * 4;
+			char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+			int n = 0;
+			while (-1 != (n = isr.read(buffer))) {
+				sw.write(buffer, 0, n);
+			}
+			isr.close();
+			return new SourceFileLines(sw.toString());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return new SourceFileLines("");
+	}
+
+	private static int[] getSeparatorOffsets(String contents, char separator) {
+		int count = 0;
+		for (int i = 0; i < contents.length(); i++) {
+			if (contents.charAt(i) == separator)
+				count++;
+		}
+		int[] offsets = new int[count];
+		count = 0;
+		for (int i = 0; i < contents.length(); i++) {
+			if (contents.charAt(i) == separator)
+				offsets[count++] = i;
+		}
+		return offsets;
+	}
+
+	public String getContents() {
+		return contents;
+	}
+
+	// Returns null if the prefix does not contain any line separator
+	private int[] getSeparatorOffsets(int prefixLength) {
+		if (prefixLength < 0 || prefixLength > contents.length())
+			throw new StringIndexOutOfBoundsException(prefixLength);
+		if (lineFeedOffsets.length > 0 && lineFeedOffsets[0] < prefixLength)
+			return lineFeedOffsets;
+		if (carriageReturnOffsets.length > 0 && carriageReturnOffsets[0] < prefixLength)
+			return carriageReturnOffsets;
+		return null;
+	}
+
+	private static int getNumberOfSeparatorsBefore(int[] separatorOffsets, int offset) {
+		int index = Arrays.binarySearch(separatorOffsets, offset);
+		return index >= 0 ? index : -(index + 1);
+	}
+
+	/*
+	 * Returns the number of lines of the prefix, without the trailing empty lines,
+	 * which are discarded by String.split.
+	 */
+	public int getNumberOfLines(int prefixLength) {
+		int[] separatorOffsets = getSeparatorOffsets(prefixLength);
+		if (separatorOffsets == null)
+			return 1;
+		int numberOfSeparators = getNumberOfSeparatorsBefore(separatorOffsets, prefixLength);
+		int trailingSeparators = 0;
+		while (trailingSeparators < numberOfSeparators &&
+				separatorOffsets[numberOfSeparators - 1 - trailingSeparators] == prefixLength - 1 - trailingSeparators) {
+			trailingSeparators++;
+		}
+		// All the lines are empty, when the prefix consists only of separators
+		if (trailingSeparators == prefixLength)
+			return 0;
+		return numberOfSeparators + 1 - trailingSeparators;
+	}
+
+	/*
+	 * Returns the number of characters in the given number of first lines of the prefix, counting one separator per line,
+	 * bounded by the last offset of the prefix.
+	 */
+	public int getNumberOfCharsForLines(int prefixLength, int line) {
+		int[] separatorOffsets = getSeparatorOffsets(prefixLength);
+		int numberOfSeparators = separatorOffsets != null ? getNumberOfSeparatorsBefore(separatorOffsets, prefixLength) : 0;
+		int lines = Math.min(line, getNumberOfLines(prefixLength));
+		int charsBeforeLine;
+		if (lines <= 0)
+			charsBeforeLine = 0;
+		else if (lines <= numberOfSeparators)
+			charsBeforeLine = separatorOffsets[lines - 1] + 1;
+		else // The last line of the prefix is not followed by a separator
+			charsBeforeLine = prefixLength + 1;
+		// Happens when the last char of the document is not a line feed character
+		if (charsBeforeLine > prefixLength - 1) {
+			charsBeforeLine = prefixLength - 1;
+		}
+		return charsBeforeLine;
+	}
+}
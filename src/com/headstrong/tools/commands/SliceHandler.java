@@ -63,10 +63,10 @@ import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationErrorDetectedException;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.GraphEdge;
 import gr.uom.java.ast.decomposition.cfg.GraphNode;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 import gr.uom.java.ast.decomposition.cfg.PDGDependence;
 import gr.uom.java.ast.decomposition.cfg.PDGNode;
 
@@ -181,9 +181,8 @@ public class SliceHandler extends AbstractHandler {
         }
         
         // Assemble a PDG for the method
-        CFG cfg = new CFG(methodObject);
-        PDG pdg = new PDG(cfg, classObject.getIFile(),
-                classObject.getFieldsAccessedInsideMethod(methodObject), null);
+        // Reuse the PDG of a previous slice if the method has not changed since
+        PDG pdg = PDGCache.getInstance().getPDG(methodObject, classObject, null);
         
         // Find the node in the PDG that contains this statement
         PDGNode chosenNode = null;
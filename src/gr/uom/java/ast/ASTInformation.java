@@ -1,17 +1,25 @@
 package gr.uom.java.ast;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.NodeFinder;
 
-public class ASTInformation {
+public class ASTInformation implements Serializable {
+	private static final long serialVersionUID = 1L;
 
-	private ITypeRoot iTypeRoot;
+	private transient ITypeRoot iTypeRoot;
 	private int startPosition;
 	private int length;
 	private int nodeType;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public ASTInformation(ITypeRoot iTypeRoot, ASTNode astNode) {
 		this.iTypeRoot = iTypeRoot;
@@ -38,6 +46,19 @@ public class ASTInformation {
 		return length;
 	}
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeObject(iTypeRoot.getHandleIdentifier());
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		String handleIdentifier = (String)in.readObject();
+		this.iTypeRoot = (ITypeRoot)JavaCore.create(handleIdentifier);
+		if(iTypeRoot == null)
+			throw new InvalidObjectException("Unresolvable type root " + handleIdentifier);
+	}
+
 	public boolean equals(Object o) {
 		if(this == o) {
 			return true;
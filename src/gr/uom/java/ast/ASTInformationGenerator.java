@@ -5,13 +5,17 @@ import org.eclipse.jdt.core.dom.ASTNode;
 
 public class ASTInformationGenerator {
 
-	private static ITypeRoot iTypeRoot;
+	//the type root is set per thread, since ASTs of different type roots may be processed concurrently
+	private static final ThreadLocal<ITypeRoot> iTypeRoot = new ThreadLocal<ITypeRoot>();
 	
 	public static void setCurrentITypeRoot(ITypeRoot typeRoot) {
-		iTypeRoot = typeRoot;
+		iTypeRoot.set(typeRoot);
 	}
 
 	public static ASTInformation generateASTInformation(ASTNode astNode) {
-		return new ASTInformation(iTypeRoot, astNode);
+		ITypeRoot typeRoot = iTypeRoot.get();
+		if(typeRoot == null)
+			throw new IllegalStateException("No type root has been set for the current thread");
+		return new ASTInformation(typeRoot, astNode);
 	}
 }
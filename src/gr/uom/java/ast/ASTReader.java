@@ -23,6 +23,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Annotation;
 import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
@@ -49,55 +50,179 @@ import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.text.IDocument;
 
 import gr.uom.java.ast.decomposition.AbstractExpression;
 import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.ast.util.StatementExtractor;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class ASTReader {
 
 	private static SystemObject systemObject;
 	private static IJavaProject examinedProject;
+	//Map that has as key the handle identifier of a compilation unit of the SystemObject
+	//and as value the digest of the source from which its classes were parsed
+	private static Map<String, String> sourceDigestMap = new LinkedHashMap<String, String>();
 	public static final int JLS = AST.JLS4;
+	private static final int PARSING_BATCH_SIZE = 32;
 
 	public ASTReader(IJavaProject iJavaProject, IProgressMonitor monitor) throws CompilationErrorDetectedException {
 		List<IMarker> markers = buildProject(iJavaProject, monitor);
 		if(!markers.isEmpty()) {
 			throw new CompilationErrorDetectedException(markers);
 		}
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		boolean snapshotEnabled = store.getBoolean(PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT);
+		if(snapshotEnabled) {
+			SystemObjectSnapshot snapshot = SystemObjectSnapshot.load(iJavaProject);
+			if(snapshot != null) {
+				Set<ICompilationUnit> changedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
+				Set<ICompilationUnit> addedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
+				Set<ICompilationUnit> removedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
+				snapshot.findAffectedCompilationUnits(iJavaProject, changedCompilationUnits, addedCompilationUnits, removedCompilationUnits);
+				sourceDigestMap = new LinkedHashMap<String, String>(snapshot.getSourceDigestMap());
+				updateSystemObject(iJavaProject, snapshot.getSystemObject(),
+						changedCompilationUnits, addedCompilationUnits, removedCompilationUnits, monitor);
+				CompilationUnitCache.getInstance().clearAffectedCompilationUnits();
+				if(!changedCompilationUnits.isEmpty() || !addedCompilationUnits.isEmpty() || !removedCompilationUnits.isEmpty())
+					SystemObjectSnapshot.save(iJavaProject, systemObject, sourceDigestMap);
+				return;
+			}
+		}
+		List<ICompilationUnit> iCompilationUnits = getCompilationUnits(iJavaProject);
 		if(monitor != null)
-			monitor.beginTask("Parsing selected Java Project", getNumberOfCompilationUnits(iJavaProject));
+			monitor.beginTask("Parsing selected Java Project", iCompilationUnits.size());
 		systemObject = new SystemObject();
 		examinedProject = iJavaProject;
+		sourceDigestMap = new LinkedHashMap<String, String>();
+		if(store.getBoolean(PreferenceConstants.P_ENABLE_PARALLEL_PARSING)) {
+			parseInParallel(iCompilationUnits, monitor);
+		}
+		else {
+			for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+				if(monitor != null && monitor.isCanceled())
+	    			throw new OperationCanceledException();
+				systemObject.addClasses(parseAST(iCompilationUnit));
+				if(monitor != null)
+					monitor.worked(1);
+			}
+		}
+		if(snapshotEnabled)
+			SystemObjectSnapshot.save(iJavaProject, systemObject, sourceDigestMap);
+		if(monitor != null)
+			monitor.done();
+	}
+
+	/*
+	 * The compilation units are parsed in batches with ASTParser.createASTs() by a bounded pool of worker threads.
+	 * The ClassObjects are created in the calling thread by consuming the batches in submission order,
+	 * so that the SystemObject contains the classes in the same order as in the serial mode.
+	 */
+	private void parseInParallel(List<ICompilationUnit> iCompilationUnits, IProgressMonitor monitor) {
+		int numberOfThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+		int maximumPendingBatches = 2 * numberOfThreads;
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		LinkedList<CompilationUnitBatchParser> pendingBatches = new LinkedList<CompilationUnitBatchParser>();
+		LinkedList<Future<CompilationUnit[]>> pendingResults = new LinkedList<Future<CompilationUnit[]>>();
+		int nextBatchStart = 0;
 		try {
-			IPackageFragmentRoot[] iPackageFragmentRoots = iJavaProject.getPackageFragmentRoots();
-			for(IPackageFragmentRoot iPackageFragmentRoot : iPackageFragmentRoots) {
-				IJavaElement[] children = iPackageFragmentRoot.getChildren();
-				for(IJavaElement child : children) {
-					if(child.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
-						IPackageFragment iPackageFragment = (IPackageFragment)child;
-						ICompilationUnit[] iCompilationUnits = iPackageFragment.getCompilationUnits();
-						for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
-							if(monitor != null && monitor.isCanceled())
-				    			throw new OperationCanceledException();
-							systemObject.addClasses(parseAST(iCompilationUnit));
-							if(monitor != null)
-								monitor.worked(1);
-						}
+			while(nextBatchStart < iCompilationUnits.size() || !pendingBatches.isEmpty()) {
+				while(nextBatchStart < iCompilationUnits.size() && pendingBatches.size() < maximumPendingBatches) {
+					int nextBatchEnd = Math.min(nextBatchStart + PARSING_BATCH_SIZE, iCompilationUnits.size());
+					CompilationUnitBatchParser batch = new CompilationUnitBatchParser(iCompilationUnits.subList(nextBatchStart, nextBatchEnd));
+					pendingBatches.add(batch);
+					pendingResults.add(executor.submit(batch));
+					nextBatchStart = nextBatchEnd;
+				}
+				CompilationUnitBatchParser batch = pendingBatches.removeFirst();
+				Future<CompilationUnit[]> result = pendingResults.removeFirst();
+				CompilationUnit[] compilationUnits = null;
+				try {
+					compilationUnits = result.get();
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+				ICompilationUnit[] batchCompilationUnits = batch.getICompilationUnits();
+				for(int i=0; i<batchCompilationUnits.length; i++) {
+					if(monitor != null && monitor.isCanceled())
+						throw new OperationCanceledException();
+					ICompilationUnit iCompilationUnit = batchCompilationUnits[i];
+					if(compilationUnits != null && compilationUnits[i] != null) {
+						recordSourceDigest(iCompilationUnit, batch.getSourceDigests()[i]);
+						ASTInformationGenerator.setCurrentITypeRoot(iCompilationUnit);
+						systemObject.addClasses(parseAST(compilationUnits[i], (IFile)iCompilationUnit.getResource()));
+					}
+					else {
+						//fall back to serial parsing for the compilation units that could not be parsed by the worker
+						systemObject.addClasses(parseAST(iCompilationUnit));
 					}
+					if(monitor != null)
+						monitor.worked(1);
 				}
 			}
-		} catch (JavaModelException e) {
-			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static class CompilationUnitBatchParser implements Callable<CompilationUnit[]> {
+		private ICompilationUnit[] iCompilationUnits;
+		private String[] sourceDigests;
+
+		public CompilationUnitBatchParser(List<ICompilationUnit> iCompilationUnits) {
+			this.iCompilationUnits = iCompilationUnits.toArray(new ICompilationUnit[iCompilationUnits.size()]);
+			this.sourceDigests = new String[this.iCompilationUnits.length];
+		}
+
+		public ICompilationUnit[] getICompilationUnits() {
+			return iCompilationUnits;
+		}
+
+		public String[] getSourceDigests() {
+			return sourceDigests;
+		}
+
+		public CompilationUnit[] call() {
+			//as in parseAST(ICompilationUnit), the digests are computed before parsing
+			for(int i=0; i<iCompilationUnits.length; i++) {
+				sourceDigests[i] = SystemObjectSnapshot.computeSourceDigest(iCompilationUnits[i]);
+			}
+			final Map<ICompilationUnit, CompilationUnit> compilationUnitMap = new HashMap<ICompilationUnit, CompilationUnit>();
+			ASTParser parser = ASTParser.newParser(JLS);
+			parser.setKind(ASTParser.K_COMPILATION_UNIT);
+			parser.setProject(iCompilationUnits[0].getJavaProject());
+			parser.setResolveBindings(true); // we need bindings later on
+			parser.createASTs(iCompilationUnits, new String[0], new ASTRequestor() {
+				public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+					compilationUnitMap.put(source, ast);
+				}
+			}, null);
+			CompilationUnit[] compilationUnits = new CompilationUnit[iCompilationUnits.length];
+			for(int i=0; i<iCompilationUnits.length; i++) {
+				compilationUnits[i] = compilationUnitMap.get(iCompilationUnits[i]);
+			}
+			return compilationUnits;
 		}
-		if(monitor != null)
-			monitor.done();
 	}
 
 	public ASTReader(IJavaProject iJavaProject, SystemObject existingSystemObject, IProgressMonitor monitor) throws CompilationErrorDetectedException {
@@ -121,6 +246,18 @@ public class ASTReader {
 			if(removedCompilationUnit.getJavaProject().equals(iJavaProject))
 				removedCompilationUnits.add(removedCompilationUnit);
 		}
+		updateSystemObject(iJavaProject, existingSystemObject,
+				changedCompilationUnits, addedCompilationUnits, removedCompilationUnits, monitor);
+		instance.clearAffectedCompilationUnits();
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		if(store.getBoolean(PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT) &&
+				(!changedCompilationUnits.isEmpty() || !addedCompilationUnits.isEmpty() || !removedCompilationUnits.isEmpty()))
+			SystemObjectSnapshot.save(iJavaProject, systemObject, sourceDigestMap);
+	}
+
+	private void updateSystemObject(IJavaProject iJavaProject, SystemObject existingSystemObject,
+			Set<ICompilationUnit> changedCompilationUnits, Set<ICompilationUnit> addedCompilationUnits,
+			Set<ICompilationUnit> removedCompilationUnits, IProgressMonitor monitor) {
 		if(monitor != null)
 			monitor.beginTask("Parsing changed/added Compilation Units",
 					changedCompilationUnits.size() + addedCompilationUnits.size());
@@ -129,6 +266,7 @@ public class ASTReader {
 		for(ICompilationUnit removedCompilationUnit : removedCompilationUnits) {
 			IFile removedCompilationUnitFile = (IFile)removedCompilationUnit.getResource();
 			systemObject.removeClasses(removedCompilationUnitFile);
+			sourceDigestMap.remove(removedCompilationUnit.getHandleIdentifier());
 		}
 		for(ICompilationUnit changedCompilationUnit : changedCompilationUnits) {
 			List<ClassObject> changedClassObjects = parseAST(changedCompilationUnit);
@@ -146,7 +284,6 @@ public class ASTReader {
 			if(monitor != null)
 				monitor.worked(1);
 		}
-		instance.clearAffectedCompilationUnits();
 		if(monitor != null)
 			monitor.done();
 	}
@@ -172,7 +309,11 @@ public class ASTReader {
 	}
 
 	public static int getNumberOfCompilationUnits(IJavaProject iJavaProject) {
-		int numberOfCompilationUnits = 0;
+		return getCompilationUnits(iJavaProject).size();
+	}
+
+	public static List<ICompilationUnit> getCompilationUnits(IJavaProject iJavaProject) {
+		List<ICompilationUnit> compilationUnits = new ArrayList<ICompilationUnit>();
 		try {
 			IPackageFragmentRoot[] iPackageFragmentRoots = iJavaProject.getPackageFragmentRoots();
 			for(IPackageFragmentRoot iPackageFragmentRoot : iPackageFragmentRoots) {
@@ -181,14 +322,16 @@ public class ASTReader {
 					if(child.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
 						IPackageFragment iPackageFragment = (IPackageFragment)child;
 						ICompilationUnit[] iCompilationUnits = iPackageFragment.getCompilationUnits();
-						numberOfCompilationUnits += iCompilationUnits.length;
+						for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+							compilationUnits.add(iCompilationUnit);
+						}
 					}
 				}
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
 		}
-		return numberOfCompilationUnits;
+		return compilationUnits;
 	}
 
 	public static List<AbstractTypeDeclaration> getRecursivelyInnerTypes(AbstractTypeDeclaration typeDeclaration) {
@@ -223,7 +366,14 @@ public class ASTReader {
 		return innerTypeDeclarations;
 	}
 
+	private void recordSourceDigest(ICompilationUnit iCompilationUnit, String digest) {
+		//an unknown digest does not match any source, so that the compilation unit is parsed again in the next session
+		sourceDigestMap.put(iCompilationUnit.getHandleIdentifier(), digest != null ? digest : "");
+	}
+
 	private List<ClassObject> parseAST(ICompilationUnit iCompilationUnit) {
+		//the digest is computed before parsing, so that a source modified in the meantime is detected as changed
+		recordSourceDigest(iCompilationUnit, SystemObjectSnapshot.computeSourceDigest(iCompilationUnit));
 		ASTInformationGenerator.setCurrentITypeRoot(iCompilationUnit);
 		IFile iFile = (IFile)iCompilationUnit.getResource();
         ASTParser parser = ASTParser.newParser(JLS);
@@ -21,6 +21,8 @@ public interface AbstractMethodDeclaration {
 
     public MethodDeclaration getMethodDeclaration();
 
+    public String getMethodBindingKey();
+
     public MethodBodyObject getMethodBody();
 
     public String getClassName();
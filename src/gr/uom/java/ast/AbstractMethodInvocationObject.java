@@ -1,12 +1,14 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
 
-public abstract class AbstractMethodInvocationObject {
+public abstract class AbstractMethodInvocationObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private TypeObject originClassType;
     private String methodName;
     private TypeObject returnType;
@@ -15,7 +17,7 @@ public abstract class AbstractMethodInvocationObject {
     private boolean _static;
     //private MethodInvocation methodInvocation;
     protected ASTInformation methodInvocation;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public AbstractMethodInvocationObject(TypeObject originClassType, String methodName, TypeObject returnType) {
         this.originClassType = originClassType;
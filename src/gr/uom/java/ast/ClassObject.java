@@ -3,17 +3,23 @@ package gr.uom.java.ast;
 import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckElimination;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.ListIterator;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.EnumDeclaration;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 
 public class ClassObject extends ClassDeclarationObject {
+	private static final long serialVersionUID = 1L;
 
 	private List<ConstructorObject> constructorList;
 	private List<EnumConstantDeclarationObject> enumConstantDeclarationList;
@@ -26,7 +32,7 @@ public class ClassObject extends ClassDeclarationObject {
     private Access access;
     //private TypeDeclaration typeDeclaration;
     private ASTInformation typeDeclaration;
-    private IFile iFile;
+    private transient IFile iFile;
 
     public ClassObject() {
 		this.constructorList = new ArrayList<ConstructorObject>();
@@ -84,6 +90,18 @@ public class ClassObject extends ClassDeclarationObject {
 		iFile = file;
 	}
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeObject(iFile != null ? iFile.getFullPath().toPortableString() : null);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		String fullPath = (String)in.readObject();
+		if(fullPath != null)
+			this.iFile = ResourcesPlugin.getWorkspace().getRoot().getFile(Path.fromPortableString(fullPath));
+	}
+
 	public boolean isFriend(String className) {
 		if(superclass != null) {
 			if(superclass.getClassType().equals(className))
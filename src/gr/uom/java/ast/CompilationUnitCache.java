@@ -1,16 +1,20 @@
 package gr.uom.java.ast;
 
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
+import gr.uom.java.ast.util.IntHashMap;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -24,158 +28,262 @@ import org.eclipse.jface.preference.IPreferenceStore;
 public class CompilationUnitCache extends Indexer {
 
 	private static CompilationUnitCache instance;
-	private LinkedList<ITypeRoot> iTypeRootList;
-	private LinkedList<CompilationUnit> compilationUnitList;
-	private List<ITypeRoot> lockedTypeRoots;
+	//the map is kept in access order, so that the eldest entry is the least recently used one
+	private LinkedHashMap<ITypeRoot, CompilationUnit> compilationUnitMap;
+	//the number of locks held on each type root, since the methods of a type root may be analyzed concurrently
+	private Map<ITypeRoot, Integer> lockedTypeRoots;
+	//the type roots being parsed outside the monitor of the cache, so that concurrent requests wait for the same parsing
+	private Map<ITypeRoot, FutureTask<CompilationUnit>> pendingCompilationUnitMap;
+	//the type roots accessed by the current thread, which remain locked until releaseAccessedTypeRoots() is invoked
+	private ThreadLocal<Set<ITypeRoot>> accessedTypeRoots;
+	private int cacheHits;
+	private int cacheMisses;
+	private int cacheEvictions;
 	private Set<ICompilationUnit> changedCompilationUnits;
 	private Set<ICompilationUnit> addedCompilationUnits;
 	private Set<ICompilationUnit> removedCompilationUnits;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<AbstractVariable>> usedFieldsForMethodExpressionMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<AbstractVariable>> definedFieldsForMethodExpressionMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> thrownExceptionTypesForMethodExpressionMap;
+	//the analysis results are kept per thread, since the PDGs of different methods may be constructed concurrently
+	private ThreadLocal<MethodAnalysisResults> methodAnalysisResults;
+
+	private static class MethodAnalysisResults {
+		//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> usedFieldsForMethodArgumentsMap = new IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> definedFieldsForMethodArgumentsMap = new IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<LinkedHashSet<AbstractVariable>> usedFieldsForMethodExpressionMap = new IntHashMap<LinkedHashSet<AbstractVariable>>();
+		//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<LinkedHashSet<AbstractVariable>> definedFieldsForMethodExpressionMap = new IntHashMap<LinkedHashSet<AbstractVariable>>();
+		//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+		private IntHashMap<LinkedHashSet<String>> thrownExceptionTypesForMethodExpressionMap = new IntHashMap<LinkedHashSet<String>>();
+	}
+
+	protected IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> getUsedFieldsForMethodArgumentsMap() {
+		return methodAnalysisResults.get().usedFieldsForMethodArgumentsMap;
+	}
+
+	protected IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> getDefinedFieldsForMethodArgumentsMap() {
+		return methodAnalysisResults.get().definedFieldsForMethodArgumentsMap;
+	}
 
 	public void addUsedFieldForMethodExpression(AbstractVariable field, AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodExpressionMap.containsKey(methodBindingKey)) {
-			LinkedHashSet<AbstractVariable> fields = usedFieldsForMethodExpressionMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		if(methodAnalysisResults.get().usedFieldsForMethodExpressionMap.containsKey(methodId)) {
+			LinkedHashSet<AbstractVariable> fields = methodAnalysisResults.get().usedFieldsForMethodExpressionMap.get(methodId);
 			fields.add(field);
 		}
 		else {
 			LinkedHashSet<AbstractVariable> fields = new LinkedHashSet<AbstractVariable>();
 			fields.add(field);
-			usedFieldsForMethodExpressionMap.put(methodBindingKey, fields);
+			methodAnalysisResults.get().usedFieldsForMethodExpressionMap.put(methodId, fields);
 		}
 	}
 
 	public void setEmptyUsedFieldsForMethodExpression(AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
 		LinkedHashSet<AbstractVariable> usedFields = new LinkedHashSet<AbstractVariable>();
-		usedFieldsForMethodExpressionMap.put(methodBindingKey, usedFields);
+		methodAnalysisResults.get().usedFieldsForMethodExpressionMap.put(methodId, usedFields);
 	}
 
 	public void addDefinedFieldForMethodExpression(AbstractVariable field, AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(definedFieldsForMethodExpressionMap.containsKey(methodBindingKey)) {
-			LinkedHashSet<AbstractVariable> fields = definedFieldsForMethodExpressionMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		if(methodAnalysisResults.get().definedFieldsForMethodExpressionMap.containsKey(methodId)) {
+			LinkedHashSet<AbstractVariable> fields = methodAnalysisResults.get().definedFieldsForMethodExpressionMap.get(methodId);
 			fields.add(field);
 		}
 		else {
 			LinkedHashSet<AbstractVariable> fields = new LinkedHashSet<AbstractVariable>();
 			fields.add(field);
-			definedFieldsForMethodExpressionMap.put(methodBindingKey, fields);
+			methodAnalysisResults.get().definedFieldsForMethodExpressionMap.put(methodId, fields);
 		}
 	}
 
 	public void setEmptyDefinedFieldsForMethodExpression(AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
 		LinkedHashSet<AbstractVariable> usedFields = new LinkedHashSet<AbstractVariable>();
-		definedFieldsForMethodExpressionMap.put(methodBindingKey, usedFields);
+		methodAnalysisResults.get().definedFieldsForMethodExpressionMap.put(methodId, usedFields);
 	}
 
 	public void setThrownExceptionTypesForMethodExpression(AbstractMethodDeclaration mo, LinkedHashSet<String> thrownExceptionTypes) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		thrownExceptionTypesForMethodExpressionMap.put(methodBindingKey, thrownExceptionTypes);
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		methodAnalysisResults.get().thrownExceptionTypesForMethodExpressionMap.put(methodId, thrownExceptionTypes);
 	}
 
 	public boolean containsMethodExpression(AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		if(usedFieldsForMethodExpressionMap.containsKey(methodBindingKey))
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		if(methodAnalysisResults.get().usedFieldsForMethodExpressionMap.containsKey(methodId))
 			return true;
-		if(definedFieldsForMethodExpressionMap.containsKey(methodBindingKey))
+		if(methodAnalysisResults.get().definedFieldsForMethodExpressionMap.containsKey(methodId))
 			return true;
 		return false;
 	}
 
 	public Set<AbstractVariable> getUsedFieldsForMethodExpression(AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		return usedFieldsForMethodExpressionMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		return methodAnalysisResults.get().usedFieldsForMethodExpressionMap.get(methodId);
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsForMethodExpression(AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		return definedFieldsForMethodExpressionMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		return methodAnalysisResults.get().definedFieldsForMethodExpressionMap.get(methodId);
 	}
 
 	public Set<String> getThrownExceptionTypesForMethodExpression(AbstractMethodDeclaration mo) {
-		String methodBindingKey = mo.getMethodDeclaration().resolveBinding().getKey();
-		return thrownExceptionTypesForMethodExpressionMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.getId(mo.getMethodBindingKey());
+		return methodAnalysisResults.get().thrownExceptionTypesForMethodExpressionMap.get(methodId);
 	}
 
 	private CompilationUnitCache() {
 		super();
-		this.iTypeRootList = new LinkedList<ITypeRoot>();
-		this.lockedTypeRoots = new ArrayList<ITypeRoot>();
-		this.compilationUnitList = new LinkedList<CompilationUnit>();
+		this.compilationUnitMap = new LinkedHashMap<ITypeRoot, CompilationUnit>(16, 0.75f, true);
+		this.lockedTypeRoots = new HashMap<ITypeRoot, Integer>();
+		this.pendingCompilationUnitMap = new HashMap<ITypeRoot, FutureTask<CompilationUnit>>();
+		this.accessedTypeRoots = new ThreadLocal<Set<ITypeRoot>>();
 		this.changedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.addedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
 		this.removedCompilationUnits = new LinkedHashSet<ICompilationUnit>();
-		this.usedFieldsForMethodExpressionMap = new HashMap<String, LinkedHashSet<AbstractVariable>>();
-		this.definedFieldsForMethodExpressionMap = new HashMap<String, LinkedHashSet<AbstractVariable>>();
-		this.thrownExceptionTypesForMethodExpressionMap = new HashMap<String, LinkedHashSet<String>>();
+		this.methodAnalysisResults = new ThreadLocal<MethodAnalysisResults>() {
+			protected MethodAnalysisResults initialValue() {
+				return new MethodAnalysisResults();
+			}
+		};
 	}
 
-	public static CompilationUnitCache getInstance() {
+	public static synchronized CompilationUnitCache getInstance() {
 		if(instance == null) {
 			instance = new CompilationUnitCache();
 		}
 		return instance;
 	}
 
+	/*
+	 * The monitor of the cache is held only to look up and to publish the CompilationUnit of the type root.
+	 * The parsing takes place outside the monitor, and the threads requesting a type root that is being parsed
+	 * wait for the same parsing, so that a compilation unit is not parsed twice.
+	 */
 	public CompilationUnit getCompilationUnit(ITypeRoot iTypeRoot) {
 		if(iTypeRoot instanceof IClassFile) {
 			IClassFile classFile = (IClassFile)iTypeRoot;
 			return LibraryClassStorage.getInstance().getCompilationUnit(classFile);
 		}
-		else {
-			if(iTypeRootList.contains(iTypeRoot)) {
-				int position = iTypeRootList.indexOf(iTypeRoot);
-				return compilationUnitList.get(position);
+		FutureTask<CompilationUnit> parsing = null;
+		boolean parsedByCurrentThread = false;
+		synchronized(this) {
+			CompilationUnit cachedCompilationUnit = compilationUnitMap.get(iTypeRoot);
+			if(cachedCompilationUnit != null) {
+				cacheHits++;
+				lockIfAccessedTypeRootsAreLocked(iTypeRoot);
+				return cachedCompilationUnit;
+			}
+			parsing = pendingCompilationUnitMap.get(iTypeRoot);
+			if(parsing == null) {
+				cacheMisses++;
+				parsing = new FutureTask<CompilationUnit>(new CompilationUnitParser(iTypeRoot));
+				pendingCompilationUnitMap.put(iTypeRoot, parsing);
+				parsedByCurrentThread = true;
+			}
+		}
+		CompilationUnit compilationUnit = null;
+		try {
+			if(parsedByCurrentThread)
+				parsing.run();
+			compilationUnit = getParsedCompilationUnit(parsing);
+		} finally {
+			if(parsedByCurrentThread) {
+				synchronized(this) {
+					if(pendingCompilationUnitMap.get(iTypeRoot) == parsing)
+						pendingCompilationUnitMap.remove(iTypeRoot);
+				}
+			}
+		}
+		synchronized(this) {
+			//the published CompilationUnit is returned, so that all threads get the same nodes for the type root
+			CompilationUnit cachedCompilationUnit = compilationUnitMap.get(iTypeRoot);
+			if(cachedCompilationUnit != null) {
+				compilationUnit = cachedCompilationUnit;
 			}
 			else {
-				ASTParser parser = ASTParser.newParser(ASTReader.JLS);
-				parser.setKind(ASTParser.K_COMPILATION_UNIT);
-				parser.setSource(iTypeRoot);
-				parser.setResolveBindings(true);
-				CompilationUnit compilationUnit = (CompilationUnit)parser.createAST(null);
-				
 				IPreferenceStore store = Activator.getDefault().getPreferenceStore();
 				int maximumCacheSize = store.getInt(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE);
-				if(iTypeRootList.size() < maximumCacheSize) {
-					iTypeRootList.add(iTypeRoot);
-					compilationUnitList.add(compilationUnit);
+				if(compilationUnitMap.size() >= maximumCacheSize) {
+					evictLeastRecentlyUsedCompilationUnit();
 				}
-				else {
-					if(!lockedTypeRoots.isEmpty()) {
-						int indexToBeRemoved = 0;
-						int counter = 0;
-						for(ITypeRoot lockedTypeRoot : lockedTypeRoots) {
-							if(iTypeRootList.get(counter).equals(lockedTypeRoot)) {
-								indexToBeRemoved++;
-							}
-							counter++;
-						}
-						iTypeRootList.remove(indexToBeRemoved);
-						compilationUnitList.remove(indexToBeRemoved);
-					}
-					else {
-						iTypeRootList.removeFirst();
-						compilationUnitList.removeFirst();
-					}
-					iTypeRootList.add(iTypeRoot);
-					compilationUnitList.add(compilationUnit);
+				compilationUnitMap.put(iTypeRoot, compilationUnit);
+			}
+			lockIfAccessedTypeRootsAreLocked(iTypeRoot);
+			return compilationUnit;
+		}
+	}
+
+	private static CompilationUnit getParsedCompilationUnit(FutureTask<CompilationUnit> parsing) {
+		boolean interrupted = false;
+		try {
+			while(true) {
+				try {
+					return parsing.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
 				}
-				return compilationUnit;
 			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			if(interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class CompilationUnitParser implements Callable<CompilationUnit> {
+		private ITypeRoot iTypeRoot;
+
+		public CompilationUnitParser(ITypeRoot iTypeRoot) {
+			this.iTypeRoot = iTypeRoot;
+		}
+
+		public CompilationUnit call() {
+			ASTParser parser = ASTParser.newParser(ASTReader.JLS);
+			parser.setKind(ASTParser.K_COMPILATION_UNIT);
+			parser.setSource(iTypeRoot);
+			parser.setResolveBindings(true);
+			return (CompilationUnit)parser.createAST(null);
 		}
 	}
 
+	private void evictLeastRecentlyUsedCompilationUnit() {
+		//locked type roots are pinned in the cache; if all entries are locked the cache temporarily grows
+		Iterator<ITypeRoot> iterator = compilationUnitMap.keySet().iterator();
+		while(iterator.hasNext()) {
+			ITypeRoot iTypeRoot = iterator.next();
+			if(!lockedTypeRoots.containsKey(iTypeRoot)) {
+				iterator.remove();
+				cacheEvictions++;
+				break;
+			}
+		}
+	}
+
+	public int getCacheHits() {
+		return cacheHits;
+	}
+
+	public int getCacheMisses() {
+		return cacheMisses;
+	}
+
+	public int getCacheEvictions() {
+		return cacheEvictions;
+	}
+
 	public void compilationUnitChanged(ICompilationUnit compilationUnit) {
 		try {
 			if(compilationUnit.getCorrespondingResource() != null) {
 				changedCompilationUnits.add(compilationUnit);
+				PDGCache.getInstance().clear();
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
@@ -186,6 +294,7 @@ public class CompilationUnitCache extends Indexer {
 		try {
 			if(compilationUnit.getCorrespondingResource() != null) {
 				addedCompilationUnits.add(compilationUnit);
+				PDGCache.getInstance().clear();
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
@@ -197,6 +306,7 @@ public class CompilationUnitCache extends Indexer {
 			if(compilationUnit.getCorrespondingResource() != null) {
 				addedCompilationUnits.remove(compilationUnit);
 				removedCompilationUnits.add(compilationUnit);
+				PDGCache.getInstance().clear();
 			}
 		} catch (JavaModelException e) {
 			e.printStackTrace();
@@ -215,17 +325,60 @@ public class CompilationUnitCache extends Indexer {
 		return removedCompilationUnits;
 	}
 
-	public void lock(ITypeRoot iTypeRoot) {
-		if(!lockedTypeRoots.contains(iTypeRoot))
-			lockedTypeRoots.add(iTypeRoot);
+	public synchronized void lock(ITypeRoot iTypeRoot) {
+		Integer count = lockedTypeRoots.get(iTypeRoot);
+		lockedTypeRoots.put(iTypeRoot, count == null ? 1 : count + 1);
 	}
 
-	public void releaseLock() {
+	/*
+	 * Every type root whose CompilationUnit is requested by the current thread is locked until releaseAccessedTypeRoots()
+	 * is invoked by the same thread. A task running concurrently with others should lock all the type roots it accesses,
+	 * including the ones of the invoked methods, so that the nodes it has obtained are not evicted and parsed again
+	 * while the other threads fill the cache.
+	 */
+	public void lockAccessedTypeRoots() {
+		accessedTypeRoots.set(new LinkedHashSet<ITypeRoot>());
+	}
+
+	public synchronized void releaseAccessedTypeRoots() {
+		Set<ITypeRoot> typeRoots = accessedTypeRoots.get();
+		if(typeRoots != null) {
+			for(ITypeRoot iTypeRoot : typeRoots) {
+				unlock(iTypeRoot);
+			}
+			accessedTypeRoots.remove();
+		}
+	}
+
+	private void lockIfAccessedTypeRootsAreLocked(ITypeRoot iTypeRoot) {
+		Set<ITypeRoot> typeRoots = accessedTypeRoots.get();
+		if(typeRoots != null && typeRoots.add(iTypeRoot))
+			lock(iTypeRoot);
+	}
+
+	private void unlock(ITypeRoot iTypeRoot) {
+		Integer count = lockedTypeRoots.get(iTypeRoot);
+		if(count != null) {
+			if(count > 1)
+				lockedTypeRoots.put(iTypeRoot, count - 1);
+			else
+				lockedTypeRoots.remove(iTypeRoot);
+		}
+	}
+
+	public synchronized void releaseLock() {
 		lockedTypeRoots.clear();
-		usedFieldsForMethodArgumentsMap.clear();
-		definedFieldsForMethodArgumentsMap.clear();
-		usedFieldsForMethodExpressionMap.clear();
-		definedFieldsForMethodExpressionMap.clear();
+		clearMethodArgumentsAndExpressions();
+	}
+
+	//releases a single lock on the type root and clears the analysis results of the current thread
+	public synchronized void releaseLock(ITypeRoot iTypeRoot) {
+		unlock(iTypeRoot);
+		clearMethodArgumentsAndExpressions();
+	}
+
+	private void clearMethodArgumentsAndExpressions() {
+		methodAnalysisResults.remove();
 	}
 
 	public void clearAffectedCompilationUnits() {
@@ -248,9 +401,11 @@ public class CompilationUnitCache extends Indexer {
 		return affectedProjects;
 	}
 
-	public void clearCache() {
+	public synchronized void clearCache() {
 		lockedTypeRoots.clear();
-		iTypeRootList.clear();
-		compilationUnitList.clear();
+		compilationUnitMap.clear();
+		pendingCompilationUnitMap.clear();
+		clearMethodArgumentsAndExpressions();
+		clearIndex();
 	}
 }
@@ -4,6 +4,7 @@ import gr.uom.java.ast.decomposition.MethodBodyObject;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -12,9 +13,11 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 
-public class ConstructorObject implements AbstractMethodDeclaration {
+public class ConstructorObject implements AbstractMethodDeclaration, Serializable {
+    private static final long serialVersionUID = 1L;
 
     protected String name;
 	protected List<ParameterObject> parameterList;
@@ -25,7 +28,9 @@ public class ConstructorObject implements AbstractMethodDeclaration {
     protected Set<String> exceptionsInJavaDocThrows;
     //protected MethodDeclaration methodDeclaration;
     protected ASTInformation methodDeclaration;
-    private volatile int hashCode = 0;
+    //corresponds to MethodDeclaration.resolveBinding.getKey()
+    protected String methodBindingKey;
+    private transient volatile int hashCode = 0;
 
     public ConstructorObject() {
 		this.parameterList = new ArrayList<ParameterObject>();
@@ -37,6 +42,9 @@ public class ConstructorObject implements AbstractMethodDeclaration {
     public void setMethodDeclaration(MethodDeclaration methodDeclaration) {
     	//this.methodDeclaration = methodDeclaration;
     	this.methodDeclaration = ASTInformationGenerator.generateASTInformation(methodDeclaration);
+    	IMethodBinding methodBinding = methodDeclaration.resolveBinding();
+    	if(methodBinding != null)
+    		this.methodBindingKey = methodBinding.getKey();
     }
 
     public MethodDeclaration getMethodDeclaration() {
@@ -44,6 +52,12 @@ public class ConstructorObject implements AbstractMethodDeclaration {
     	return (MethodDeclaration)this.methodDeclaration.recoverASTNode();
     }
 
+    public String getMethodBindingKey() {
+    	if(this.methodBindingKey == null)
+    		this.methodBindingKey = getMethodDeclaration().resolveBinding().getKey();
+    	return this.methodBindingKey;
+    }
+
     public void setMethodBody(MethodBodyObject methodBody) {
     	this.methodBody = methodBody;
     }
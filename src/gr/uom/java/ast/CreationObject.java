@@ -1,6 +1,9 @@
 package gr.uom.java.ast;
 
-public abstract class CreationObject {
+import java.io.Serializable;
+
+public abstract class CreationObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private TypeObject type;
 	protected ASTInformation creation;
 	
@@ -1,8 +1,11 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.SimpleName;
 
-public class FieldInstructionObject {
+public class FieldInstructionObject implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private String ownerClass;
     private TypeObject type;
@@ -10,7 +13,7 @@ public class FieldInstructionObject {
     private boolean _static;
     //private SimpleName simpleName;
     private ASTInformation simpleName;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
     private String variableBindingKey;
 
     public FieldInstructionObject(String ownerClass, TypeObject type, String name) {
@@ -19,7 +19,7 @@ public class FieldObject extends VariableDeclarationObject {
     private String className;
     //private VariableDeclarationFragment fragment;
     private ASTInformation fragment;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public FieldObject(TypeObject type, String name) {
         this.type = type;
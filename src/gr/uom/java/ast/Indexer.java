@@ -3,12 +3,15 @@ package gr.uom.java.ast;
 import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.CompositeVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.IntHashMap;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.Flags;
@@ -26,39 +29,75 @@ import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.search.SearchRequestor;
 
 public class Indexer {
-	//String key and value correspond to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> methodInvocationMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<PlainVariable>> definedFieldMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<PlainVariable>> usedFieldMap;
+	//the method binding keys are replaced by the ids assigned to them by the MethodBindingKeyTable of this Indexer
+	protected MethodBindingKeyTable methodBindingKeyTable;
+	//int key and value correspond to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<Integer>> methodInvocationMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<PlainVariable>> definedFieldMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<PlainVariable>> usedFieldMap;
+	//the sub types are looked up concurrently during the construction of the PDGs of different methods
 	private Map<IType, LinkedHashSet<IType>> subTypeMap;
-	//String key and value correspond to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> overridingMethodMap;
-	//String key and value correspond to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, HashMap<PlainVariable, LinkedHashSet<String>>> methodInvocationThroughReferenceMap;
-	//String corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Set<String> abstractMethodSet;
-	private Set<String> nativeMethodSet;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	private Map<String, LinkedHashSet<String>> thrownExceptionTypeMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	protected Map<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>> usedFieldsForMethodArgumentsMap;
-	//String key corresponds to MethodDeclaration.resolveBinding.getKey()
-	protected Map<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>> definedFieldsForMethodArgumentsMap;
+	//int key and value correspond to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<Integer>> overridingMethodMap;
+	//int key and value correspond to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<HashMap<PlainVariable, LinkedHashSet<Integer>>> methodInvocationThroughReferenceMap;
+	//bit index corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private BitSet abstractMethodSet;
+	private BitSet nativeMethodSet;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<LinkedHashSet<String>> thrownExceptionTypeMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	protected IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> usedFieldsForMethodArgumentsMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	protected IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> definedFieldsForMethodArgumentsMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<RecursiveMethodSummary> recursiveMethodSummaryMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>>> definedFieldsThroughReferenceMap;
+	//int key corresponds to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>>> usedFieldsThroughReferenceMap;
+	//int key and bit index correspond to the id of MethodDeclaration.resolveBinding.getKey()
+	private IntHashMap<BitSet> dependentMethodMap;
 	
 	public Indexer() {
-		this.methodInvocationMap = new HashMap<String, LinkedHashSet<String>>();
-		this.definedFieldMap = new HashMap<String, LinkedHashSet<PlainVariable>>();
-		this.usedFieldMap = new HashMap<String, LinkedHashSet<PlainVariable>>();
-		this.subTypeMap = new HashMap<IType, LinkedHashSet<IType>>();
-		this.overridingMethodMap = new HashMap<String, LinkedHashSet<String>>();
-		this.methodInvocationThroughReferenceMap = new HashMap<String, HashMap<PlainVariable, LinkedHashSet<String>>>();
-		this.abstractMethodSet = new LinkedHashSet<String>();
-		this.nativeMethodSet = new LinkedHashSet<String>();
-		this.thrownExceptionTypeMap = new HashMap<String, LinkedHashSet<String>>();
-		this.usedFieldsForMethodArgumentsMap = new HashMap<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
-		this.definedFieldsForMethodArgumentsMap = new HashMap<String, HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		this.methodBindingKeyTable = new MethodBindingKeyTable();
+		this.methodInvocationMap = new IntHashMap<LinkedHashSet<Integer>>();
+		this.definedFieldMap = new IntHashMap<LinkedHashSet<PlainVariable>>();
+		this.usedFieldMap = new IntHashMap<LinkedHashSet<PlainVariable>>();
+		this.subTypeMap = new ConcurrentHashMap<IType, LinkedHashSet<IType>>();
+		this.overridingMethodMap = new IntHashMap<LinkedHashSet<Integer>>();
+		this.methodInvocationThroughReferenceMap = new IntHashMap<HashMap<PlainVariable, LinkedHashSet<Integer>>>();
+		this.abstractMethodSet = new BitSet();
+		this.nativeMethodSet = new BitSet();
+		this.thrownExceptionTypeMap = new IntHashMap<LinkedHashSet<String>>();
+		this.usedFieldsForMethodArgumentsMap = new IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		this.definedFieldsForMethodArgumentsMap = new IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>>();
+		this.recursiveMethodSummaryMap = new IntHashMap<RecursiveMethodSummary>();
+		this.definedFieldsThroughReferenceMap = new IntHashMap<HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>>>();
+		this.usedFieldsThroughReferenceMap = new IntHashMap<HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>>>();
+		this.dependentMethodMap = new IntHashMap<BitSet>();
+	}
+	
+	//clears the tables together with the method binding key ids, so that the ids do not outlive the tables keyed by them
+	protected void clearIndex() {
+		methodBindingKeyTable.clear();
+		methodInvocationMap.clear();
+		definedFieldMap.clear();
+		usedFieldMap.clear();
+		subTypeMap.clear();
+		overridingMethodMap.clear();
+		methodInvocationThroughReferenceMap.clear();
+		abstractMethodSet.clear();
+		nativeMethodSet.clear();
+		thrownExceptionTypeMap.clear();
+		usedFieldsForMethodArgumentsMap.clear();
+		definedFieldsForMethodArgumentsMap.clear();
+		recursiveMethodSummaryMap.clear();
+		definedFieldsThroughReferenceMap.clear();
+		usedFieldsThroughReferenceMap.clear();
+		dependentMethodMap.clear();
 	}
 	
 	public Set<IType> getSubTypes(IType superType) {
@@ -113,164 +152,182 @@ public class Indexer {
 		}
 	}
 	
+	protected int getMethodBindingKeyId(MethodDeclaration method) {
+		return methodBindingKeyTable.getId(method.resolveBinding().getKey());
+	}
+	
 	public void addInvokedMethod(MethodDeclaration originalMethod, MethodDeclaration invokedMethod) {
-		String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
-		String invokedMethodBindingKey = invokedMethod.resolveBinding().getKey();
+		int originalMethodId = getMethodBindingKeyId(originalMethod);
+		int invokedMethodId = getMethodBindingKeyId(invokedMethod);
+		invalidateRecursiveMethodSummaries(originalMethodId);
+		invalidateRecursiveMethodSummaries(invokedMethodId);
 		//check if the invoked method is abstract or native
 		if(invokedMethod.getBody() == null)
-			abstractMethodSet.add(invokedMethodBindingKey);
+			abstractMethodSet.set(invokedMethodId);
 		if((invokedMethod.getModifiers() & Modifier.NATIVE) != 0)
-			nativeMethodSet.add(invokedMethodBindingKey);
-		if(methodInvocationMap.containsKey(originalMethodBindingKey)) {
-			LinkedHashSet<String> invokedMethods = methodInvocationMap.get(originalMethodBindingKey);
-			invokedMethods.add(invokedMethodBindingKey);
+			nativeMethodSet.set(invokedMethodId);
+		if(methodInvocationMap.containsKey(originalMethodId)) {
+			LinkedHashSet<Integer> invokedMethods = methodInvocationMap.get(originalMethodId);
+			invokedMethods.add(invokedMethodId);
 		}
 		else {
-			LinkedHashSet<String> invokedMethods = new LinkedHashSet<String>();
-			invokedMethods.add(invokedMethodBindingKey);
-			methodInvocationMap.put(originalMethodBindingKey, invokedMethods);
+			LinkedHashSet<Integer> invokedMethods = new LinkedHashSet<Integer>();
+			invokedMethods.add(invokedMethodId);
+			methodInvocationMap.put(originalMethodId, invokedMethods);
 		}
 	}
 	
 	public void addInvokedMethodThroughReference(MethodDeclaration originalMethod, MethodDeclaration invokedMethod, PlainVariable fieldReference) {
-		String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
-		String invokedMethodBindingKey = invokedMethod.resolveBinding().getKey();
+		int originalMethodId = getMethodBindingKeyId(originalMethod);
+		int invokedMethodId = getMethodBindingKeyId(invokedMethod);
+		invalidateRecursiveMethodSummaries(originalMethodId);
+		invalidateRecursiveMethodSummaries(invokedMethodId);
 		//check if the invoked method is abstract or native
 		if(invokedMethod.getBody() == null)
-			abstractMethodSet.add(invokedMethodBindingKey);
+			abstractMethodSet.set(invokedMethodId);
 		if((invokedMethod.getModifiers() & Modifier.NATIVE) != 0)
-			nativeMethodSet.add(invokedMethodBindingKey);
-		if(methodInvocationThroughReferenceMap.containsKey(originalMethodBindingKey)) {
-			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(originalMethodBindingKey);
+			nativeMethodSet.set(invokedMethodId);
+		if(methodInvocationThroughReferenceMap.containsKey(originalMethodId)) {
+			HashMap<PlainVariable, LinkedHashSet<Integer>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(originalMethodId);
 			if(invokedMethodsThroughReference.containsKey(fieldReference)) {
-				LinkedHashSet<String> invokedMethods = invokedMethodsThroughReference.get(fieldReference);
-				invokedMethods.add(invokedMethodBindingKey);
+				LinkedHashSet<Integer> invokedMethods = invokedMethodsThroughReference.get(fieldReference);
+				invokedMethods.add(invokedMethodId);
 			}
 			else {
-				LinkedHashSet<String> invokedMethods = new LinkedHashSet<String>();
-				invokedMethods.add(invokedMethodBindingKey);
+				LinkedHashSet<Integer> invokedMethods = new LinkedHashSet<Integer>();
+				invokedMethods.add(invokedMethodId);
 				invokedMethodsThroughReference.put(fieldReference, invokedMethods);
 			}
 		}
 		else {
-			LinkedHashSet<String> invokedMethods = new LinkedHashSet<String>();
-			invokedMethods.add(invokedMethodBindingKey);
-			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = new HashMap<PlainVariable, LinkedHashSet<String>>();
+			LinkedHashSet<Integer> invokedMethods = new LinkedHashSet<Integer>();
+			invokedMethods.add(invokedMethodId);
+			HashMap<PlainVariable, LinkedHashSet<Integer>> invokedMethodsThroughReference = new HashMap<PlainVariable, LinkedHashSet<Integer>>();
 			invokedMethodsThroughReference.put(fieldReference, invokedMethods);
-			methodInvocationThroughReferenceMap.put(originalMethodBindingKey, invokedMethodsThroughReference);
+			methodInvocationThroughReferenceMap.put(originalMethodId, invokedMethodsThroughReference);
 		}
 	}
 	
-	public Map<String, Set<PlainVariable>> getRecursivelyInvocationReferences(String methodBindingKey, Set<String> processedMethods) {
-		//String originalMethodBindingKey = originalMethod.resolveBinding().getKey();
-		Map<String, Set<PlainVariable>> invocationReferenceMap = new LinkedHashMap<String, Set<PlainVariable>>();
-		if(methodInvocationThroughReferenceMap.containsKey(methodBindingKey)) {
-			HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodBindingKey);
-			invocationReferenceMap.put(methodBindingKey, invokedMethodsThroughReference.keySet());
-		}
-		processedMethods.add(methodBindingKey);
-		LinkedHashSet<String> invokedMethods = methodInvocationMap.get(methodBindingKey);
-		if(invokedMethods != null) {
-			for(String invokedMethodBindingKey : invokedMethods) {
-				if(!processedMethods.contains(invokedMethodBindingKey)) {
-					if(!abstractMethodSet.contains(invokedMethodBindingKey) && !overridingMethodMap.containsKey(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
-							//method is native
-						}
-						else {
-							invocationReferenceMap.putAll(getRecursivelyInvocationReferences(invokedMethodBindingKey, processedMethods));
-						}
-					}
-					else {
-						LinkedHashSet<String> overridingMethods = overridingMethodMap.get(invokedMethodBindingKey);
-						processedMethods.add(invokedMethodBindingKey);
-						if(overridingMethods != null) {
-							for(String overridingMethodBindingKey : overridingMethods) {
-								if(nativeMethodSet.contains(overridingMethodBindingKey)) {
-									//method is native
-								}
-								else {
-									invocationReferenceMap.putAll(getRecursivelyInvocationReferences(overridingMethodBindingKey, processedMethods));
-								}
-							}
-						}
-					}
-				}
-			}
-		}
-		return invocationReferenceMap;
+	public Map<String, Set<PlainVariable>> getRecursivelyInvocationReferences(String methodBindingKey) {
+		int methodId = methodBindingKeyTable.getId(methodBindingKey);
+		return new LinkedHashMap<String, Set<PlainVariable>>(getRecursiveMethodSummary(methodId).invocationReferenceMap);
 	}
 	
 	public void addOverridingMethod(MethodDeclaration abstractMethod, MethodDeclaration overridingMethod) {
-		String abstractMethodBindingKey = abstractMethod.resolveBinding().getKey();
-		String overridingMethodBindingKey = overridingMethod.resolveBinding().getKey();
+		int abstractMethodId = getMethodBindingKeyId(abstractMethod);
+		int overridingMethodId = getMethodBindingKeyId(overridingMethod);
+		invalidateRecursiveMethodSummaries(abstractMethodId);
+		invalidateRecursiveMethodSummaries(overridingMethodId);
 		//check if the overriding method is abstract or native
 		if(overridingMethod.getBody() == null)
-			abstractMethodSet.add(overridingMethodBindingKey);
+			abstractMethodSet.set(overridingMethodId);
 		if((overridingMethod.getModifiers() & Modifier.NATIVE) != 0)
-			nativeMethodSet.add(overridingMethodBindingKey);
-		if(overridingMethodMap.containsKey(abstractMethodBindingKey)) {
-			LinkedHashSet<String> overridingMethods = overridingMethodMap.get(abstractMethodBindingKey);
-			overridingMethods.add(overridingMethodBindingKey);
+			nativeMethodSet.set(overridingMethodId);
+		if(overridingMethodMap.containsKey(abstractMethodId)) {
+			LinkedHashSet<Integer> overridingMethods = overridingMethodMap.get(abstractMethodId);
+			overridingMethods.add(overridingMethodId);
 		}
 		else {
-			LinkedHashSet<String> overridingMethods = new LinkedHashSet<String>();
-			overridingMethods.add(overridingMethodBindingKey);
-			overridingMethodMap.put(abstractMethodBindingKey, overridingMethods);
+			LinkedHashSet<Integer> overridingMethods = new LinkedHashSet<Integer>();
+			overridingMethods.add(overridingMethodId);
+			overridingMethodMap.put(abstractMethodId, overridingMethods);
 		}
 	}
 	
 	public void setDefinedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
-		String methodBindingKey = method.resolveBinding().getKey();
-		definedFieldMap.put(methodBindingKey, fields);
+		int methodId = getMethodBindingKeyId(method);
+		invalidateRecursiveMethodSummaries(methodId);
+		definedFieldMap.put(methodId, fields);
 	}
 	
 	public void setUsedFields(MethodDeclaration method, LinkedHashSet<PlainVariable> fields) {
-		String methodBindingKey = method.resolveBinding().getKey();
-		usedFieldMap.put(methodBindingKey, fields);
+		int methodId = getMethodBindingKeyId(method);
+		invalidateRecursiveMethodSummaries(methodId);
+		usedFieldMap.put(methodId, fields);
 	}
 	
 	public void setThrownExceptionTypes(MethodDeclaration method, LinkedHashSet<String> exceptionTypes) {
-		String methodBindingKey = method.resolveBinding().getKey();
-		thrownExceptionTypeMap.put(methodBindingKey, exceptionTypes);
+		int methodId = getMethodBindingKeyId(method);
+		invalidateRecursiveMethodSummaries(methodId);
+		thrownExceptionTypeMap.put(methodId, exceptionTypes);
 	}
 	
 	public boolean isAnalyzed(String methodBindingKey) {
-		//String methodBindingKey = method.resolveBinding().getKey();
-		if(definedFieldMap.containsKey(methodBindingKey) && usedFieldMap.containsKey(methodBindingKey))
+		int methodId = methodBindingKeyTable.lookupId(methodBindingKey);
+		if(definedFieldMap.containsKey(methodId) && usedFieldMap.containsKey(methodId))
 			return true;
 		else
 			return false;
 	}
 	
-	public LinkedHashSet<PlainVariable> getRecursivelyDefinedFields(String methodBindingKey,
-			Set<String> processedMethods) {
-		LinkedHashSet<PlainVariable> definedFields = new LinkedHashSet<PlainVariable>();
-		if(definedFieldMap.containsKey(methodBindingKey))
-			definedFields.addAll(definedFieldMap.get(methodBindingKey));
-		processedMethods.add(methodBindingKey);
-		LinkedHashSet<String> invokedMethods = methodInvocationMap.get(methodBindingKey);
+	public LinkedHashSet<PlainVariable> getRecursivelyDefinedFields(String methodBindingKey) {
+		int methodId = methodBindingKeyTable.getId(methodBindingKey);
+		return new LinkedHashSet<PlainVariable>(getRecursiveMethodSummary(methodId).definedFields);
+	}
+	
+	public LinkedHashSet<PlainVariable> getRecursivelyUsedFields(String methodBindingKey) {
+		int methodId = methodBindingKeyTable.getId(methodBindingKey);
+		return new LinkedHashSet<PlainVariable>(getRecursiveMethodSummary(methodId).usedFields);
+	}
+	
+	public LinkedHashSet<String> getRecursivelyThrownExceptionTypes(String methodBindingKey) {
+		int methodId = methodBindingKeyTable.getId(methodBindingKey);
+		return new LinkedHashSet<String>(getRecursiveMethodSummary(methodId).thrownExceptionTypes);
+	}
+	
+	/*
+	 * The summary of a method collects the fields, exception types and invocation references of the methods
+	 * visited by a depth-first traversal of the method invocations, where an invoked method that is abstract or
+	 * overridden is replaced by its overriding methods, native methods are skipped, and a single set of processed
+	 * methods is shared by the whole traversal.
+	 * The summary is kept until the indexed information of a method examined by the traversal changes.
+	 */
+	private RecursiveMethodSummary getRecursiveMethodSummary(int methodId) {
+		RecursiveMethodSummary summary = recursiveMethodSummaryMap.get(methodId);
+		if(summary == null) {
+			summary = new RecursiveMethodSummary();
+			summarizeRecursively(methodId, summary, new BitSet());
+			recursiveMethodSummaryMap.put(methodId, summary);
+			addDependentMethod(summary.examinedMethods, methodId);
+		}
+		return summary;
+	}
+	
+	private void summarizeRecursively(int methodId, RecursiveMethodSummary summary, BitSet processedMethods) {
+		summary.examinedMethods.set(methodId);
+		if(definedFieldMap.containsKey(methodId))
+			summary.definedFields.addAll(definedFieldMap.get(methodId));
+		if(usedFieldMap.containsKey(methodId))
+			summary.usedFields.addAll(usedFieldMap.get(methodId));
+		if(thrownExceptionTypeMap.containsKey(methodId))
+			summary.thrownExceptionTypes.addAll(thrownExceptionTypeMap.get(methodId));
+		if(methodInvocationThroughReferenceMap.containsKey(methodId))
+			summary.invocationReferenceMap.put(methodBindingKeyTable.getKey(methodId), methodInvocationThroughReferenceMap.get(methodId).keySet());
+		processedMethods.set(methodId);
+		LinkedHashSet<Integer> invokedMethods = methodInvocationMap.get(methodId);
 		if(invokedMethods != null) {
-			for(String invokedMethodBindingKey : invokedMethods) {
-				if(!processedMethods.contains(invokedMethodBindingKey)) {
-					if(!abstractMethodSet.contains(invokedMethodBindingKey) && !overridingMethodMap.containsKey(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
+			for(int invokedMethodId : invokedMethods) {
+				summary.examinedMethods.set(invokedMethodId);
+				if(!processedMethods.get(invokedMethodId)) {
+					if(!abstractMethodSet.get(invokedMethodId) && !overridingMethodMap.containsKey(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							definedFields.addAll(getRecursivelyDefinedFields(invokedMethodBindingKey, processedMethods));
+							summarizeRecursively(invokedMethodId, summary, processedMethods);
 						}
 					}
 					else {
-						LinkedHashSet<String> overridingMethods = overridingMethodMap.get(invokedMethodBindingKey);
-						processedMethods.add(invokedMethodBindingKey);
+						LinkedHashSet<Integer> overridingMethods = overridingMethodMap.get(invokedMethodId);
+						processedMethods.set(invokedMethodId);
 						if(overridingMethods != null) {
-							for(String overridingMethodBindingKey : overridingMethods) {
-								if(nativeMethodSet.contains(overridingMethodBindingKey)) {
+							for(int overridingMethodId : overridingMethods) {
+								summary.examinedMethods.set(overridingMethodId);
+								if(nativeMethodSet.get(overridingMethodId)) {
 									//method is native
 								}
 								else {
-									definedFields.addAll(getRecursivelyDefinedFields(overridingMethodBindingKey, processedMethods));
+									summarizeRecursively(overridingMethodId, summary, processedMethods);
 								}
 							}
 						}
@@ -278,97 +335,71 @@ public class Indexer {
 				}
 			}
 		}
-		return definedFields;
 	}
 	
-	public LinkedHashSet<PlainVariable> getRecursivelyUsedFields(String methodBindingKey,
-			Set<String> processedMethods) {
-		LinkedHashSet<PlainVariable> usedFields = new LinkedHashSet<PlainVariable>();
-		if(usedFieldMap.containsKey(methodBindingKey))
-			usedFields.addAll(usedFieldMap.get(methodBindingKey));
-		processedMethods.add(methodBindingKey);
-		LinkedHashSet<String> invokedMethods = methodInvocationMap.get(methodBindingKey);
-		if(invokedMethods != null) {
-			for(String invokedMethodBindingKey : invokedMethods) {
-				if(!processedMethods.contains(invokedMethodBindingKey)) {
-					if(!abstractMethodSet.contains(invokedMethodBindingKey) && !overridingMethodMap.containsKey(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
-							//method is native
-						}
-						else {
-							usedFields.addAll(getRecursivelyUsedFields(invokedMethodBindingKey, processedMethods));
-						}
-					}
-					else {
-						LinkedHashSet<String> overridingMethods = overridingMethodMap.get(invokedMethodBindingKey);
-						processedMethods.add(invokedMethodBindingKey);
-						if(overridingMethods != null) {
-							for(String overridingMethodBindingKey : overridingMethods) {
-								if(nativeMethodSet.contains(overridingMethodBindingKey)) {
-									//method is native
-								}
-								else {
-									usedFields.addAll(getRecursivelyUsedFields(overridingMethodBindingKey, processedMethods));
-								}
-							}
-						}
-					}
-				}
+	private void addDependentMethod(BitSet examinedMethods, int dependentMethodId) {
+		for(int method = examinedMethods.nextSetBit(0); method >= 0; method = examinedMethods.nextSetBit(method + 1)) {
+			BitSet dependentMethods = dependentMethodMap.get(method);
+			if(dependentMethods == null) {
+				dependentMethods = new BitSet();
+				dependentMethodMap.put(method, dependentMethods);
 			}
+			dependentMethods.set(dependentMethodId);
 		}
-		return usedFields;
 	}
 	
-	public LinkedHashSet<String> getRecursivelyThrownExceptionTypes(String methodBindingKey,
-			Set<String> processedMethods) {
-		LinkedHashSet<String> thrownExceptionTypes = new LinkedHashSet<String>();
-		if(thrownExceptionTypeMap.containsKey(methodBindingKey))
-			thrownExceptionTypes.addAll(thrownExceptionTypeMap.get(methodBindingKey));
-		processedMethods.add(methodBindingKey);
-		LinkedHashSet<String> invokedMethods = methodInvocationMap.get(methodBindingKey);
-		if(invokedMethods != null) {
-			for(String invokedMethodBindingKey : invokedMethods) {
-				if(!processedMethods.contains(invokedMethodBindingKey)) {
-					if(!abstractMethodSet.contains(invokedMethodBindingKey) && !overridingMethodMap.containsKey(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
-							//method is native
-						}
-						else {
-							thrownExceptionTypes.addAll(getRecursivelyThrownExceptionTypes(invokedMethodBindingKey, processedMethods));
-						}
-					}
-					else {
-						LinkedHashSet<String> overridingMethods = overridingMethodMap.get(invokedMethodBindingKey);
-						processedMethods.add(invokedMethodBindingKey);
-						if(overridingMethods != null) {
-							for(String overridingMethodBindingKey : overridingMethods) {
-								if(nativeMethodSet.contains(overridingMethodBindingKey)) {
-									//method is native
-								}
-								else {
-									thrownExceptionTypes.addAll(getRecursivelyThrownExceptionTypes(overridingMethodBindingKey, processedMethods));
-								}
-							}
-						}
-					}
-				}
+	//discards the cached results of the methods whose traversal examined the given method
+	private void invalidateRecursiveMethodSummaries(int methodId) {
+		BitSet dependentMethods = dependentMethodMap.remove(methodId);
+		if(dependentMethods != null) {
+			for(int method = dependentMethods.nextSetBit(0); method >= 0; method = dependentMethods.nextSetBit(method + 1)) {
+				recursiveMethodSummaryMap.remove(method);
+				definedFieldsThroughReferenceMap.remove(method);
+				usedFieldsThroughReferenceMap.remove(method);
 			}
 		}
-		return thrownExceptionTypes;
+	}
+	
+	private static class RecursiveMethodSummary {
+		private LinkedHashSet<PlainVariable> definedFields = new LinkedHashSet<PlainVariable>();
+		private LinkedHashSet<PlainVariable> usedFields = new LinkedHashSet<PlainVariable>();
+		private LinkedHashSet<String> thrownExceptionTypes = new LinkedHashSet<String>();
+		private Map<String, Set<PlainVariable>> invocationReferenceMap = new LinkedHashMap<String, Set<PlainVariable>>();
+		private BitSet examinedMethods = new BitSet();
 	}
 	
 	public LinkedHashSet<String> getThrownExceptionTypes(String methodBindingKey) {
+		int methodId = methodBindingKeyTable.lookupId(methodBindingKey);
 		LinkedHashSet<String> thrownExceptionTypes = new LinkedHashSet<String>();
-		if(thrownExceptionTypeMap.containsKey(methodBindingKey))
-			thrownExceptionTypes.addAll(thrownExceptionTypeMap.get(methodBindingKey));
+		if(thrownExceptionTypeMap.containsKey(methodId))
+			thrownExceptionTypes.addAll(thrownExceptionTypeMap.get(methodId));
 		return thrownExceptionTypes;
 	}
 	
 	public LinkedHashSet<AbstractVariable> getRecursivelyDefinedFieldsThroughReference(String methodBindingKey,
-			AbstractVariable fieldReference, Set<String> processedMethods) {
+			AbstractVariable fieldReference) {
+		int methodId = methodBindingKeyTable.getId(methodBindingKey);
+		HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>> referenceMap = definedFieldsThroughReferenceMap.get(methodId);
+		if(referenceMap == null) {
+			referenceMap = new HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>>();
+			definedFieldsThroughReferenceMap.put(methodId, referenceMap);
+		}
+		LinkedHashSet<AbstractVariable> definedFields = referenceMap.get(fieldReference);
+		if(definedFields == null) {
+			BitSet examinedMethods = new BitSet();
+			definedFields = getRecursivelyDefinedFieldsThroughReference(methodId, fieldReference, new BitSet(), examinedMethods);
+			referenceMap.put(fieldReference, definedFields);
+			addDependentMethod(examinedMethods, methodId);
+		}
+		return new LinkedHashSet<AbstractVariable>(definedFields);
+	}
+	
+	private LinkedHashSet<AbstractVariable> getRecursivelyDefinedFieldsThroughReference(int methodId,
+			AbstractVariable fieldReference, BitSet processedMethods, BitSet examinedMethods) {
 		LinkedHashSet<AbstractVariable> definedFields = new LinkedHashSet<AbstractVariable>();
-		processedMethods.add(methodBindingKey);
-		HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodBindingKey);
+		processedMethods.set(methodId);
+		examinedMethods.set(methodId);
+		HashMap<PlainVariable, LinkedHashSet<Integer>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodId);
 		if(invokedMethodsThroughReference != null) {
 			PlainVariable reference = null;
 			if(fieldReference instanceof PlainVariable) {
@@ -378,26 +409,29 @@ public class Indexer {
 				CompositeVariable composite = (CompositeVariable)fieldReference;
 				reference = composite.getFinalVariable();
 			}
-			LinkedHashSet<String> invokedMethods = invokedMethodsThroughReference.get(reference);
+			LinkedHashSet<Integer> invokedMethods = invokedMethodsThroughReference.get(reference);
 			if(invokedMethods != null) {
-				for(String invokedMethodBindingKey : invokedMethods) {
-					if(!processedMethods.contains(invokedMethodBindingKey)) {
-						if(nativeMethodSet.contains(invokedMethodBindingKey)) {
+				for(int invokedMethodId : invokedMethods) {
+					examinedMethods.set(invokedMethodId);
+					if(!processedMethods.get(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							LinkedHashSet<PlainVariable> definedFieldsInInvokedMethod = getRecursivelyDefinedFields(invokedMethodBindingKey, new LinkedHashSet<String>());
+							RecursiveMethodSummary invokedMethodSummary = getRecursiveMethodSummary(invokedMethodId);
+							examinedMethods.or(invokedMethodSummary.examinedMethods);
+							LinkedHashSet<PlainVariable> definedFieldsInInvokedMethod = invokedMethodSummary.definedFields;
 							if(definedFieldsInInvokedMethod != null) {
 								for(PlainVariable rightSide : definedFieldsInInvokedMethod) {
 									AbstractVariable definedField = composeVariable(fieldReference, rightSide);
 									definedFields.add(definedField);
 								}
 							}
-							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = getRecursivelyUsedFields(invokedMethodBindingKey, new LinkedHashSet<String>());
+							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = invokedMethodSummary.usedFields;
 							if(usedFieldsInInvokedMethod != null) {
 								for(PlainVariable rightSide : usedFieldsInInvokedMethod) {
 									AbstractVariable usedField = composeVariable(fieldReference, rightSide);
-									definedFields.addAll(getRecursivelyDefinedFieldsThroughReference(invokedMethodBindingKey, usedField, processedMethods));
+									definedFields.addAll(getRecursivelyDefinedFieldsThroughReference(invokedMethodId, usedField, processedMethods, examinedMethods));
 								}
 							}
 						}
@@ -409,10 +443,29 @@ public class Indexer {
 	}
 	
 	public LinkedHashSet<AbstractVariable> getRecursivelyUsedFieldsThroughReference(String methodBindingKey,
-			AbstractVariable fieldReference, Set<String> processedMethods) {
+			AbstractVariable fieldReference) {
+		int methodId = methodBindingKeyTable.getId(methodBindingKey);
+		HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>> referenceMap = usedFieldsThroughReferenceMap.get(methodId);
+		if(referenceMap == null) {
+			referenceMap = new HashMap<AbstractVariable, LinkedHashSet<AbstractVariable>>();
+			usedFieldsThroughReferenceMap.put(methodId, referenceMap);
+		}
+		LinkedHashSet<AbstractVariable> usedFields = referenceMap.get(fieldReference);
+		if(usedFields == null) {
+			BitSet examinedMethods = new BitSet();
+			usedFields = getRecursivelyUsedFieldsThroughReference(methodId, fieldReference, new BitSet(), examinedMethods);
+			referenceMap.put(fieldReference, usedFields);
+			addDependentMethod(examinedMethods, methodId);
+		}
+		return new LinkedHashSet<AbstractVariable>(usedFields);
+	}
+	
+	private LinkedHashSet<AbstractVariable> getRecursivelyUsedFieldsThroughReference(int methodId,
+			AbstractVariable fieldReference, BitSet processedMethods, BitSet examinedMethods) {
 		LinkedHashSet<AbstractVariable> usedFields = new LinkedHashSet<AbstractVariable>();
-		processedMethods.add(methodBindingKey);
-		HashMap<PlainVariable, LinkedHashSet<String>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodBindingKey);
+		processedMethods.set(methodId);
+		examinedMethods.set(methodId);
+		HashMap<PlainVariable, LinkedHashSet<Integer>> invokedMethodsThroughReference = methodInvocationThroughReferenceMap.get(methodId);
 		if(invokedMethodsThroughReference != null) {
 			PlainVariable reference = null;
 			if(fieldReference instanceof PlainVariable) {
@@ -422,20 +475,23 @@ public class Indexer {
 				CompositeVariable composite = (CompositeVariable)fieldReference;
 				reference = composite.getFinalVariable();
 			}
-			LinkedHashSet<String> invokedMethods = invokedMethodsThroughReference.get(reference);
+			LinkedHashSet<Integer> invokedMethods = invokedMethodsThroughReference.get(reference);
 			if(invokedMethods != null) {
-				for(String invokedMethod : invokedMethods) {
-					if(!processedMethods.contains(invokedMethod)) {
-						if(nativeMethodSet.contains(invokedMethod)) {
+				for(int invokedMethodId : invokedMethods) {
+					examinedMethods.set(invokedMethodId);
+					if(!processedMethods.get(invokedMethodId)) {
+						if(nativeMethodSet.get(invokedMethodId)) {
 							//method is native
 						}
 						else {
-							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = getRecursivelyUsedFields(invokedMethod, new LinkedHashSet<String>());
+							RecursiveMethodSummary invokedMethodSummary = getRecursiveMethodSummary(invokedMethodId);
+							examinedMethods.or(invokedMethodSummary.examinedMethods);
+							LinkedHashSet<PlainVariable> usedFieldsInInvokedMethod = invokedMethodSummary.usedFields;
 							if(usedFieldsInInvokedMethod != null) {
 								for(PlainVariable rightSide : usedFieldsInInvokedMethod) {
 									AbstractVariable usedField = composeVariable(fieldReference, rightSide);
 									usedFields.add(usedField);
-									usedFields.addAll(getRecursivelyUsedFieldsThroughReference(invokedMethod, usedField, processedMethods));
+									usedFields.addAll(getRecursivelyUsedFieldsThroughReference(invokedMethodId, usedField, processedMethods, examinedMethods));
 								}
 							}
 						}
@@ -446,7 +502,7 @@ public class Indexer {
 		return usedFields;
 	}
 	
-	private AbstractVariable composeVariable(AbstractVariable leftSide, AbstractVariable rightSide) {
+		private AbstractVariable composeVariable(AbstractVariable leftSide, AbstractVariable rightSide) {
 		if(leftSide instanceof CompositeVariable) {
 			CompositeVariable leftSideCompositeVariable = (CompositeVariable)leftSide;
 			PlainVariable finalVariable = leftSideCompositeVariable.getFinalVariable();
@@ -459,10 +515,18 @@ public class Indexer {
 		}
 	}
 
+	protected IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> getUsedFieldsForMethodArgumentsMap() {
+		return usedFieldsForMethodArgumentsMap;
+	}
+
+	protected IntHashMap<HashMap<Integer, LinkedHashSet<AbstractVariable>>> getDefinedFieldsForMethodArgumentsMap() {
+		return definedFieldsForMethodArgumentsMap;
+	}
+
 	public void addUsedFieldForMethodArgument(AbstractVariable field, MethodDeclaration mo, int argPosition) {
-		String methodBindingKey = mo.resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = getMethodBindingKeyId(mo);
+		if(getUsedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getUsedFieldsForMethodArgumentsMap().get(methodId);
 			if(argumentMap.containsKey(argPosition)) {
 				LinkedHashSet<AbstractVariable> fieldSet = argumentMap.get(argPosition);
 				fieldSet.add(field);
@@ -478,28 +542,28 @@ public class Indexer {
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			fieldSet.add(field);
 			argumentMap.put(argPosition, fieldSet);
-			usedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			getUsedFieldsForMethodArgumentsMap().put(methodId, argumentMap);
 		}
 	}
 
 	public void setEmptyUsedFieldsForMethodArgument(MethodDeclaration mo, int argPosition) {
-		String methodBindingKey = mo.resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = getMethodBindingKeyId(mo);
+		if(getUsedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getUsedFieldsForMethodArgumentsMap().get(methodId);
 			argumentMap.put(argPosition, new LinkedHashSet<AbstractVariable>());
 		}
 		else {
 			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = new HashMap<Integer, LinkedHashSet<AbstractVariable>>();
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			argumentMap.put(argPosition, fieldSet);
-			usedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			getUsedFieldsForMethodArgumentsMap().put(methodId, argumentMap);
 		}
 	}
 
 	public void addDefinedFieldForMethodArgument(AbstractVariable field, MethodDeclaration mo, int argPosition) {
-		String methodBindingKey = mo.resolveBinding().getKey();
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = getMethodBindingKeyId(mo);
+		if(getDefinedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getDefinedFieldsForMethodArgumentsMap().get(methodId);
 			if(argumentMap.containsKey(argPosition)) {
 				LinkedHashSet<AbstractVariable> fieldSet = argumentMap.get(argPosition);
 				fieldSet.add(field);
@@ -515,33 +579,33 @@ public class Indexer {
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			fieldSet.add(field);
 			argumentMap.put(argPosition, fieldSet);
-			definedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			getDefinedFieldsForMethodArgumentsMap().put(methodId, argumentMap);
 		}
 	}
 
 	public void setEmptyDefinedFieldsForMethodArgument(MethodDeclaration mo, int argPosition) {
-		String methodBindingKey = mo.resolveBinding().getKey();
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = getMethodBindingKeyId(mo);
+		if(getDefinedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getDefinedFieldsForMethodArgumentsMap().get(methodId);
 			argumentMap.put(argPosition, new LinkedHashSet<AbstractVariable>());
 		}
 		else {
 			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = new HashMap<Integer, LinkedHashSet<AbstractVariable>>();
 			LinkedHashSet<AbstractVariable> fieldSet = new LinkedHashSet<AbstractVariable>();
 			argumentMap.put(argPosition, fieldSet);
-			definedFieldsForMethodArgumentsMap.put(methodBindingKey, argumentMap);
+			getDefinedFieldsForMethodArgumentsMap().put(methodId, argumentMap);
 		}
 	}
 
 	public boolean containsMethodArgument(String methodBindingKey, int argPosition) {
-		//String methodBindingKey = mo.resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.lookupId(methodBindingKey);
+		if(getUsedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getUsedFieldsForMethodArgumentsMap().get(methodId);
 			if(argumentMap.containsKey(argPosition))
 				return true;
 		}
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		if(getDefinedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getDefinedFieldsForMethodArgumentsMap().get(methodId);
 			if(argumentMap.containsKey(argPosition))
 				return true;
 		}
@@ -549,9 +613,9 @@ public class Indexer {
 	}
 
 	public Set<AbstractVariable> getUsedFieldsForMethodArgument(String methodBindingKey, int argPosition) {
-		//String methodBindingKey = mo.resolveBinding().getKey();
-		if(usedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = usedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.lookupId(methodBindingKey);
+		if(getUsedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getUsedFieldsForMethodArgumentsMap().get(methodId);
 			if(argumentMap.containsKey(argPosition))
 				return argumentMap.get(argPosition);
 		}
@@ -559,9 +623,9 @@ public class Indexer {
 	}
 
 	public Set<AbstractVariable> getDefinedFieldsForMethodArgument(String methodBindingKey, int argPosition) {
-		//String methodBindingKey = mo.resolveBinding().getKey();
-		if(definedFieldsForMethodArgumentsMap.containsKey(methodBindingKey)) {
-			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = definedFieldsForMethodArgumentsMap.get(methodBindingKey);
+		int methodId = methodBindingKeyTable.lookupId(methodBindingKey);
+		if(getDefinedFieldsForMethodArgumentsMap().containsKey(methodId)) {
+			HashMap<Integer, LinkedHashSet<AbstractVariable>> argumentMap = getDefinedFieldsForMethodArgumentsMap().get(methodId);
 			if(argumentMap.containsKey(argPosition))
 				return argumentMap.get(argPosition);
 		}
@@ -3,8 +3,13 @@ package gr.uom.java.ast;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.core.IClassFile;
@@ -14,56 +19,119 @@ import org.eclipse.jface.preference.IPreferenceStore;
 
 public class LibraryClassStorage extends Indexer {
 	private static LibraryClassStorage instance;
-	private LinkedList<IClassFile> iClassFileList;
-	private LinkedList<CompilationUnit> compilationUnitList;
+	//strongly reachable CompilationUnits in access order, bounded by count and by estimated size in bytes
+	private LinkedHashMap<IClassFile, CompilationUnit> compilationUnitMap;
+	private Map<IClassFile, Integer> compilationUnitSizeMap;
+	//CompilationUnits evicted from the bounded cache, which the garbage collector may reclaim under heap pressure
+	private Map<IClassFile, SoftCompilationUnitReference> softCompilationUnitMap;
+	private ReferenceQueue<CompilationUnit> referenceQueue;
 	private Set<IClassFile> unMatchedClassFiles;
+	private long cacheFootprint;
 	
 	private LibraryClassStorage() {
 		super();
-		this.iClassFileList = new LinkedList<IClassFile>();
-		this.compilationUnitList = new LinkedList<CompilationUnit>();
+		this.compilationUnitMap = new LinkedHashMap<IClassFile, CompilationUnit>(16, 0.75f, true);
+		this.compilationUnitSizeMap = new HashMap<IClassFile, Integer>();
+		this.softCompilationUnitMap = new HashMap<IClassFile, SoftCompilationUnitReference>();
+		this.referenceQueue = new ReferenceQueue<CompilationUnit>();
 		this.unMatchedClassFiles = new LinkedHashSet<IClassFile>();
+		this.cacheFootprint = 0;
 	}
 	
-	public static LibraryClassStorage getInstance() {
+	public static synchronized LibraryClassStorage getInstance() {
 		if(instance == null) {
 			instance = new LibraryClassStorage();
 		}
 		return instance;
 	}
 	
-	public CompilationUnit getCompilationUnit(IClassFile classFile) {
-		if(iClassFileList.contains(classFile)) {
-			int position = iClassFileList.indexOf(classFile);
-			return compilationUnitList.get(position);
+	public synchronized CompilationUnit getCompilationUnit(IClassFile classFile) {
+		expungeReclaimedCompilationUnits();
+		CompilationUnit compilationUnit = compilationUnitMap.get(classFile);
+		if(compilationUnit != null) {
+			return compilationUnit;
 		}
-		else {
-			CompilationUnit compilationUnit = null;
-			try {
-				if(!unMatchedClassFiles.contains(classFile)) {
-					ASTParser parser = ASTParser.newParser(ASTReader.JLS);
-					parser.setSource(classFile);
-					parser.setResolveBindings(true);
-					compilationUnit = (CompilationUnit)parser.createAST(null);
-					
-					IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-					int maximumCacheSize = store.getInt(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE);
-					if(iClassFileList.size() < maximumCacheSize) {
-						iClassFileList.add(classFile);
-						compilationUnitList.add(compilationUnit);
-					}
-					else {
-						iClassFileList.removeFirst();
-						compilationUnitList.removeFirst();
-						iClassFileList.add(classFile);
-						compilationUnitList.add(compilationUnit);
-					}
-				}
+		SoftCompilationUnitReference reference = softCompilationUnitMap.remove(classFile);
+		if(reference != null) {
+			compilationUnit = reference.get();
+			if(compilationUnit != null) {
+				cache(classFile, compilationUnit);
+				return compilationUnit;
 			}
-			catch(IllegalStateException e) {
-				unMatchedClassFiles.add(classFile);
+		}
+		try {
+			if(!unMatchedClassFiles.contains(classFile)) {
+				ASTParser parser = ASTParser.newParser(ASTReader.JLS);
+				parser.setSource(classFile);
+				parser.setResolveBindings(true);
+				compilationUnit = (CompilationUnit)parser.createAST(null);
+				cache(classFile, compilationUnit);
 			}
-			return compilationUnit;
+		}
+		catch(IllegalStateException e) {
+			unMatchedClassFiles.add(classFile);
+		}
+		return compilationUnit;
+	}
+
+	private void cache(IClassFile classFile, CompilationUnit compilationUnit) {
+		int compilationUnitSize = compilationUnit.subtreeBytes();
+		compilationUnitMap.put(classFile, compilationUnit);
+		compilationUnitSizeMap.put(classFile, compilationUnitSize);
+		cacheFootprint += compilationUnitSize;
+		
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int maximumCacheSize = store.getInt(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE);
+		long maximumCacheFootprint = store.getLong(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY) * 1024 * 1024;
+		Iterator<Map.Entry<IClassFile, CompilationUnit>> iterator = compilationUnitMap.entrySet().iterator();
+		//the most recently used CompilationUnit is never evicted, even if it exceeds the memory budget on its own
+		while(compilationUnitMap.size() > 1 &&
+				(compilationUnitMap.size() > maximumCacheSize || cacheFootprint > maximumCacheFootprint)) {
+			Map.Entry<IClassFile, CompilationUnit> eldestEntry = iterator.next();
+			IClassFile eldestClassFile = eldestEntry.getKey();
+			softCompilationUnitMap.put(eldestClassFile,
+					new SoftCompilationUnitReference(eldestClassFile, eldestEntry.getValue(), referenceQueue));
+			cacheFootprint -= compilationUnitSizeMap.remove(eldestClassFile);
+			iterator.remove();
+		}
+	}
+
+	private void expungeReclaimedCompilationUnits() {
+		SoftCompilationUnitReference reference = null;
+		while((reference = (SoftCompilationUnitReference)referenceQueue.poll()) != null) {
+			if(softCompilationUnitMap.get(reference.getClassFile()) == reference) {
+				softCompilationUnitMap.remove(reference.getClassFile());
+			}
+		}
+	}
+
+	/**
+	 * Returns the estimated size in bytes of the strongly cached library CompilationUnits,
+	 * as computed by ASTNode.subtreeBytes(). Softly referenced CompilationUnits are not included.
+	 */
+	public synchronized long getCacheFootprint() {
+		return cacheFootprint;
+	}
+
+	public synchronized int getNumberOfCachedCompilationUnits() {
+		return compilationUnitMap.size();
+	}
+
+	public synchronized int getNumberOfSoftlyCachedCompilationUnits() {
+		expungeReclaimedCompilationUnits();
+		return softCompilationUnitMap.size();
+	}
+
+	private static class SoftCompilationUnitReference extends SoftReference<CompilationUnit> {
+		private IClassFile classFile;
+
+		public SoftCompilationUnitReference(IClassFile classFile, CompilationUnit compilationUnit, ReferenceQueue<CompilationUnit> queue) {
+			super(compilationUnit, queue);
+			this.classFile = classFile;
+		}
+
+		public IClassFile getClassFile() {
+			return classFile;
 		}
 	}
 }
@@ -1,5 +1,7 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.CharacterLiteral;
 import org.eclipse.jdt.core.dom.Expression;
@@ -8,12 +10,13 @@ import org.eclipse.jdt.core.dom.NumberLiteral;
 import org.eclipse.jdt.core.dom.StringLiteral;
 import org.eclipse.jdt.core.dom.TypeLiteral;
 
-public class LiteralObject {
+public class LiteralObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private LiteralType literalType;
 	private String value;
 	private TypeObject type;
 	private ASTInformation literal;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public LiteralObject(Expression expression) {
 		if(expression instanceof StringLiteral) {
@@ -9,7 +9,7 @@ public class LocalVariableDeclarationObject extends VariableDeclarationObject {
     private String name;
     //private VariableDeclaration variableDeclaration;
     private ASTInformation variableDeclaration;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public LocalVariableDeclarationObject(TypeObject type, String name) {
         this.type = type;
@@ -0,0 +1,52 @@
+package gr.uom.java.ast;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Interns the method binding keys (MethodDeclaration.resolveBinding.getKey()) and assigns to each
+ * distinct key a dense int id, so that the tables of the Indexer can be keyed by ids instead of
+ * long key strings. Each Indexer owns its table, so that the ids live as long as the tables
+ * keyed by them, and are released together with them when the Indexer is cleared.
+ */
+public class MethodBindingKeyTable {
+
+	private Map<String, Integer> idMap;
+	private List<String> keyList;
+
+	public MethodBindingKeyTable() {
+		this.idMap = new HashMap<String, Integer>();
+		this.keyList = new ArrayList<String>();
+	}
+
+	//returns the id of the key, assigning a new id if the key is seen for the first time
+	public synchronized int getId(String methodBindingKey) {
+		Integer id = idMap.get(methodBindingKey);
+		if(id == null) {
+			id = keyList.size();
+			keyList.add(methodBindingKey);
+			idMap.put(methodBindingKey, id);
+		}
+		return id;
+	}
+
+	//returns the id of the key, or -1 if the key has never been interned
+	public synchronized int lookupId(String methodBindingKey) {
+		Integer id = idMap.get(methodBindingKey);
+		if(id == null)
+			return -1;
+		return id;
+	}
+
+	public synchronized String getKey(int id) {
+		return keyList.get(id);
+	}
+
+	//the ids assigned so far become invalid, and thus the tables keyed by them should be cleared as well
+	public synchronized void clear() {
+		idMap.clear();
+		keyList.clear();
+	}
+}
@@ -8,6 +8,7 @@ import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
 import gr.uom.java.ast.util.MethodDeclarationUtility;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -37,7 +38,8 @@ import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.ThisExpression;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 
-public class MethodObject implements AbstractMethodDeclaration {
+public class MethodObject implements AbstractMethodDeclaration, Serializable {
+    private static final long serialVersionUID = 1L;
 
     private TypeObject returnType;
     private boolean _abstract;
@@ -46,7 +48,7 @@ public class MethodObject implements AbstractMethodDeclaration {
     private boolean _native;
     private ConstructorObject constructorObject;
     private boolean testAnnotation;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public MethodObject(ConstructorObject co) {
         this.constructorObject = co;
@@ -121,6 +123,10 @@ public class MethodObject implements AbstractMethodDeclaration {
     	return constructorObject.getMethodDeclaration();
     }
 
+    public String getMethodBindingKey() {
+    	return constructorObject.getMethodBindingKey();
+    }
+
     public MethodBodyObject getMethodBody() {
     	return constructorObject.getMethodBody();
     }
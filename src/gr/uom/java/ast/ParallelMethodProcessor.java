@@ -0,0 +1,96 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.ast.util.OrderedTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ITypeRoot;
+
+/*
+ * Processes the methods of the examined classes by a bounded pool of worker threads, one task per compilation unit,
+ * since the methods of a compilation unit share the same AST, whose bindings should not be resolved concurrently.
+ * The classes of a compilation unit are contiguous in the SystemObject, and the results of the tasks are handled
+ * in the calling thread in submission order, so that they are consumed in the same order as in the serial mode.
+ * Each task locks every type root it accesses in CompilationUnitCache until it ends, including the type roots
+ * of the invoked methods, so that the ASTs it works on are not evicted by the other tasks filling the cache.
+ */
+public abstract class ParallelMethodProcessor<T> {
+
+	//invoked by the worker threads
+	protected abstract void collectResults(List<T> results, ClassObject classObject, MethodObject methodObject);
+
+	//invoked by the calling thread
+	protected abstract void handleResults(List<T> results, int numberOfMethods);
+
+	public void processClasses(Set<ClassObject> classObjectsToBeExamined, IProgressMonitor monitor) {
+		List<CompilationUnitTask> tasks = new ArrayList<CompilationUnitTask>();
+		CompilationUnitTask currentTask = null;
+		for(ClassObject classObject : classObjectsToBeExamined) {
+			if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator()) {
+				if(currentTask == null || !currentTask.getTypeRoot().equals(classObject.getITypeRoot())) {
+					currentTask = new CompilationUnitTask(classObject.getITypeRoot());
+					tasks.add(currentTask);
+				}
+				currentTask.addClassObject(classObject);
+			}
+		}
+		new OrderedTaskExecutor<CompilationUnitTask>().execute(tasks, new OrderedTaskExecutor.ResultHandler<CompilationUnitTask>() {
+			public void handleResult(CompilationUnitTask task) {
+				handleResults(task.getResults(), task.getNumberOfMethods());
+			}
+		}, monitor);
+	}
+
+	private class CompilationUnitTask implements Callable<CompilationUnitTask> {
+		private ITypeRoot typeRoot;
+		private List<ClassObject> classObjects;
+		private List<T> results;
+		private int numberOfMethods;
+
+		public CompilationUnitTask(ITypeRoot typeRoot) {
+			this.typeRoot = typeRoot;
+			this.classObjects = new ArrayList<ClassObject>();
+			this.results = new ArrayList<T>();
+		}
+
+		public ITypeRoot getTypeRoot() {
+			return typeRoot;
+		}
+
+		public void addClassObject(ClassObject classObject) {
+			classObjects.add(classObject);
+			numberOfMethods += classObject.getNumberOfMethods();
+		}
+
+		public List<T> getResults() {
+			return results;
+		}
+
+		public int getNumberOfMethods() {
+			return numberOfMethods;
+		}
+
+		public CompilationUnitTask call() {
+			ASTInformationGenerator.setCurrentITypeRoot(typeRoot);
+			CompilationUnitCache cache = CompilationUnitCache.getInstance();
+			cache.lockAccessedTypeRoots();
+			try {
+				for(ClassObject classObject : classObjects) {
+					ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
+					while(methodIterator.hasNext()) {
+						MethodObject methodObject = methodIterator.next();
+						collectResults(results, classObject, methodObject);
+					}
+				}
+			} finally {
+				cache.releaseAccessedTypeRoots();
+			}
+			return this;
+		}
+	}
+}
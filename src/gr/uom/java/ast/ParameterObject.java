@@ -9,7 +9,7 @@ public class ParameterObject extends VariableDeclarationObject {
 	private boolean varargs;
 	//private SingleVariableDeclaration singleVariableDeclaration;
 	private ASTInformation singleVariableDeclaration;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 
 	public ParameterObject(TypeObject type, String name, boolean varargs) {
 		this.type = type;
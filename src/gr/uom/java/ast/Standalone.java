@@ -2,11 +2,13 @@ package gr.uom.java.ast;
 
 import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
 import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
 import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
 import gr.uom.java.ast.decomposition.cfg.PDGSliceUnionCollection;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
+import gr.uom.java.ast.util.CandidateSink;
 import gr.uom.java.ast.util.StatementExtractor;
 import gr.uom.java.distance.DistanceMatrix;
 import gr.uom.java.distance.ExtractClassCandidateRefactoring;
@@ -20,6 +22,7 @@ import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckEliminationGroup;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -28,6 +31,9 @@ import java.util.ListIterator;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
@@ -35,7 +41,11 @@ import org.eclipse.jface.preference.IPreferenceStore;
 
 public class Standalone {
 
-	public static List<MoveMethodCandidateRefactoring> getMoveMethodRefactoringOpportunities(IJavaProject project) {
+	/*
+	 * Parses the given project, reusing the SystemObject of a previous parse of the same project, if any.
+	 * The returned SystemObject can be passed to all the detectors, so that the project is parsed only once.
+	 */
+	public static SystemObject parseProject(IJavaProject project) {
 		CompilationUnitCache.getInstance().clearCache();
 		try {
 			if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
@@ -48,8 +58,15 @@ public class Standalone {
 		catch(CompilationErrorDetectedException e) {
 			e.printStackTrace();
 		}
+		return ASTReader.getSystemObject();
+	}
+
+	public static List<MoveMethodCandidateRefactoring> getMoveMethodRefactoringOpportunities(IJavaProject project) {
+		return getMoveMethodRefactoringOpportunities(parseProject(project));
+	}
+
+	public static List<MoveMethodCandidateRefactoring> getMoveMethodRefactoringOpportunities(SystemObject systemObject) {
 		List<MoveMethodCandidateRefactoring> moveMethodCandidateList = new ArrayList<MoveMethodCandidateRefactoring>();
-		SystemObject systemObject = ASTReader.getSystemObject();
 		if(systemObject != null) {
 			Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 			classObjectsToBeExamined.addAll(systemObject.getClassObjects());
@@ -68,20 +85,28 @@ public class Standalone {
 		return moveMethodCandidateList;
 	}
 
-	public static Set<ExtractClassCandidateGroup> getExtractClassRefactoringOpportunities(IJavaProject project) {
-		CompilationUnitCache.getInstance().clearCache();
-		try {
-			if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
-				new ASTReader(project, ASTReader.getSystemObject(), null);
-			}
-			else {
-				new ASTReader(project, null);
+	/*
+	 * Passes the candidates to the sink as soon as each method is processed, in the order of the methods
+	 * of the system instead of the sorted order, so that they are neither materialized nor retained.
+	 */
+	public static void getMoveMethodRefactoringOpportunities(SystemObject systemObject, CandidateSink<MoveMethodCandidateRefactoring> sink) {
+		if(systemObject != null) {
+			Set<String> classNamesToBeExamined = new LinkedHashSet<String>();
+			for(ClassObject classObject : systemObject.getClassObjects()) {
+				if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator())
+					classNamesToBeExamined.add(classObject.getName());
 			}
+			MySystem system = new MySystem(systemObject, false);
+			DistanceMatrix distanceMatrix = new DistanceMatrix(system);
+			distanceMatrix.getMoveMethodCandidateRefactoringsByAccess(classNamesToBeExamined, sink, null);
 		}
-		catch(CompilationErrorDetectedException e) {
-			e.printStackTrace();
-		}
-		SystemObject systemObject = ASTReader.getSystemObject();
+	}
+
+	public static Set<ExtractClassCandidateGroup> getExtractClassRefactoringOpportunities(IJavaProject project) {
+		return getExtractClassRefactoringOpportunities(parseProject(project));
+	}
+
+	public static Set<ExtractClassCandidateGroup> getExtractClassRefactoringOpportunities(SystemObject systemObject) {
 		if(systemObject != null) {
 			Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 			classObjectsToBeExamined.addAll(systemObject.getClassObjects());
@@ -118,20 +143,25 @@ public class Standalone {
 		}
 	}
 
-	public static Set<TypeCheckEliminationGroup> getTypeCheckEliminationRefactoringOpportunities(IJavaProject project) {
-		CompilationUnitCache.getInstance().clearCache();
-		try {
-			if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
-				new ASTReader(project, ASTReader.getSystemObject(), null);
-			}
-			else {
-				new ASTReader(project, null);
+	//passes the group of each source class to the sink as soon as the class is processed, in the order of the classes of the system
+	public static void getExtractClassRefactoringOpportunities(SystemObject systemObject, CandidateSink<ExtractClassCandidateGroup> sink) {
+		if(systemObject != null) {
+			Set<String> classNamesToBeExamined = new LinkedHashSet<String>();
+			for(ClassObject classObject : systemObject.getClassObjects()) {
+				if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator())
+					classNamesToBeExamined.add(classObject.getName());
 			}
+			MySystem system = new MySystem(systemObject, true);
+			DistanceMatrix distanceMatrix = new DistanceMatrix(system);
+			distanceMatrix.getExtractClassCandidateGroups(classNamesToBeExamined, sink, null);
 		}
-		catch(CompilationErrorDetectedException e) {
-			e.printStackTrace();
-		}
-		SystemObject systemObject = ASTReader.getSystemObject();
+	}
+
+	public static Set<TypeCheckEliminationGroup> getTypeCheckEliminationRefactoringOpportunities(IJavaProject project) {
+		return getTypeCheckEliminationRefactoringOpportunities(parseProject(project));
+	}
+
+	public static Set<TypeCheckEliminationGroup> getTypeCheckEliminationRefactoringOpportunities(SystemObject systemObject) {
 		Set<TypeCheckEliminationGroup> typeCheckEliminationGroups = new TreeSet<TypeCheckEliminationGroup>();
 		if(systemObject != null) {
 			Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
@@ -145,39 +175,104 @@ public class Standalone {
 		return typeCheckEliminationGroups;
 	}
 
+	/*
+	 * The type checking groups are formed at system level, since the eliminations of different classes
+	 * may share the same inheritance hierarchy or constant variables, so they are passed to the sink
+	 * after all the classes are processed.
+	 */
+	public static void getTypeCheckEliminationRefactoringOpportunities(SystemObject systemObject, CandidateSink<TypeCheckEliminationGroup> sink) {
+		for(TypeCheckEliminationGroup group : getTypeCheckEliminationRefactoringOpportunities(systemObject)) {
+			if(!sink.accept(group))
+				break;
+		}
+	}
+
 	public static Set<ASTSliceGroup> getExtractMethodRefactoringOpportunities(IJavaProject project) {
-		CompilationUnitCache.getInstance().clearCache();
-		try {
-			if(ASTReader.getSystemObject() != null && project.equals(ASTReader.getExaminedProject())) {
-				new ASTReader(project, ASTReader.getSystemObject(), null);
-			}
-			else {
-				new ASTReader(project, null);
+		return getExtractMethodRefactoringOpportunities(parseProject(project));
+	}
+
+	public static Set<ASTSliceGroup> getExtractMethodRefactoringOpportunities(SystemObject systemObject) {
+		final Set<ASTSliceGroup> extractedSliceGroups = new TreeSet<ASTSliceGroup>();
+		getExtractMethodRefactoringOpportunities(systemObject, new CandidateSink<ASTSliceGroup>() {
+			public boolean accept(ASTSliceGroup sliceGroup) {
+				extractedSliceGroups.add(sliceGroup);
+				return true;
 			}
-		}
-		catch(CompilationErrorDetectedException e) {
-			e.printStackTrace();
-		}
-		SystemObject systemObject = ASTReader.getSystemObject();
-		Set<ASTSliceGroup> extractedSliceGroups = new TreeSet<ASTSliceGroup>();
+		}, true);
+		return extractedSliceGroups;
+	}
+
+	/*
+	 * Passes the slice groups of each method to the sink as soon as the method is processed, in the order of the
+	 * methods of the system. If retainPDGs is false, the PDGs are not kept in the PDGCache, and the AST nodes of
+	 * each slice group are detached as soon as the sink accepts it, so that the PDG and the AST of a method can be
+	 * released even if the sink keeps the slice groups. The sink should then serialize in accept whatever it needs
+	 * from the AST nodes, since only the statement counts and the names of the slices remain available afterwards.
+	 */
+	public static void getExtractMethodRefactoringOpportunities(SystemObject systemObject, CandidateSink<ASTSliceGroup> sink, boolean retainPDGs) {
 		if(systemObject != null) {
 			Set<ClassObject> classObjectsToBeExamined = new LinkedHashSet<ClassObject>();
 			classObjectsToBeExamined.addAll(systemObject.getClassObjects());
-			
-			for(ClassObject classObject : classObjectsToBeExamined) {
-				if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator()) {
-					ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
-					while(methodIterator.hasNext()) {
-						MethodObject methodObject = methodIterator.next();
-						processMethod(extractedSliceGroups,classObject, methodObject);
+			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+			if(store.getBoolean(PreferenceConstants.P_ENABLE_PARALLEL_IDENTIFICATION)) {
+				processClassesInParallel(sink, classObjectsToBeExamined, retainPDGs);
+			}
+			else {
+				for(ClassObject classObject : classObjectsToBeExamined) {
+					if(!classObject.isEnum() && !classObject.isInterface() && !classObject.isGeneratedByParserGenenator()) {
+						ListIterator<MethodObject> methodIterator = classObject.getMethodIterator();
+						while(methodIterator.hasNext()) {
+							MethodObject methodObject = methodIterator.next();
+							List<ASTSliceGroup> methodSliceGroups = new ArrayList<ASTSliceGroup>();
+							processMethod(methodSliceGroups, classObject, methodObject, retainPDGs);
+							for(ASTSliceGroup sliceGroup : methodSliceGroups) {
+								boolean accepted = sink.accept(sliceGroup);
+								if(!retainPDGs)
+									sliceGroup.detachASTNodes();
+								if(!accepted)
+									return;
+							}
+						}
 					}
 				}
 			}
 		}
-		return extractedSliceGroups;
+	}
+
+	//the slice groups are passed to the sink in the order of the methods of the system, as in the serial mode
+	private static void processClassesInParallel(final CandidateSink<ASTSliceGroup> sink, Set<ClassObject> classObjectsToBeExamined, final boolean retainPDGs) {
+		//the monitor is canceled when the sink stops the identification
+		final IProgressMonitor monitor = new NullProgressMonitor();
+		try {
+			new ParallelMethodProcessor<ASTSliceGroup>() {
+				protected void collectResults(List<ASTSliceGroup> sliceGroups, ClassObject classObject, MethodObject methodObject) {
+					processMethod(sliceGroups, classObject, methodObject, retainPDGs);
+				}
+				protected void handleResults(List<ASTSliceGroup> sliceGroups, int numberOfMethods) {
+					for(ASTSliceGroup sliceGroup : sliceGroups) {
+						boolean accepted = sink.accept(sliceGroup);
+						if(!retainPDGs)
+							sliceGroup.detachASTNodes();
+						if(!accepted) {
+							monitor.setCanceled(true);
+							return;
+						}
+					}
+				}
+			}.processClasses(classObjectsToBeExamined, monitor);
+		}
+		catch(OperationCanceledException e) {
+			if(!monitor.isCanceled())
+				throw e;
+		}
 	}
 	
-	private static void processMethod(Set<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, MethodObject methodObject) {
+	/*
+	 * The slice groups of the method are collected in a TreeSet before being added to the given collection,
+	 * so that the slice groups of a method are ordered and free of duplicates even when they are not
+	 * collected in a TreeSet by the caller.
+	 */
+	private static void processMethod(Collection<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, MethodObject methodObject, boolean retainPDG) {
 		if(methodObject.getMethodBody() != null) {
 			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
 			int minimumMethodSize = store.getInt(PreferenceConstants.P_MINIMUM_METHOD_SIZE);
@@ -186,71 +281,80 @@ public class Standalone {
 			if(numberOfStatements >= minimumMethodSize) {
 				ITypeRoot typeRoot = classObject.getITypeRoot();
 				CompilationUnitCache.getInstance().lock(typeRoot);
-				CFG cfg = new CFG(methodObject);
-				PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = sliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(sliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
+				Set<ASTSliceGroup> methodSliceGroups = new TreeSet<ASTSliceGroup>();
+				try {
+					PDG pdg;
+					if(retainPDG)
+						pdg = PDGCache.getInstance().getPDG(methodObject, classObject, null);
+					else
+						pdg = new PDG(new CFG(methodObject), classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
+					for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
+						PlainVariable variable = new PlainVariable(declaration);
+						PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
+						double sumOfExtractedStatementsInGroup = 0.0;
+						double sumOfDuplicatedStatementsInGroup = 0.0;
+						double sumOfDuplicationRatioInGroup = 0.0;
+						int maximumNumberOfExtractedStatementsInGroup = 0;
+						int groupSize = sliceUnionCollection.getSliceUnions().size();
+						ASTSliceGroup sliceGroup = new ASTSliceGroup();
+						for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
+							ASTSlice slice = new ASTSlice(sliceUnion);
+							if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
+								int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
+								int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
+								double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+								sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+								sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+								sumOfDuplicationRatioInGroup += duplicationRatio;
+								if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+									maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+								sliceGroup.addCandidate(slice);
+							}
 						}
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = objectSliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(objectSliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
+						if(!sliceGroup.getCandidates().isEmpty()) {
+							sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+							sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+							methodSliceGroups.add(sliceGroup);
 						}
 					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
+					for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
+						PlainVariable variable = new PlainVariable(declaration);
+						PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
+						double sumOfExtractedStatementsInGroup = 0.0;
+						double sumOfDuplicatedStatementsInGroup = 0.0;
+						double sumOfDuplicationRatioInGroup = 0.0;
+						int maximumNumberOfExtractedStatementsInGroup = 0;
+						int groupSize = objectSliceUnionCollection.getSliceUnions().size();
+						ASTSliceGroup sliceGroup = new ASTSliceGroup();
+						for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
+							ASTSlice slice = new ASTSlice(objectSliceUnion);
+							if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
+								int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
+								int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
+								double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+								sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+								sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+								sumOfDuplicationRatioInGroup += duplicationRatio;
+								if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+									maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+								sliceGroup.addCandidate(slice);
+							}
+						}
+						if(!sliceGroup.getCandidates().isEmpty()) {
+							sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+							sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+							methodSliceGroups.add(sliceGroup);
+						}
 					}
 				}
-				CompilationUnitCache.getInstance().releaseLock();
+				finally {
+					CompilationUnitCache.getInstance().releaseLock(typeRoot);
+				}
+				extractedSliceGroups.addAll(methodSliceGroups);
 			}
 		}
 	}
@@ -1,8 +1,11 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.SimpleName;
 
-public class SuperFieldInstructionObject {
+public class SuperFieldInstructionObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 
 	private String ownerClass;
 	private TypeObject type;
@@ -10,7 +13,7 @@ public class SuperFieldInstructionObject {
 	private boolean _static;
 	//private SimpleName simpleName;
 	private ASTInformation simpleName;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 
 	public SuperFieldInstructionObject(String ownerClass, TypeObject type, String name) {
 		this.ownerClass = ownerClass;
@@ -8,6 +8,7 @@ import gr.uom.java.ast.util.StatementExtractor;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckElimination;
 import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckEliminationGroup;
 
+import java.io.Serializable;
 import java.util.*;
 
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -45,7 +46,8 @@ import org.eclipse.jdt.core.dom.VariableDeclarationExpression;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 import org.eclipse.jdt.core.dom.VariableDeclarationStatement;
 
-public class SystemObject {
+public class SystemObject implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private List<ClassObject> classList;
     //Map that has as key the classname and as value
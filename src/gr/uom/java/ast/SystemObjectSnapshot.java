@@ -0,0 +1,173 @@
+package gr.uom.java.ast;
+
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/*
+ * A snapshot of the SystemObject of a project stored in the state location of the plug-in,
+ * so that a new Eclipse session can start from the classes parsed in the previous session
+ * and re-parse only the compilation units whose source changed in the meantime.
+ */
+public class SystemObjectSnapshot implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final int SNAPSHOT_FORMAT_VERSION = 1;
+	private static final String SNAPSHOT_FILE_EXTENSION = ".snapshot";
+	private SystemObject systemObject;
+	//Map that has as key the handle identifier of a compilation unit
+	//and as value the digest of the source from which its classes were parsed
+	private Map<String, String> sourceDigestMap;
+
+	private SystemObjectSnapshot(SystemObject systemObject, Map<String, String> sourceDigestMap) {
+		this.systemObject = systemObject;
+		this.sourceDigestMap = sourceDigestMap;
+	}
+
+	public SystemObject getSystemObject() {
+		return systemObject;
+	}
+
+	public Map<String, String> getSourceDigestMap() {
+		return sourceDigestMap;
+	}
+
+	public void findAffectedCompilationUnits(IJavaProject iJavaProject, Set<ICompilationUnit> changedCompilationUnits,
+			Set<ICompilationUnit> addedCompilationUnits, Set<ICompilationUnit> removedCompilationUnits) {
+		Map<String, String> currentSourceDigestMap = computeSourceDigests(ASTReader.getCompilationUnits(iJavaProject));
+		for(String handleIdentifier : currentSourceDigestMap.keySet()) {
+			String previousDigest = sourceDigestMap.get(handleIdentifier);
+			if(previousDigest == null)
+				addedCompilationUnits.add((ICompilationUnit)JavaCore.create(handleIdentifier));
+			else if(!previousDigest.equals(currentSourceDigestMap.get(handleIdentifier)))
+				changedCompilationUnits.add((ICompilationUnit)JavaCore.create(handleIdentifier));
+		}
+		for(String handleIdentifier : sourceDigestMap.keySet()) {
+			if(!currentSourceDigestMap.containsKey(handleIdentifier))
+				removedCompilationUnits.add((ICompilationUnit)JavaCore.create(handleIdentifier));
+		}
+	}
+
+	public static SystemObjectSnapshot load(IJavaProject iJavaProject) {
+		File snapshotFile = getSnapshotFile(iJavaProject);
+		if(!snapshotFile.exists())
+			return null;
+		ObjectInputStream in = null;
+		try {
+			in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(snapshotFile))));
+			if(in.readInt() != SNAPSHOT_FORMAT_VERSION)
+				return null;
+			SystemObjectSnapshot snapshot = (SystemObjectSnapshot)in.readObject();
+			for(ClassObject classObject : snapshot.systemObject.getClassObjects()) {
+				IJavaElement typeRoot = classObject.getITypeRoot();
+				if(typeRoot == null || !iJavaProject.equals(typeRoot.getJavaProject()))
+					return null;
+			}
+			return snapshot;
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+		} catch (ClassCastException e) {
+			e.printStackTrace();
+		} finally {
+			close(in);
+		}
+		//an unreadable snapshot is discarded, so that it is replaced after the next full parsing
+		snapshotFile.delete();
+		return null;
+	}
+
+	public static void save(IJavaProject iJavaProject, SystemObject systemObject, Map<String, String> sourceDigestMap) {
+		SystemObjectSnapshot snapshot = new SystemObjectSnapshot(systemObject, new LinkedHashMap<String, String>(sourceDigestMap));
+		File snapshotFile = getSnapshotFile(iJavaProject);
+		File temporaryFile = new File(snapshotFile.getPath() + ".tmp");
+		ObjectOutputStream out = null;
+		try {
+			out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile))));
+			out.writeInt(SNAPSHOT_FORMAT_VERSION);
+			out.writeObject(snapshot);
+			out.close();
+			out = null;
+			snapshotFile.delete();
+			if(!temporaryFile.renameTo(snapshotFile))
+				temporaryFile.delete();
+		} catch (IOException e) {
+			e.printStackTrace();
+			close(out);
+			temporaryFile.delete();
+		}
+	}
+
+	private static File getSnapshotFile(IJavaProject iJavaProject) {
+		return Activator.getDefault().getStateLocation().append(iJavaProject.getElementName() + SNAPSHOT_FILE_EXTENSION).toFile();
+	}
+
+	private static Map<String, String> computeSourceDigests(List<ICompilationUnit> iCompilationUnits) {
+		Map<String, String> sourceDigestMap = new LinkedHashMap<String, String>();
+		for(ICompilationUnit iCompilationUnit : iCompilationUnits) {
+			String digest = computeSourceDigest(iCompilationUnit);
+			if(digest != null)
+				sourceDigestMap.put(iCompilationUnit.getHandleIdentifier(), digest);
+		}
+		return sourceDigestMap;
+	}
+
+	//returns the digest of the current source of the compilation unit, or null if the source cannot be read
+	public static String computeSourceDigest(ICompilationUnit iCompilationUnit) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+			byte[] digest = messageDigest.digest(iCompilationUnit.getSource().getBytes("UTF-8"));
+			return toHexString(digest);
+		} catch (JavaModelException e) {
+			e.printStackTrace();
+		} catch (UnsupportedEncodingException e) {
+			e.printStackTrace();
+		} catch (NoSuchAlgorithmException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	private static String toHexString(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+		for(byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static void close(Closeable stream) {
+		if(stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
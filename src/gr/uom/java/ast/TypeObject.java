@@ -1,13 +1,15 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class TypeObject {
+public class TypeObject implements Serializable {
+    private static final long serialVersionUID = 1L;
     private String classType;
     private String genericType;
     private int arrayDimension;
-    private volatile int hashCode = 0;
+    private transient volatile int hashCode = 0;
 
     public TypeObject(String type) {
         this.classType = type;
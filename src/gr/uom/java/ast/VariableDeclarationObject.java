@@ -1,8 +1,11 @@
 package gr.uom.java.ast;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
-public abstract class VariableDeclarationObject {
+public abstract class VariableDeclarationObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	
 	protected String variableBindingKey;
 	
@@ -22,6 +22,7 @@ import gr.uom.java.ast.decomposition.cfg.AbstractVariable;
 import gr.uom.java.ast.decomposition.cfg.PlainVariable;
 import gr.uom.java.ast.util.MethodDeclarationUtility;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -60,7 +61,8 @@ import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
-public abstract class AbstractMethodFragment {
+public abstract class AbstractMethodFragment implements Serializable {
+	private static final long serialVersionUID = 1L;
 	private AbstractMethodFragment parent;
 	
 	private List<MethodInvocationObject> methodInvocationList;
@@ -1,9 +1,11 @@
 package gr.uom.java.ast.decomposition;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
-public class CatchClauseObject {
+public class CatchClauseObject implements Serializable {
+	private static final long serialVersionUID = 1L;
 	
 	private CompositeStatementObject body;
 	private List<AbstractExpression> expressionList;
@@ -1,10 +1,13 @@
 package gr.uom.java.ast.decomposition.cfg;
 
+import java.io.Serializable;
+
 import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
-public abstract class AbstractVariable {
+public abstract class AbstractVariable implements Serializable {
+	private static final long serialVersionUID = 1L;
 	//protected VariableDeclaration name;
 	protected String variableBindingKey;
 	protected String variableName;
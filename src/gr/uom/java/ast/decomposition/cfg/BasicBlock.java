@@ -4,7 +4,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class BasicBlock {
-	private static int blockNum = 0;
+	//the blocks are numbered per thread, so that graphs can be constructed concurrently in different threads
+	private static final ThreadLocal<Integer> blockNum = new ThreadLocal<Integer>() {
+		protected Integer initialValue() {
+			return 0;
+		}
+	};
 	private int id;
 	private CFGNode leader;
 	private List<CFGNode> nodes;
@@ -13,8 +18,8 @@ public class BasicBlock {
 	private BasicBlock nextBasicBlock;
 	
 	public BasicBlock(CFGNode node) {
-		blockNum++;
-		this.id = blockNum;
+		this.id = blockNum.get() + 1;
+		blockNum.set(id);
 		this.leader = node;
 		node.setBasicBlock(this);
 		this.nodes = new ArrayList<CFGNode>();
@@ -82,7 +87,7 @@ public class BasicBlock {
 	}
 
 	public static void resetBlockNum() {
-		blockNum = 0;
+		blockNum.set(0);
 	}
 
 	public String toString() {
@@ -5,7 +5,7 @@ import org.eclipse.jdt.core.dom.VariableDeclaration;
 
 public class CompositeVariable extends AbstractVariable {
 	private AbstractVariable rightPart;
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public CompositeVariable(VariableDeclaration referenceName, AbstractVariable rightPart) {
 		super(referenceName);
@@ -0,0 +1,220 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * A compact, read-only representation of a constructed CFG or PDG.
+ * The nodes are indexed by their id and the edges by their position in the edge set of the graph,
+ * while the incoming edges of each node are stored as compressed rows of edge indices,
+ * in the same order as the incoming edge set of the node. Sets of nodes and edges are represented as BitSets
+ * over these indices, so that region membership and edge filtering become bit operations.
+ */
+public class DenseGraph {
+	private GraphNode[] nodeArray;
+	private GraphEdge[] edgeArray;
+	private Map<GraphEdge, Integer> edgeIndexMap;
+	private int[] edgeSources;
+	private int[] edgeDestinations;
+	//the id of the loop node of a loop-carried dependence, or -1 if the edge is not loop-carried
+	private int[] edgeLoops;
+	private int[] incomingOffsets;
+	private int[] incomingEdges;
+	private BitSet nodeIds;
+	private BitSet dataDependences;
+	private BitSet controlDependences;
+	//the anti and output dependences, which are not followed by the slicing traversals
+	private BitSet antiAndOutputDependences;
+
+	public DenseGraph(Graph graph) {
+		int maxId = 0;
+		for(GraphNode node : graph.nodes) {
+			maxId = Math.max(maxId, node.getId());
+		}
+		for(GraphEdge edge : graph.edges) {
+			maxId = Math.max(maxId, Math.max(edge.src.getId(), edge.dst.getId()));
+		}
+		int numberOfNodes = maxId + 1;
+		int numberOfEdges = graph.edges.size();
+		this.nodeArray = new GraphNode[numberOfNodes];
+		this.nodeIds = new BitSet(numberOfNodes);
+		for(GraphNode node : graph.nodes) {
+			nodeArray[node.getId()] = node;
+			nodeIds.set(node.getId());
+		}
+		this.edgeArray = new GraphEdge[numberOfEdges];
+		this.edgeIndexMap = new HashMap<GraphEdge, Integer>();
+		this.edgeSources = new int[numberOfEdges];
+		this.edgeDestinations = new int[numberOfEdges];
+		this.edgeLoops = new int[numberOfEdges];
+		this.dataDependences = new BitSet(numberOfEdges);
+		this.controlDependences = new BitSet(numberOfEdges);
+		this.antiAndOutputDependences = new BitSet(numberOfEdges);
+		int edgeIndex = 0;
+		for(GraphEdge edge : graph.edges) {
+			edgeArray[edgeIndex] = edge;
+			edgeIndexMap.put(edge, edgeIndex);
+			edgeSources[edgeIndex] = edge.src.getId();
+			edgeDestinations[edgeIndex] = edge.dst.getId();
+			edgeLoops[edgeIndex] = -1;
+			if(nodeArray[edge.src.getId()] == null)
+				nodeArray[edge.src.getId()] = edge.src;
+			if(nodeArray[edge.dst.getId()] == null)
+				nodeArray[edge.dst.getId()] = edge.dst;
+			if(edge instanceof PDGAbstractDataDependence) {
+				PDGAbstractDataDependence dependence = (PDGAbstractDataDependence)edge;
+				if(dependence.isLoopCarried())
+					edgeLoops[edgeIndex] = dependence.getLoop().getPDGNode().getId();
+				if(dependence instanceof PDGDataDependence)
+					dataDependences.set(edgeIndex);
+				else
+					antiAndOutputDependences.set(edgeIndex);
+			}
+			else if(edge instanceof PDGControlDependence) {
+				controlDependences.set(edgeIndex);
+			}
+			edgeIndex++;
+		}
+		this.incomingOffsets = new int[numberOfNodes + 1];
+		for(int id=0; id<numberOfNodes; id++) {
+			GraphNode node = nodeArray[id];
+			incomingOffsets[id + 1] = incomingOffsets[id] + (node != null ? countIndexedEdges(node.incomingEdges) : 0);
+		}
+		this.incomingEdges = new int[incomingOffsets[numberOfNodes]];
+		for(int id=0; id<numberOfNodes; id++) {
+			GraphNode node = nodeArray[id];
+			if(node != null)
+				fillIndexedEdges(node.incomingEdges, incomingEdges, incomingOffsets[id]);
+		}
+	}
+
+	//the incoming edge sets of the nodes may contain edges that do not belong to the graph, which are not indexed
+	private int countIndexedEdges(Iterable<GraphEdge> edges) {
+		int count = 0;
+		for(GraphEdge edge : edges) {
+			if(edgeIndexMap.containsKey(edge))
+				count++;
+		}
+		return count;
+	}
+
+	private void fillIndexedEdges(Iterable<GraphEdge> edges, int[] row, int offset) {
+		for(GraphEdge edge : edges) {
+			Integer edgeIndex = edgeIndexMap.get(edge);
+			if(edgeIndex != null)
+				row[offset++] = edgeIndex;
+		}
+	}
+
+	public int getNumberOfEdges() {
+		return edgeArray.length;
+	}
+
+	public GraphNode getNode(int id) {
+		return nodeArray[id];
+	}
+
+	public GraphEdge getEdge(int edgeIndex) {
+		return edgeArray[edgeIndex];
+	}
+
+	//returns the index of an edge equal to the given one, or -1 if no such edge belongs to the graph
+	public int getEdgeIndex(GraphEdge edge) {
+		Integer edgeIndex = edgeIndexMap.get(edge);
+		if(edgeIndex == null)
+			return -1;
+		return edgeIndex;
+	}
+
+	public int getEdgeSource(int edgeIndex) {
+		return edgeSources[edgeIndex];
+	}
+
+	public int getEdgeDestination(int edgeIndex) {
+		return edgeDestinations[edgeIndex];
+	}
+
+	public boolean isDataDependence(int edgeIndex) {
+		return dataDependences.get(edgeIndex);
+	}
+
+	public boolean isControlDependence(int edgeIndex) {
+		return controlDependences.get(edgeIndex);
+	}
+
+	public BitSet getNodeIds() {
+		return (BitSet)nodeIds.clone();
+	}
+
+	public BitSet toNodeIds(Iterable<? extends GraphNode> nodes) {
+		BitSet ids = new BitSet(nodeArray.length);
+		for(GraphNode node : nodes) {
+			ids.set(node.getId());
+		}
+		return ids;
+	}
+
+	/*
+	 * Returns the edges having both their endpoints in the region.
+	 * A loop-carried dependence belongs to the region only if its loop node also belongs to the region.
+	 */
+	public BitSet getRegionEdges(BitSet regionNodeIds) {
+		BitSet regionEdges = new BitSet(edgeArray.length);
+		for(int edgeIndex=0; edgeIndex<edgeArray.length; edgeIndex++) {
+			if(regionNodeIds.get(edgeSources[edgeIndex]) && regionNodeIds.get(edgeDestinations[edgeIndex])) {
+				int loop = edgeLoops[edgeIndex];
+				if(loop == -1 || regionNodeIds.get(loop))
+					regionEdges.set(edgeIndex);
+			}
+		}
+		return regionEdges;
+	}
+
+	/*
+	 * Returns the nodes from which the given node can be reached backwards through the given edges,
+	 * including the node itself. Anti and output dependences are not followed.
+	 */
+	public BitSet backwardSlice(int nodeId, BitSet edges) {
+		BitSet sliceNodeIds = new BitSet(nodeArray.length);
+		int[] stack = new int[nodeArray.length];
+		int top = 0;
+		stack[top++] = nodeId;
+		sliceNodeIds.set(nodeId);
+		while(top > 0) {
+			int node = stack[--top];
+			for(int i=incomingOffsets[node]; i<incomingOffsets[node + 1]; i++) {
+				int edgeIndex = incomingEdges[i];
+				if(edges.get(edgeIndex) && !antiAndOutputDependences.get(edgeIndex)) {
+					int source = edgeSources[edgeIndex];
+					if(!sliceNodeIds.get(source)) {
+						sliceNodeIds.set(source);
+						stack[top++] = source;
+					}
+				}
+			}
+		}
+		return sliceNodeIds;
+	}
+
+	//returns the sources of the data dependences on the given variable, which are incoming to the node through the given edges
+	public BitSet getDefNodes(int nodeId, AbstractVariable variable, BitSet edges) {
+		BitSet defNodeIds = new BitSet(nodeArray.length);
+		for(int i=incomingOffsets[nodeId]; i<incomingOffsets[nodeId + 1]; i++) {
+			int edgeIndex = incomingEdges[i];
+			if(edges.get(edgeIndex) && dataDependences.get(edgeIndex)) {
+				PDGDataDependence dataDependence = (PDGDataDependence)edgeArray[edgeIndex];
+				if(dataDependence.getData().equals(variable))
+					defNodeIds.set(edgeSources[edgeIndex]);
+			}
+		}
+		return defNodeIds;
+	}
+
+	public void addPDGNodes(BitSet ids, Collection<PDGNode> nodes) {
+		for(int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+			nodes.add((PDGNode)nodeArray[id]);
+		}
+	}
+}
@@ -4,14 +4,19 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class GraphNode {
-	private static int nodeNum = 0;
+	//the nodes are numbered per thread, so that graphs can be constructed concurrently in different threads
+	private static final ThreadLocal<Integer> nodeNum = new ThreadLocal<Integer>() {
+		protected Integer initialValue() {
+			return 0;
+		}
+	};
 	protected int id;
 	protected Set<GraphEdge> incomingEdges;
 	protected Set<GraphEdge> outgoingEdges;
 	
 	public GraphNode() {
-		nodeNum++;
-		this.id = nodeNum;
+		this.id = nodeNum.get() + 1;
+		nodeNum.set(id);
 		this.incomingEdges = new LinkedHashSet<GraphEdge>();
 		this.outgoingEdges = new LinkedHashSet<GraphEdge>();
 	}
@@ -29,6 +34,6 @@ public class GraphNode {
 	}
 	
 	public static void resetNodeNum() {
-		nodeNum = 0;
+		nodeNum.set(0);
 	}
 }
@@ -75,6 +75,10 @@ public class MethodCallAnalyzer {
 		this.maximumCallGraphAnalysisDepth = store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
 	}
 
+	/*
+	 * The results cached in CompilationUnitCache are kept per thread, so that the PDGs of different methods can be constructed concurrently.
+	 * The tables of LibraryClassStorage are shared by all threads, and thus the library methods are analyzed while holding its monitor.
+	 */
 	public void processArgumentsOfInternalMethodInvocation(ClassObject classObject, AbstractMethodDeclaration methodObject,
 			List<Expression> arguments, IMethodBinding invokedMethodBinding, AbstractVariable variable) {
 		if(methodObject != null) {
@@ -173,7 +177,7 @@ public class MethodCallAnalyzer {
 					}
 					if(argumentDeclaration != null) {
 						MethodDeclaration methodDeclaration = methodObject.getMethodDeclaration();
-						String methodBindingKey = methodDeclaration.resolveBinding().getKey();
+						String methodBindingKey = methodObject.getMethodBindingKey();
 						if(cache.containsMethodArgument(methodBindingKey, argumentPosition)) {
 							for(AbstractVariable usedField : cache.getUsedFieldsForMethodArgument(methodBindingKey, argumentPosition)) {
 								PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
@@ -229,42 +233,10 @@ public class MethodCallAnalyzer {
 		}
 		else {
 			LibraryClassStorage instance = LibraryClassStorage.getInstance();
-			if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-				handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), variable, instance);
-				int argumentPosition = 0;
-				for(Expression argument : arguments) {
-					if(argument instanceof SimpleName) {
-						SimpleName argumentName = (SimpleName)argument;
-						VariableDeclaration argumentDeclaration = null;
-						for(VariableDeclarationObject variableDeclarationObject : variableDeclarationsInMethod) {
-							VariableDeclaration variableDeclaration = variableDeclarationObject.getVariableDeclaration();
-							if(variableDeclaration.resolveBinding().isEqualTo(argumentName.resolveBinding())) {
-								argumentDeclaration = variableDeclaration;
-								break;
-							}
-						}
-						if(argumentDeclaration != null) {
-							if(instance.containsMethodArgument(invokedMethodBinding.getKey(), argumentPosition)) {
-								for(AbstractVariable usedField : instance.getUsedFieldsForMethodArgument(invokedMethodBinding.getKey(), argumentPosition)) {
-									PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
-									AbstractVariable composedVariable = composeVariable(argumentVariable, usedField);
-									usedVariables.add(composedVariable);
-								}
-								for(AbstractVariable definedField : instance.getDefinedFieldsForMethodArgument(invokedMethodBinding.getKey(), argumentPosition)) {
-									PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
-									AbstractVariable composedVariable = composeVariable(argumentVariable, definedField);
-									definedVariables.add(composedVariable);
-								}
-							}
-						}
-					}
-					argumentPosition++;
-				}
-			}
-			else {
-				MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
-				if(invokedMethodDeclaration != null) {
-					processExternalMethodInvocation(invokedMethodDeclaration, variable, new LinkedHashSet<String>(), 0);
+			synchronized(instance) {
+				String invokedMethodBindingKey = invokedMethodBinding.getKey();
+				if(instance.isAnalyzed(invokedMethodBindingKey)) {
+					handleAlreadyAnalyzedMethod(invokedMethodBindingKey, variable, instance);
 					int argumentPosition = 0;
 					for(Expression argument : arguments) {
 						if(argument instanceof SimpleName) {
@@ -278,42 +250,77 @@ public class MethodCallAnalyzer {
 								}
 							}
 							if(argumentDeclaration != null) {
-								//analyze only if the argument does not correspond to a varargs parameter
-								if(argumentPosition < invokedMethodDeclaration.parameters().size()) {
-									VariableDeclaration parameterDeclaration = (SingleVariableDeclaration)invokedMethodDeclaration.parameters().get(argumentPosition);
-									PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
-									processArgumentOfExternalMethodInvocation(invokedMethodDeclaration, argumentVariable, argumentPosition, parameterDeclaration, new LinkedHashSet<String>(), 0);
-									//save in cache
-									int usedFieldCount = 0;
-									for(AbstractVariable usedVariable : usedVariables) {
-										if(usedVariable instanceof CompositeVariable) {
-											CompositeVariable composite = (CompositeVariable)usedVariable;
-											if(composite.getInitialVariable().equals(argumentVariable)) {
-												instance.addUsedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
-												usedFieldCount++;
-											}
-										}
+								if(instance.containsMethodArgument(invokedMethodBindingKey, argumentPosition)) {
+									for(AbstractVariable usedField : instance.getUsedFieldsForMethodArgument(invokedMethodBindingKey, argumentPosition)) {
+										PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
+										AbstractVariable composedVariable = composeVariable(argumentVariable, usedField);
+										usedVariables.add(composedVariable);
 									}
-									if(usedFieldCount == 0) {
-										instance.setEmptyUsedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
+									for(AbstractVariable definedField : instance.getDefinedFieldsForMethodArgument(invokedMethodBindingKey, argumentPosition)) {
+										PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
+										AbstractVariable composedVariable = composeVariable(argumentVariable, definedField);
+										definedVariables.add(composedVariable);
 									}
-									int definedFieldCount = 0;
-									for(AbstractVariable definedVariable : definedVariables) {
-										if(definedVariable instanceof CompositeVariable) {
-											CompositeVariable composite = (CompositeVariable)definedVariable;
-											if(composite.getInitialVariable().equals(argumentVariable)) {
-												instance.addDefinedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
-												definedFieldCount++;
+								}
+							}
+						}
+						argumentPosition++;
+					}
+				}
+				else {
+					MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
+					if(invokedMethodDeclaration != null) {
+						processExternalMethodInvocation(invokedMethodDeclaration, variable, new LinkedHashSet<String>(), 0);
+						int argumentPosition = 0;
+						for(Expression argument : arguments) {
+							if(argument instanceof SimpleName) {
+								SimpleName argumentName = (SimpleName)argument;
+								VariableDeclaration argumentDeclaration = null;
+								for(VariableDeclarationObject variableDeclarationObject : variableDeclarationsInMethod) {
+									VariableDeclaration variableDeclaration = variableDeclarationObject.getVariableDeclaration();
+									if(variableDeclaration.resolveBinding().isEqualTo(argumentName.resolveBinding())) {
+										argumentDeclaration = variableDeclaration;
+										break;
+									}
+								}
+								if(argumentDeclaration != null) {
+									//analyze only if the argument does not correspond to a varargs parameter
+									if(argumentPosition < invokedMethodDeclaration.parameters().size()) {
+										VariableDeclaration parameterDeclaration = (SingleVariableDeclaration)invokedMethodDeclaration.parameters().get(argumentPosition);
+										PlainVariable argumentVariable = new PlainVariable(argumentDeclaration);
+										processArgumentOfExternalMethodInvocation(invokedMethodDeclaration, argumentVariable, argumentPosition, parameterDeclaration, new LinkedHashSet<String>(), 0);
+										//save in cache
+										int usedFieldCount = 0;
+										for(AbstractVariable usedVariable : usedVariables) {
+											if(usedVariable instanceof CompositeVariable) {
+												CompositeVariable composite = (CompositeVariable)usedVariable;
+												if(composite.getInitialVariable().equals(argumentVariable)) {
+													instance.addUsedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
+													usedFieldCount++;
+												}
 											}
 										}
-									}
-									if(definedFieldCount == 0) {
-										instance.setEmptyDefinedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
+										if(usedFieldCount == 0) {
+											instance.setEmptyUsedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
+										}
+										int definedFieldCount = 0;
+										for(AbstractVariable definedVariable : definedVariables) {
+											if(definedVariable instanceof CompositeVariable) {
+												CompositeVariable composite = (CompositeVariable)definedVariable;
+												if(composite.getInitialVariable().equals(argumentVariable)) {
+													instance.addDefinedFieldForMethodArgument(composite.getRightPart(), invokedMethodDeclaration, argumentPosition);
+													definedFieldCount++;
+												}
+											}
+										}
+										if(definedFieldCount == 0) {
+											instance.setEmptyDefinedFieldsForMethodArgument(invokedMethodDeclaration, argumentPosition);
+										}
 									}
 								}
 							}
+							argumentPosition++;
 						}
-						argumentPosition++;
 					}
 				}
 			}
@@ -380,14 +387,16 @@ public class MethodCallAnalyzer {
 						}
 						else {
 							LibraryClassStorage instance = LibraryClassStorage.getInstance();
-							IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
-							if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-								handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), field, instance);
-							}
-							else {
-								MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
-								if(invokedMethodDeclaration != null)
-									processExternalMethodInvocation(invokedMethodDeclaration, field, new LinkedHashSet<String>(), 0);
+							synchronized(instance) {
+								IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
+								if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
+									handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), field, instance);
+								}
+								else {
+									MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
+									if(invokedMethodDeclaration != null)
+										processExternalMethodInvocation(invokedMethodDeclaration, field, new LinkedHashSet<String>(), 0);
+								}
 							}
 						}
 					}
@@ -602,14 +611,16 @@ public class MethodCallAnalyzer {
 						}
 						else {
 							LibraryClassStorage instance = LibraryClassStorage.getInstance();
-							IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
-							if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-								handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), field, instance);
-							}
-							else {
-								MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
-								if(invokedMethodDeclaration != null)
-									processExternalMethodInvocation(invokedMethodDeclaration, field, new LinkedHashSet<String>(), 0);
+							synchronized(instance) {
+								IMethodBinding invokedMethodBinding = methodInvocation2.resolveMethodBinding();
+								if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
+									handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), field, instance);
+								}
+								else {
+									MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
+									if(invokedMethodDeclaration != null)
+										processExternalMethodInvocation(invokedMethodDeclaration, field, new LinkedHashSet<String>(), 0);
+								}
 							}
 						}
 					}
@@ -676,14 +687,16 @@ public class MethodCallAnalyzer {
 				}
 				else {
 					LibraryClassStorage instance = LibraryClassStorage.getInstance();
-					IMethodBinding invokedMethodBinding = staticMethodInvocation.resolveMethodBinding();
-					if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
-						handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), null, instance);
-					}
-					else {
-						MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
-						if(invokedMethodDeclaration != null)
-							processExternalMethodInvocation(invokedMethodDeclaration, null, new LinkedHashSet<String>(), 0);
+					synchronized(instance) {
+						IMethodBinding invokedMethodBinding = staticMethodInvocation.resolveMethodBinding();
+						if(instance.isAnalyzed(invokedMethodBinding.getKey())) {
+							handleAlreadyAnalyzedMethod(invokedMethodBinding.getKey(), null, instance);
+						}
+						else {
+							MethodDeclaration invokedMethodDeclaration = getInvokedMethodDeclaration(invokedMethodBinding);
+							if(invokedMethodDeclaration != null)
+								processExternalMethodInvocation(invokedMethodDeclaration, null, new LinkedHashSet<String>(), 0);
+						}
 					}
 				}
 			}
@@ -917,30 +930,30 @@ public class MethodCallAnalyzer {
 
 	private void handleAlreadyAnalyzedMethod(String methodBindingKey, AbstractVariable variableDeclaration, LibraryClassStorage indexer) {
 		LinkedHashSet<PlainVariable> recursivelyDefinedFields = 
-			indexer.getRecursivelyDefinedFields(methodBindingKey, new LinkedHashSet<String>());
+			indexer.getRecursivelyDefinedFields(methodBindingKey);
 		for(PlainVariable originalField : recursivelyDefinedFields) {
 			AbstractVariable field = composeVariable(variableDeclaration, originalField);
 			definedVariables.add(field);
 		}
 		LinkedHashSet<PlainVariable> recursivelyUsedFields = 
-			indexer.getRecursivelyUsedFields(methodBindingKey, new LinkedHashSet<String>());
+			indexer.getRecursivelyUsedFields(methodBindingKey);
 		for(PlainVariable originalField : recursivelyUsedFields) {
 			AbstractVariable field = composeVariable(variableDeclaration, originalField);
 			usedVariables.add(field);
 		}
-		Map<String, Set<PlainVariable>> invocationReferenceMap = indexer.getRecursivelyInvocationReferences(methodBindingKey, new LinkedHashSet<String>());
+		Map<String, Set<PlainVariable>> invocationReferenceMap = indexer.getRecursivelyInvocationReferences(methodBindingKey);
 		for(String invokedMethodBindingKey : invocationReferenceMap.keySet()) {
 			Set<PlainVariable> invocationReferences = invocationReferenceMap.get(invokedMethodBindingKey);
 			if(invocationReferences != null) {
 				for(PlainVariable invocationReference : invocationReferences) {
 					LinkedHashSet<AbstractVariable> definedFieldsThroughReference = 
-							indexer.getRecursivelyDefinedFieldsThroughReference(invokedMethodBindingKey, invocationReference, new LinkedHashSet<String>());
+							indexer.getRecursivelyDefinedFieldsThroughReference(invokedMethodBindingKey, invocationReference);
 					for(AbstractVariable definedField : definedFieldsThroughReference) {
 						AbstractVariable field = composeVariable(variableDeclaration, definedField);
 						definedVariables.add(field);
 					}
 					LinkedHashSet<AbstractVariable> usedFieldsThroughReference = 
-							indexer.getRecursivelyUsedFieldsThroughReference(invokedMethodBindingKey, invocationReference, new LinkedHashSet<String>());
+							indexer.getRecursivelyUsedFieldsThroughReference(invokedMethodBindingKey, invocationReference);
 					for(AbstractVariable usedField : usedFieldsThroughReference) {
 						AbstractVariable field = composeVariable(variableDeclaration, usedField);
 						usedVariables.add(field);
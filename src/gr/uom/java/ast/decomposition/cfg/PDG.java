@@ -34,9 +34,11 @@ public class PDG extends Graph {
 	private Map<CFGBranchNode, Set<CFGNode>> nestingMap;
 	private Set<VariableDeclarationObject> variableDeclarationsInMethod;
 	private Set<FieldObject> fieldsAccessedInMethod;
-	private Map<PDGNode, Set<BasicBlock>> dominatedBlockMap;
+	private PDGDataDependenceBuilder dataDependenceBuilder;
 	private IFile iFile;
 	private IProgressMonitor monitor;
+	private DenseGraph denseGraph;
+	private PDGRegionCache regionCache;
 	
 	public PDG(CFG cfg, IFile iFile, Set<FieldObject> accessedFields, IProgressMonitor monitor) {
 		this.cfg = cfg;
@@ -74,7 +76,6 @@ public class PDG extends Graph {
 				performAliasAnalysis();
 			createDataDependencies();
 		}
-		this.dominatedBlockMap = new LinkedHashMap<PDGNode, Set<BasicBlock>>();
 		GraphNode.resetNodeNum();
 		handleSwitchCaseNodes();
 		handleJumpNodes();
@@ -87,6 +88,20 @@ public class PDG extends Graph {
 		return entryNode;
 	}
 
+	//the dense representation is built on first use, after the construction of the PDG has been completed
+	public synchronized DenseGraph getDenseGraph() {
+		if(denseGraph == null)
+			denseGraph = new DenseGraph(this);
+		return denseGraph;
+	}
+
+	//the regions are shared by all the slices of the method, and are computed on first use
+	public synchronized PDGRegionCache getRegionCache() {
+		if(regionCache == null)
+			regionCache = new PDGRegionCache(this);
+		return regionCache;
+	}
+
 	public AbstractMethodDeclaration getMethod() {
 		return cfg.getMethod();
 	}
@@ -591,11 +606,13 @@ public class PDG extends Graph {
 		PDGNode firstPDGNode = (PDGNode)nodes.toArray()[0];
 		ReachingAliasSet reachingAliasSet = new ReachingAliasSet();
 		firstPDGNode.updateReachingAliasSet(reachingAliasSet);
-		aliasSearch(firstPDGNode, new LinkedHashSet<PDGNode>(), false, reachingAliasSet);
+		aliasSearch(firstPDGNode, reachingAliasSet);
 	}
 
 	private void createDataDependencies() {
 		PDGNode firstPDGNode = (PDGNode)nodes.toArray()[0];
+		//the builder is created after the alias analysis, which may add defined and used variables to the nodes
+		dataDependenceBuilder = new PDGDataDependenceBuilder(nodes, edges);
 		createDataDependenciesFromEntryNode(firstPDGNode);
 		for(GraphNode node : nodes) {
 			PDGNode pdgNode = (PDGNode)node;
@@ -603,13 +620,14 @@ public class PDG extends Graph {
 			    // Essentially, this method does a forward search from the definition of each
 			    // variable to each of the places where it's used, and adds a dependence from each
 			    // def to each use.
-				dataDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
-				outputDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
+				dataDependenceBuilder.dataDependenceSearch(pdgNode, variableInstruction, pdgNode);
+				dataDependenceBuilder.outputDependenceSearch(pdgNode, variableInstruction, pdgNode);
 			}
 			for(AbstractVariable variableInstruction : pdgNode.usedVariables) {
-				antiDependenceSearch(pdgNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
+				dataDependenceBuilder.antiDependenceSearch(pdgNode, variableInstruction, pdgNode);
 			}
 		}
+		dataDependenceBuilder = null;
 	}
 
 	// Kind of a misnomer: because this kicks off {@link dataDependenceSearch}, it
@@ -622,7 +640,10 @@ public class PDG extends Graph {
 				edges.add(dataDependence);
 			}
 			if(!pdgNode.definesLocalVariable(variableInstruction)) {
-				dataDependenceSearch(entryNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
+				if(dataDependenceBuilder != null)
+					dataDependenceBuilder.dataDependenceSearch(entryNode, variableInstruction, pdgNode);
+				else
+					dataDependenceSearch(entryNode, variableInstruction, pdgNode, new LinkedHashSet<PDGNode>(), null);
 			}
 			else if(entryNode.declaresLocalVariable(variableInstruction)) {
 				//create def-order data dependence edge
@@ -632,31 +653,52 @@ public class PDG extends Graph {
 		}
 	}
 
-	private void aliasSearch(PDGNode currentNode, Set<PDGNode> visitedNodes, boolean visitedFromLoopbackFlow, ReachingAliasSet reachingAliasSet) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			if(!visitedFromLoopbackFlow || (visitedFromLoopbackFlow && flow.isFalseControlFlow())) {
+	/*
+	 * Propagates the reaching alias sets along the control flow, in depth-first order, using an explicit stack
+	 * instead of recursion, so that long methods do not exhaust the call stack. Every node is expanded once,
+	 * with the alias set reaching it through the first visited path, while the alias sets reaching a node
+	 * through all the traversed flows are applied to its defined and used variables.
+	 * applyReachingAliasSet only reads the alias set, so a copy is created only for the nodes to be expanded.
+	 */
+	private void aliasSearch(PDGNode firstNode, ReachingAliasSet reachingAliasSet) {
+		Set<PDGNode> visitedNodes = new LinkedHashSet<PDGNode>();
+		Stack<AliasSearchState> stack = new Stack<AliasSearchState>();
+		visitedNodes.add(firstNode);
+		stack.push(new AliasSearchState(firstNode, false, reachingAliasSet));
+		while(!stack.isEmpty()) {
+			AliasSearchState state = stack.peek();
+			if(!state.outgoingFlows.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			Flow flow = (Flow)state.outgoingFlows.next();
+			if(!state.visitedFromLoopbackFlow || flow.isFalseControlFlow()) {
 				CFGNode srcCFGNode = (CFGNode)flow.src;
 				CFGNode dstCFGNode = (CFGNode)flow.dst;
 				PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-				ReachingAliasSet reachingAliasSetCopy = reachingAliasSet.copy();
-				dstPDGNode.applyReachingAliasSet(reachingAliasSetCopy);
-				dstPDGNode.updateReachingAliasSet(reachingAliasSetCopy);
-				if(!(srcCFGNode instanceof CFGBranchDoLoopNode && flow.isTrueControlFlow())) {
-					if(flow.isLoopbackFlow())
-						aliasSearch(dstPDGNode, visitedNodes, true, reachingAliasSetCopy);
-					else
-						aliasSearch(dstPDGNode, visitedNodes, false, reachingAliasSetCopy);
+				dstPDGNode.applyReachingAliasSet(state.reachingAliasSet);
+				if(!(srcCFGNode instanceof CFGBranchDoLoopNode && flow.isTrueControlFlow()) && !visitedNodes.contains(dstPDGNode)) {
+					visitedNodes.add(dstPDGNode);
+					ReachingAliasSet reachingAliasSetCopy = state.reachingAliasSet.copy();
+					dstPDGNode.updateReachingAliasSet(reachingAliasSetCopy);
+					stack.push(new AliasSearchState(dstPDGNode, flow.isLoopbackFlow(), reachingAliasSetCopy));
 				}
 			}
 		}
 	}
 
+	private static class AliasSearchState {
+		private boolean visitedFromLoopbackFlow;
+		private ReachingAliasSet reachingAliasSet;
+		private Iterator<GraphEdge> outgoingFlows;
+
+		public AliasSearchState(PDGNode node, boolean visitedFromLoopbackFlow, ReachingAliasSet reachingAliasSet) {
+			this.visitedFromLoopbackFlow = visitedFromLoopbackFlow;
+			this.reachingAliasSet = reachingAliasSet;
+			this.outgoingFlows = node.getCFGNode().outgoingEdges.iterator();
+		}
+	}
+
 	private void dataDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
 			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
 		if(visitedNodes.contains(currentNode))
@@ -690,135 +732,20 @@ public class PDG extends Graph {
 		}
 	}
 
-	private void antiDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.definesLocalVariable(variableInstruction)) {
-				PDGAntiDependence antiDependence = new PDGAntiDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(antiDependence);
-			}
-			else
-				antiDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
-		}
-	}
-
-	private void outputDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction,
-			PDGNode currentNode, Set<PDGNode> visitedNodes, CFGBranchNode loop) {
-		if(visitedNodes.contains(currentNode))
-			return;
-		else
-			visitedNodes.add(currentNode);
-		CFGNode currentCFGNode = currentNode.getCFGNode();
-		for(GraphEdge edge : currentCFGNode.outgoingEdges) {
-			Flow flow = (Flow)edge;
-			CFGNode srcCFGNode = (CFGNode)flow.src;
-			CFGNode dstCFGNode = (CFGNode)flow.dst;
-			if(flow.isLoopbackFlow()) {
-				if(dstCFGNode instanceof CFGBranchLoopNode)
-					loop = (CFGBranchLoopNode)dstCFGNode;
-				if(srcCFGNode instanceof CFGBranchDoLoopNode)
-					loop = (CFGBranchDoLoopNode)srcCFGNode;
-			}
-			PDGNode dstPDGNode = dstCFGNode.getPDGNode();
-			if(dstPDGNode.definesLocalVariable(variableInstruction)) {
-				PDGOutputDependence outputDependence = new PDGOutputDependence(initialNode, dstPDGNode, variableInstruction, loop);
-				edges.add(outputDependence);
-			}
-			else
-				outputDependenceSearch(initialNode, variableInstruction, dstPDGNode, visitedNodes, loop);
-		}
-	}
-
 	public List<BasicBlock> getBasicBlocks() {
 		return cfg.getBasicBlocks();
 	}
 
-	private Set<BasicBlock> forwardReachableBlocks(BasicBlock basicBlock) {
-		return cfg.getBasicBlockCFG().forwardReachableBlocks(basicBlock);
-	}
-
-	//returns the node (branch or method entry) that directly dominates the leader of the block
-	private PDGNode directlyDominates(BasicBlock block) {
-		CFGNode leaderCFGNode = block.getLeader();
-		PDGNode leaderPDGNode = leaderCFGNode.getPDGNode();
-		for(GraphEdge edge : leaderPDGNode.incomingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(dependence instanceof PDGControlDependence) {
-				PDGNode srcNode = (PDGNode)dependence.src;
-				return srcNode;
-			}
-		}
-		return null;
-	}
-
-	private Set<BasicBlock> dominatedBlocks(BasicBlock block) {
-		PDGNode pdgNode = directlyDominates(block);
-		if(dominatedBlockMap.containsKey(pdgNode)) {
-			return dominatedBlockMap.get(pdgNode);
-		}
-		else {
-			Set<BasicBlock> dominatedBlocks = dominatedBlocks(pdgNode);
-			dominatedBlockMap.put(pdgNode, dominatedBlocks);
-			return dominatedBlocks;
-		}
-	}
-	
-	private Set<BasicBlock> dominatedBlocks(PDGNode branchNode) {
-		Set<BasicBlock> dominatedBlocks = new LinkedHashSet<BasicBlock>();
-		for(GraphEdge edge : branchNode.outgoingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(dependence instanceof PDGControlDependence) {
-				PDGNode dstNode = (PDGNode)dependence.dst;
-				BasicBlock dstBlock = dstNode.getBasicBlock();
-				dominatedBlocks.add(dstBlock);
-				PDGNode dstBlockLastNode = dstBlock.getLastNode().getPDGNode();
-				if(dstBlockLastNode instanceof PDGControlPredicateNode && !dstBlockLastNode.equals(branchNode))
-					dominatedBlocks.addAll(dominatedBlocks(dstBlockLastNode));
-			}
-		}
-		return dominatedBlocks;
+	public BasicBlockCFG getBasicBlockCFG() {
+		return cfg.getBasicBlockCFG();
 	}
 
 	public Set<BasicBlock> boundaryBlocks(PDGNode node) {
-		Set<BasicBlock> boundaryBlocks = new LinkedHashSet<BasicBlock>();
-		BasicBlock srcBlock = node.getBasicBlock();
-		for(BasicBlock block : getBasicBlocks()) {
-			Set<BasicBlock> forwardReachableBlocks = forwardReachableBlocks(block);
-			Set<BasicBlock> dominatedBlocks = dominatedBlocks(block);
-			Set<BasicBlock> intersection = new LinkedHashSet<BasicBlock>();
-			intersection.addAll(forwardReachableBlocks);
-			intersection.retainAll(dominatedBlocks);
-			if(intersection.contains(srcBlock))
-				boundaryBlocks.add(block);
-		}
-		return boundaryBlocks;
+		return getRegionCache().getBoundaryBlocks(node);
 	}
 
 	public Set<PDGNode> blockBasedRegion(BasicBlock block) {
-		Set<PDGNode> regionNodes = new LinkedHashSet<PDGNode>();
-		Set<BasicBlock> reachableBlocks = forwardReachableBlocks(block);
-		for(BasicBlock reachableBlock : reachableBlocks) {
-			List<CFGNode> blockNodes = reachableBlock.getAllNodesIncludingTry();
-			for(CFGNode cfgNode : blockNodes) {
-				regionNodes.add(cfgNode.getPDGNode());
-			}
-		}
-		return regionNodes;
+		return new LinkedHashSet<PDGNode>(getRegionCache().getRegionNodes(block));
 	}
 
 	public Set<AbstractVariable> getReturnedVariables() {
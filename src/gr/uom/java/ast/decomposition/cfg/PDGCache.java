@@ -0,0 +1,125 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import gr.uom.java.ast.AbstractMethodDeclaration;
+import gr.uom.java.ast.ClassDeclarationObject;
+import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
+import gr.uom.java.jdeodorant.refactoring.Activator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+/*
+ * Caches the PDGs of the analyzed methods, so that re-opening a view or re-slicing a method reuses the graphs
+ * constructed in a previous run. The entries are keyed by the method binding key, and an entry is reused only if
+ * the fingerprint of the method source and of the call graph analysis preferences is unchanged, and the method is
+ * still represented by the same AbstractMethodDeclaration in the SystemObject.
+ * Since a PDG summarizes the fields accessed by the methods it invokes, which may belong to other compilation units,
+ * all the entries are invalidated when a compilation unit is changed, added or removed.
+ */
+public class PDGCache {
+
+	private static PDGCache instance;
+	//the map is kept in access order, so that the eldest entry is the least recently used one
+	private LinkedHashMap<String, PDGCacheEntry> pdgMap;
+	private int cacheHits;
+	private int cacheMisses;
+
+	private PDGCache() {
+		this.pdgMap = new LinkedHashMap<String, PDGCacheEntry>(16, 0.75f, true);
+	}
+
+	public static synchronized PDGCache getInstance() {
+		if(instance == null) {
+			instance = new PDGCache();
+		}
+		return instance;
+	}
+
+	public PDG getPDG(AbstractMethodDeclaration methodObject, ClassDeclarationObject classObject, IProgressMonitor monitor) {
+		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+		int maximumCacheSize = store.getInt(PreferenceConstants.P_PDG_CACHE_SIZE);
+		String methodBindingKey = maximumCacheSize > 0 ? methodObject.getMethodBindingKey() : null;
+		String fingerprint = methodBindingKey != null ? getFingerprint(methodObject, classObject.getITypeRoot(), store) : null;
+		if(fingerprint != null) {
+			synchronized(this) {
+				PDGCacheEntry entry = pdgMap.get(methodBindingKey);
+				if(entry != null && entry.isValidFor(methodObject, fingerprint)) {
+					cacheHits++;
+					return entry.getPDG();
+				}
+				cacheMisses++;
+			}
+		}
+		CFG cfg = new CFG(methodObject);
+		PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), monitor);
+		if(fingerprint != null) {
+			synchronized(this) {
+				pdgMap.put(methodBindingKey, new PDGCacheEntry(methodObject, fingerprint, pdg));
+				Iterator<String> iterator = pdgMap.keySet().iterator();
+				while(pdgMap.size() > maximumCacheSize && iterator.hasNext()) {
+					iterator.next();
+					iterator.remove();
+				}
+			}
+		}
+		return pdg;
+	}
+
+	//returns null if the source of the method cannot be retrieved, in which case the PDG is not cached
+	private String getFingerprint(AbstractMethodDeclaration methodObject, ITypeRoot typeRoot, IPreferenceStore store) {
+		try {
+			MethodDeclaration methodDeclaration = methodObject.getMethodDeclaration();
+			String source = typeRoot.getSource();
+			if(methodDeclaration == null || source == null)
+				return null;
+			int startPosition = methodDeclaration.getStartPosition();
+			int endPosition = startPosition + methodDeclaration.getLength();
+			if(startPosition < 0 || endPosition > source.length())
+				return null;
+			String methodSource = source.substring(startPosition, endPosition);
+			return methodSource.length() + ":" + methodSource.hashCode() + ":" +
+					store.getBoolean(PreferenceConstants.P_ENABLE_ALIAS_ANALYSIS) + ":" +
+					store.getInt(PreferenceConstants.P_MAXIMUM_CALL_GRAPH_ANALYSIS_DEPTH);
+		} catch (JavaModelException e) {
+			return null;
+		}
+	}
+
+	public synchronized void clear() {
+		pdgMap.clear();
+	}
+
+	public synchronized int getCacheHits() {
+		return cacheHits;
+	}
+
+	public synchronized int getCacheMisses() {
+		return cacheMisses;
+	}
+
+	private static class PDGCacheEntry {
+		private AbstractMethodDeclaration methodObject;
+		private String fingerprint;
+		private PDG pdg;
+
+		public PDGCacheEntry(AbstractMethodDeclaration methodObject, String fingerprint, PDG pdg) {
+			this.methodObject = methodObject;
+			this.fingerprint = fingerprint;
+			this.pdg = pdg;
+		}
+
+		public boolean isValidFor(AbstractMethodDeclaration methodObject, String fingerprint) {
+			return this.methodObject == methodObject && this.fingerprint.equals(fingerprint);
+		}
+
+		public PDG getPDG() {
+			return pdg;
+		}
+	}
+}
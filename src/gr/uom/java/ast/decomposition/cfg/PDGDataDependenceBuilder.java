@@ -0,0 +1,262 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Creates the data, anti and output dependences of a PDG by performing the same forward searches over the control flow
+ * as the original recursive searches of the PDG, over dense node and variable indices instead of sets of PDG nodes.
+ * Two backward bitvector analyses are computed once per method: the live uses (the variables having a use that can be
+ * reached from the exit of a node without passing through a definition) and the reachable definitions (the variables
+ * having a definition that can be reached from the exit of a node). A search does not enter a node from which
+ * it cannot create any further dependence, and is not started at all if the variable is not live after the initial node.
+ * The loop of a loop-carried dependence depends on the path through which a search first reaches a node,
+ * so the searches visit the nodes in exactly the same order as the recursive searches.
+ */
+public class PDGDataDependenceBuilder {
+	private Set<GraphEdge> edges;
+	private List<PDGNode> pdgNodes;
+	private Map<PDGNode, Integer> nodeIndexMap;
+	private Map<AbstractVariable, Integer> variableIndexMap;
+	//successors of each node, in the order of the outgoing flows of its CFG node
+	private int[][] successors;
+	//the loop that becomes the current loop by following each outgoing flow, or null if the current loop does not change
+	private CFGBranchNode[][] successorLoops;
+	private long[][] definedVariables;
+	private long[][] usedVariables;
+	private long[][] liveUses;
+	private long[][] reachableDefinitions;
+	private int[] visitedMarks;
+	private int searchMark;
+	private int[] stackNodes;
+	private int[] stackPositions;
+	private CFGBranchNode[] stackLoops;
+
+	public PDGDataDependenceBuilder(Set<GraphNode> nodes, Set<GraphEdge> edges) {
+		this.edges = edges;
+		this.pdgNodes = new ArrayList<PDGNode>();
+		this.nodeIndexMap = new LinkedHashMap<PDGNode, Integer>();
+		this.variableIndexMap = new LinkedHashMap<AbstractVariable, Integer>();
+		for(GraphNode node : nodes) {
+			addNode((PDGNode)node);
+		}
+		List<int[]> successorList = new ArrayList<int[]>();
+		List<CFGBranchNode[]> successorLoopList = new ArrayList<CFGBranchNode[]>();
+		//the list of nodes may grow while the successors are indexed
+		for(int i=0; i<pdgNodes.size(); i++) {
+			CFGNode cfgNode = pdgNodes.get(i).getCFGNode();
+			int[] nodeSuccessors = new int[cfgNode.outgoingEdges.size()];
+			CFGBranchNode[] nodeSuccessorLoops = new CFGBranchNode[nodeSuccessors.length];
+			int position = 0;
+			for(GraphEdge edge : cfgNode.outgoingEdges) {
+				Flow flow = (Flow)edge;
+				CFGNode srcCFGNode = (CFGNode)flow.src;
+				CFGNode dstCFGNode = (CFGNode)flow.dst;
+				if(flow.isLoopbackFlow()) {
+					if(dstCFGNode instanceof CFGBranchLoopNode)
+						nodeSuccessorLoops[position] = (CFGBranchLoopNode)dstCFGNode;
+					if(srcCFGNode instanceof CFGBranchDoLoopNode)
+						nodeSuccessorLoops[position] = (CFGBranchDoLoopNode)srcCFGNode;
+				}
+				nodeSuccessors[position] = addNode(dstCFGNode.getPDGNode());
+				position++;
+			}
+			successorList.add(nodeSuccessors);
+			successorLoopList.add(nodeSuccessorLoops);
+		}
+		int numberOfNodes = pdgNodes.size();
+		this.successors = successorList.toArray(new int[numberOfNodes][]);
+		this.successorLoops = successorLoopList.toArray(new CFGBranchNode[numberOfNodes][]);
+		int numberOfWords = (variableIndexMap.size() + 63) >>> 6;
+		this.definedVariables = new long[numberOfNodes][numberOfWords];
+		this.usedVariables = new long[numberOfNodes][numberOfWords];
+		for(int i=0; i<numberOfNodes; i++) {
+			PDGNode pdgNode = pdgNodes.get(i);
+			for(AbstractVariable variable : pdgNode.definedVariables) {
+				int variableIndex = variableIndexMap.get(variable);
+				definedVariables[i][variableIndex >>> 6] |= 1L << variableIndex;
+			}
+			for(AbstractVariable variable : pdgNode.usedVariables) {
+				int variableIndex = variableIndexMap.get(variable);
+				usedVariables[i][variableIndex >>> 6] |= 1L << variableIndex;
+			}
+		}
+		computeLiveVariables(numberOfWords);
+		this.visitedMarks = new int[numberOfNodes];
+		this.stackNodes = new int[numberOfNodes];
+		this.stackPositions = new int[numberOfNodes];
+		this.stackLoops = new CFGBranchNode[numberOfNodes];
+	}
+
+	private int addNode(PDGNode pdgNode) {
+		Integer index = nodeIndexMap.get(pdgNode);
+		if(index == null) {
+			index = pdgNodes.size();
+			pdgNodes.add(pdgNode);
+			nodeIndexMap.put(pdgNode, index);
+			for(AbstractVariable variable : pdgNode.definedVariables) {
+				addVariable(variable);
+			}
+			for(AbstractVariable variable : pdgNode.usedVariables) {
+				addVariable(variable);
+			}
+		}
+		return index;
+	}
+
+	private void addVariable(AbstractVariable variable) {
+		if(!variableIndexMap.containsKey(variable))
+			variableIndexMap.put(variable, variableIndexMap.size());
+	}
+
+	/*
+	 * liveUses(n) = U [used(s) | (liveUses(s) & ~defined(s))] over the successors s of n
+	 * reachableDefinitions(n) = U [defined(s) | reachableDefinitions(s)] over the successors s of n
+	 */
+	private void computeLiveVariables(int numberOfWords) {
+		int numberOfNodes = pdgNodes.size();
+		this.liveUses = new long[numberOfNodes][numberOfWords];
+		this.reachableDefinitions = new long[numberOfNodes][numberOfWords];
+		int[] numberOfPredecessors = new int[numberOfNodes];
+		for(int i=0; i<numberOfNodes; i++) {
+			for(int successor : successors[i]) {
+				numberOfPredecessors[successor]++;
+			}
+		}
+		int[][] predecessors = new int[numberOfNodes][];
+		for(int i=0; i<numberOfNodes; i++) {
+			predecessors[i] = new int[numberOfPredecessors[i]];
+			numberOfPredecessors[i] = 0;
+		}
+		for(int i=0; i<numberOfNodes; i++) {
+			for(int successor : successors[i]) {
+				predecessors[successor][numberOfPredecessors[successor]++] = i;
+			}
+		}
+		//the nodes are popped in reverse order, which is close to a reverse topological order for a backward analysis
+		int[] worklist = new int[numberOfNodes];
+		boolean[] inWorklist = new boolean[numberOfNodes];
+		int worklistSize = 0;
+		for(int i=0; i<numberOfNodes; i++) {
+			worklist[worklistSize++] = i;
+			inWorklist[i] = true;
+		}
+		while(worklistSize > 0) {
+			int node = worklist[--worklistSize];
+			inWorklist[node] = false;
+			long[] nodeLiveUses = liveUses[node];
+			long[] nodeReachableDefinitions = reachableDefinitions[node];
+			boolean changed = false;
+			for(int successor : successors[node]) {
+				long[] successorDefinedVariables = definedVariables[successor];
+				long[] successorUsedVariables = usedVariables[successor];
+				long[] successorLiveUses = liveUses[successor];
+				long[] successorReachableDefinitions = reachableDefinitions[successor];
+				for(int w=0; w<numberOfWords; w++) {
+					long newLiveUses = nodeLiveUses[w] | successorUsedVariables[w] | (successorLiveUses[w] & ~successorDefinedVariables[w]);
+					long newReachableDefinitions = nodeReachableDefinitions[w] | successorDefinedVariables[w] | successorReachableDefinitions[w];
+					if(newLiveUses != nodeLiveUses[w] || newReachableDefinitions != nodeReachableDefinitions[w]) {
+						nodeLiveUses[w] = newLiveUses;
+						nodeReachableDefinitions[w] = newReachableDefinitions;
+						changed = true;
+					}
+				}
+			}
+			if(changed) {
+				for(int predecessor : predecessors[node]) {
+					if(!inWorklist[predecessor]) {
+						worklist[worklistSize++] = predecessor;
+						inWorklist[predecessor] = true;
+					}
+				}
+			}
+		}
+	}
+
+	public void dataDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction, PDGNode currentNode) {
+		search(initialNode, variableInstruction, currentNode, PDGDependenceType.DATA);
+	}
+
+	public void antiDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction, PDGNode currentNode) {
+		search(initialNode, variableInstruction, currentNode, PDGDependenceType.ANTI);
+	}
+
+	public void outputDependenceSearch(PDGNode initialNode, AbstractVariable variableInstruction, PDGNode currentNode) {
+		search(initialNode, variableInstruction, currentNode, PDGDependenceType.OUTPUT);
+	}
+
+	private void search(PDGNode initialNode, AbstractVariable variableInstruction, PDGNode currentNode, PDGDependenceType type) {
+		Integer variableIndex = variableIndexMap.get(variableInstruction);
+		Integer startIndex = nodeIndexMap.get(currentNode);
+		//a variable that is not defined or used by any node cannot create dependences
+		if(variableIndex == null || startIndex == null)
+			return;
+		int word = variableIndex >>> 6;
+		long bit = 1L << variableIndex;
+		boolean createDefOrderDependences = type == PDGDependenceType.DATA && initialNode.declaresLocalVariable(variableInstruction);
+		if(!isRelevant(startIndex, word, bit, type, createDefOrderDependences))
+			return;
+		searchMark++;
+		visitedMarks[startIndex] = searchMark;
+		int top = 0;
+		stackNodes[top] = startIndex;
+		stackPositions[top] = 0;
+		stackLoops[top] = null;
+		while(top >= 0) {
+			int node = stackNodes[top];
+			int position = stackPositions[top];
+			if(position == successors[node].length) {
+				top--;
+				continue;
+			}
+			stackPositions[top] = position + 1;
+			if(successorLoops[node][position] != null)
+				stackLoops[top] = successorLoops[node][position];
+			CFGBranchNode loop = stackLoops[top];
+			int successor = successors[node][position];
+			PDGNode dstPDGNode = pdgNodes.get(successor);
+			boolean definesVariable = (definedVariables[successor][word] & bit) != 0;
+			if(type == PDGDependenceType.DATA) {
+				if((usedVariables[successor][word] & bit) != 0) {
+					PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, loop);
+					edges.add(dataDependence);
+				}
+				if(definesVariable && createDefOrderDependences && !initialNode.equals(dstPDGNode)) {
+					//create def-order data dependence edge
+					PDGDataDependence dataDependence = new PDGDataDependence(initialNode, dstPDGNode, variableInstruction, loop);
+					edges.add(dataDependence);
+				}
+			}
+			else if(definesVariable) {
+				if(type == PDGDependenceType.ANTI) {
+					PDGAntiDependence antiDependence = new PDGAntiDependence(initialNode, dstPDGNode, variableInstruction, loop);
+					edges.add(antiDependence);
+				}
+				else {
+					PDGOutputDependence outputDependence = new PDGOutputDependence(initialNode, dstPDGNode, variableInstruction, loop);
+					edges.add(outputDependence);
+				}
+			}
+			if(!definesVariable && visitedMarks[successor] != searchMark && isRelevant(successor, word, bit, type, createDefOrderDependences)) {
+				visitedMarks[successor] = searchMark;
+				top++;
+				stackNodes[top] = successor;
+				stackPositions[top] = 0;
+				stackLoops[top] = loop;
+			}
+		}
+	}
+
+	//returns true if a search entering the node can create further dependences
+	private boolean isRelevant(int node, int word, long bit, PDGDependenceType type, boolean createDefOrderDependences) {
+		if(type == PDGDependenceType.DATA) {
+			if((liveUses[node][word] & bit) != 0)
+				return true;
+			return createDefOrderDependences && (reachableDefinitions[node][word] & bit) != 0;
+		}
+		return (reachableDefinitions[node][word] & bit) != 0;
+	}
+}
@@ -4,6 +4,7 @@ import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -99,21 +100,23 @@ public class PDGObjectSliceUnion {
 		this.passedParameters = new LinkedHashSet<AbstractVariable>();
 		Set<PDGNode> nCD = new LinkedHashSet<PDGNode>();
 		Set<PDGNode> nDD = new LinkedHashSet<PDGNode>();
-		for(GraphEdge edge : pdg.edges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			PDGNode srcPDGNode = (PDGNode)dependence.src;
-			PDGNode dstPDGNode = (PDGNode)dependence.dst;
-			if(dependence instanceof PDGDataDependence) {
-				PDGDataDependence dataDependence = (PDGDataDependence)dependence;
-				if(remainingNodes.contains(srcPDGNode) && sliceNodes.contains(dstPDGNode))
+		DenseGraph denseGraph = pdg.getDenseGraph();
+		BitSet sliceNodeIds = denseGraph.toNodeIds(sliceNodes);
+		BitSet remainingNodeIds = denseGraph.toNodeIds(remainingNodes);
+		for(int edgeIndex=0; edgeIndex<denseGraph.getNumberOfEdges(); edgeIndex++) {
+			int src = denseGraph.getEdgeSource(edgeIndex);
+			int dst = denseGraph.getEdgeDestination(edgeIndex);
+			if(denseGraph.isDataDependence(edgeIndex)) {
+				PDGDataDependence dataDependence = (PDGDataDependence)denseGraph.getEdge(edgeIndex);
+				if(remainingNodeIds.get(src) && sliceNodeIds.get(dst))
 					passedParameters.add(dataDependence.getData());
-				if(sliceNodes.contains(srcPDGNode) && remainingNodes.contains(dstPDGNode) &&
+				if(sliceNodeIds.get(src) && remainingNodeIds.get(dst) &&
 						!dataDependence.getData().equals(objectReference) && !dataDependence.getData().isField())
-					nDD.add(srcPDGNode);
+					nDD.add((PDGNode)denseGraph.getNode(src));
 			}
-			else if(dependence instanceof PDGControlDependence) {
-				if(sliceNodes.contains(srcPDGNode) && remainingNodes.contains(dstPDGNode))
-					nCD.add(srcPDGNode);
+			else if(denseGraph.isControlDependence(edgeIndex)) {
+				if(sliceNodeIds.get(src) && remainingNodeIds.get(dst))
+					nCD.add((PDGNode)denseGraph.getNode(src));
 			}
 		}
 		Set<PDGNode> controlIndispensableNodes = new LinkedHashSet<PDGNode>();
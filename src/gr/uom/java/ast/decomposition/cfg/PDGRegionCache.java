@@ -0,0 +1,176 @@
+package gr.uom.java.ast.decomposition.cfg;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Caches the block-based regions of a constructed PDG, so that they are shared by all the slices of the method.
+ * The basic blocks are indexed by their position in the list of basic blocks of the CFG. The forward reachable
+ * and dominated blocks of each block are kept as BitSets over these indices, and the nodes and edges of each
+ * block-based region as BitSets over the indices of the DenseGraph of the PDG.
+ * The returned BitSets are shared and must not be modified by the callers.
+ * The forward reachable and dominated blocks are only memoized; they are not answered by interval labels
+ * (pre/post order numbers) over a dominator tree. The CFG contains loops, so forward reachability is not
+ * an interval relation, and the control dependences, from which the dominated blocks are derived, do not form
+ * a tree, since the handling of jumps and throws gives some nodes more than one control parent.
+ * Each set is thus computed once by the original traversal, and every later query is a BitSet lookup.
+ */
+public class PDGRegionCache {
+	private PDG pdg;
+	private List<BasicBlock> basicBlocks;
+	private Map<BasicBlock, Integer> blockIndexMap;
+	private BitSet[] forwardReachableBlocks;
+	private BitSet[] dominatedBlocks;
+	//key is the node (branch or method entry) that directly dominates the leader of a block
+	private Map<PDGNode, BitSet> dominatedBlockMap;
+	//the boundary blocks of the nodes belonging to each block
+	private BitSet[] boundaryBlocks;
+	private Set<PDGNode>[] regionNodes;
+	private BitSet[] regionNodeIds;
+	private BitSet[] regionEdges;
+
+	@SuppressWarnings("unchecked")
+	public PDGRegionCache(PDG pdg) {
+		this.pdg = pdg;
+		this.basicBlocks = pdg.getBasicBlocks();
+		int numberOfBlocks = basicBlocks.size();
+		this.blockIndexMap = new HashMap<BasicBlock, Integer>();
+		for(int i=0; i<numberOfBlocks; i++) {
+			blockIndexMap.put(basicBlocks.get(i), i);
+		}
+		this.forwardReachableBlocks = new BitSet[numberOfBlocks];
+		this.dominatedBlocks = new BitSet[numberOfBlocks];
+		this.dominatedBlockMap = new HashMap<PDGNode, BitSet>();
+		this.boundaryBlocks = new BitSet[numberOfBlocks];
+		this.regionNodes = new Set[numberOfBlocks];
+		this.regionNodeIds = new BitSet[numberOfBlocks];
+		this.regionEdges = new BitSet[numberOfBlocks];
+	}
+
+	private int getBlockIndex(BasicBlock block) {
+		return blockIndexMap.get(block);
+	}
+
+	//returns the blocks of the given indices, in the order of the basic blocks of the method
+	public Set<BasicBlock> toBasicBlocks(BitSet blockIndices) {
+		Set<BasicBlock> blocks = new LinkedHashSet<BasicBlock>();
+		for(int i = blockIndices.nextSetBit(0); i >= 0; i = blockIndices.nextSetBit(i + 1)) {
+			blocks.add(basicBlocks.get(i));
+		}
+		return blocks;
+	}
+
+	private BitSet toBlockIndices(Set<BasicBlock> blocks) {
+		BitSet blockIndices = new BitSet(basicBlocks.size());
+		for(BasicBlock block : blocks) {
+			blockIndices.set(getBlockIndex(block));
+		}
+		return blockIndices;
+	}
+
+	private BitSet getForwardReachableBlocks(int blockIndex) {
+		if(forwardReachableBlocks[blockIndex] == null) {
+			BasicBlock block = basicBlocks.get(blockIndex);
+			forwardReachableBlocks[blockIndex] = toBlockIndices(pdg.getBasicBlockCFG().forwardReachableBlocks(block));
+		}
+		return forwardReachableBlocks[blockIndex];
+	}
+
+	private BitSet getDominatedBlocks(int blockIndex) {
+		if(dominatedBlocks[blockIndex] == null) {
+			PDGNode pdgNode = directlyDominates(basicBlocks.get(blockIndex));
+			dominatedBlocks[blockIndex] = getDominatedBlocks(pdgNode);
+		}
+		return dominatedBlocks[blockIndex];
+	}
+
+	//returns the node (branch or method entry) that directly dominates the leader of the block
+	private PDGNode directlyDominates(BasicBlock block) {
+		CFGNode leaderCFGNode = block.getLeader();
+		PDGNode leaderPDGNode = leaderCFGNode.getPDGNode();
+		for(GraphEdge edge : leaderPDGNode.incomingEdges) {
+			PDGDependence dependence = (PDGDependence)edge;
+			if(dependence instanceof PDGControlDependence) {
+				PDGNode srcNode = (PDGNode)dependence.src;
+				return srcNode;
+			}
+		}
+		return null;
+	}
+
+	private BitSet getDominatedBlocks(PDGNode branchNode) {
+		BitSet blockIndices = dominatedBlockMap.get(branchNode);
+		if(blockIndices == null) {
+			blockIndices = new BitSet(basicBlocks.size());
+			if(branchNode != null) {
+				for(GraphEdge edge : branchNode.outgoingEdges) {
+					PDGDependence dependence = (PDGDependence)edge;
+					if(dependence instanceof PDGControlDependence) {
+						PDGNode dstNode = (PDGNode)dependence.dst;
+						BasicBlock dstBlock = dstNode.getBasicBlock();
+						blockIndices.set(getBlockIndex(dstBlock));
+						PDGNode dstBlockLastNode = dstBlock.getLastNode().getPDGNode();
+						if(dstBlockLastNode instanceof PDGControlPredicateNode && !dstBlockLastNode.equals(branchNode))
+							blockIndices.or(getDominatedBlocks(dstBlockLastNode));
+					}
+				}
+			}
+			dominatedBlockMap.put(branchNode, blockIndices);
+		}
+		return blockIndices;
+	}
+
+	/*
+	 * Returns the blocks, from which the block of the node is both forward reachable and dominated.
+	 * The result depends only on the block of the node, and thus it is computed once for all the nodes of a block.
+	 */
+	public synchronized BitSet getBoundaryBlockIndices(PDGNode node) {
+		int srcBlockIndex = getBlockIndex(node.getBasicBlock());
+		if(boundaryBlocks[srcBlockIndex] == null) {
+			BitSet blockIndices = new BitSet(basicBlocks.size());
+			for(int i=0; i<basicBlocks.size(); i++) {
+				if(getForwardReachableBlocks(i).get(srcBlockIndex) && getDominatedBlocks(i).get(srcBlockIndex))
+					blockIndices.set(i);
+			}
+			boundaryBlocks[srcBlockIndex] = blockIndices;
+		}
+		return boundaryBlocks[srcBlockIndex];
+	}
+
+	public Set<BasicBlock> getBoundaryBlocks(PDGNode node) {
+		return toBasicBlocks(getBoundaryBlockIndices(node));
+	}
+
+	public synchronized Set<PDGNode> getRegionNodes(BasicBlock block) {
+		int blockIndex = getBlockIndex(block);
+		if(regionNodes[blockIndex] == null) {
+			Set<PDGNode> nodes = new LinkedHashSet<PDGNode>();
+			for(BasicBlock reachableBlock : pdg.getBasicBlockCFG().forwardReachableBlocks(block)) {
+				List<CFGNode> blockNodes = reachableBlock.getAllNodesIncludingTry();
+				for(CFGNode cfgNode : blockNodes) {
+					nodes.add(cfgNode.getPDGNode());
+				}
+			}
+			regionNodes[blockIndex] = nodes;
+		}
+		return regionNodes[blockIndex];
+	}
+
+	public synchronized BitSet getRegionNodeIds(BasicBlock block) {
+		int blockIndex = getBlockIndex(block);
+		if(regionNodeIds[blockIndex] == null)
+			regionNodeIds[blockIndex] = pdg.getDenseGraph().toNodeIds(getRegionNodes(block));
+		return regionNodeIds[blockIndex];
+	}
+
+	public synchronized BitSet getRegionEdges(BasicBlock block) {
+		int blockIndex = getBlockIndex(block);
+		if(regionEdges[blockIndex] == null)
+			regionEdges[blockIndex] = pdg.getDenseGraph().getRegionEdges(getRegionNodeIds(block));
+		return regionEdges[blockIndex];
+	}
+}
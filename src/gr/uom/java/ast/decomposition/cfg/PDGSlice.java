@@ -2,6 +2,7 @@ package gr.uom.java.ast.decomposition.cfg;
 
 import gr.uom.java.ast.AbstractMethodDeclaration;
 
+import java.util.BitSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -16,6 +17,9 @@ public class PDGSlice extends Graph {
 	private AbstractMethodDeclaration method;
 	private BasicBlock boundaryBlock;
 	private PDGNode nodeCriterion;
+	private DenseGraph denseGraph;
+	private BitSet regionNodeIds;
+	private BitSet regionEdges;
 	private AbstractVariable localVariableCriterion;
 	private Set<PDGNode> sliceNodes;
 	private Set<PDGNode> remainingNodes;
@@ -34,47 +38,15 @@ public class PDGSlice extends Graph {
 		this.methodSize = pdg.getTotalNumberOfStatements();
 		this.returnedVariablesInOriginalMethod = pdg.getReturnedVariables();
 		this.boundaryBlock = boundaryBlock;
-		Set<PDGNode> regionNodes = pdg.blockBasedRegion(boundaryBlock);
-		for(PDGNode node : regionNodes) {
+		//the region is shared by all the slices of the method having the same boundary block
+		PDGRegionCache regionCache = pdg.getRegionCache();
+		for(PDGNode node : regionCache.getRegionNodes(boundaryBlock)) {
 			nodes.add(node);
 		}
-		for(GraphEdge edge : pdg.edges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(nodes.contains(dependence.src) && nodes.contains(dependence.dst)) {
-				if(dependence instanceof PDGDataDependence) {
-					PDGDataDependence dataDependence = (PDGDataDependence)dependence;
-					if(dataDependence.isLoopCarried()) {
-						PDGNode loopNode = dataDependence.getLoop().getPDGNode();
-						if(nodes.contains(loopNode))
-							edges.add(dataDependence);
-					}
-					else
-						edges.add(dataDependence);
-				}
-				else if(dependence instanceof PDGAntiDependence) {
-					PDGAntiDependence antiDependence = (PDGAntiDependence)dependence;
-					if(antiDependence.isLoopCarried()) {
-						PDGNode loopNode = antiDependence.getLoop().getPDGNode();
-						if(nodes.contains(loopNode))
-							edges.add(antiDependence);
-					}
-					else
-						edges.add(antiDependence);
-				}
-				else if(dependence instanceof PDGOutputDependence) {
-					PDGOutputDependence outputDependence = (PDGOutputDependence)dependence;
-					if(outputDependence.isLoopCarried()) {
-						PDGNode loopNode = outputDependence.getLoop().getPDGNode();
-						if(nodes.contains(loopNode))
-							edges.add(outputDependence);
-					}
-					else
-						edges.add(outputDependence);
-				}
-				else
-					edges.add(dependence);
-			}
-		}
+		//the edges of the region are kept as a BitSet over the edges of the PDG, instead of a copy of the edge set
+		this.denseGraph = pdg.getDenseGraph();
+		this.regionNodeIds = regionCache.getRegionNodeIds(boundaryBlock);
+		this.regionEdges = regionCache.getRegionEdges(boundaryBlock);
 	}
 
 	public PDGSlice(PDG pdg, BasicBlock boundaryBlock, PDGNode nodeCriterion, AbstractVariable localVariableCriterion) {
@@ -93,21 +65,22 @@ public class PDGSlice extends Graph {
 		this.passedParameters = new LinkedHashSet<AbstractVariable>();
 		Set<PDGNode> nCD = new LinkedHashSet<PDGNode>();
 		Set<PDGNode> nDD = new LinkedHashSet<PDGNode>();
-		for(GraphEdge edge : pdg.edges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			PDGNode srcPDGNode = (PDGNode)dependence.src;
-			PDGNode dstPDGNode = (PDGNode)dependence.dst;
-			if(dependence instanceof PDGDataDependence) {
-				PDGDataDependence dataDependence = (PDGDataDependence)dependence;
-				if(remainingNodes.contains(srcPDGNode) && sliceNodes.contains(dstPDGNode))
+		BitSet sliceNodeIds = denseGraph.toNodeIds(sliceNodes);
+		BitSet remainingNodeIds = denseGraph.toNodeIds(remainingNodes);
+		for(int edgeIndex=0; edgeIndex<denseGraph.getNumberOfEdges(); edgeIndex++) {
+			int src = denseGraph.getEdgeSource(edgeIndex);
+			int dst = denseGraph.getEdgeDestination(edgeIndex);
+			if(denseGraph.isDataDependence(edgeIndex)) {
+				PDGDataDependence dataDependence = (PDGDataDependence)denseGraph.getEdge(edgeIndex);
+				if(remainingNodeIds.get(src) && sliceNodeIds.get(dst))
 					passedParameters.add(dataDependence.getData());
-				if(sliceNodes.contains(srcPDGNode) && remainingNodes.contains(dstPDGNode) &&
+				if(sliceNodeIds.get(src) && remainingNodeIds.get(dst) &&
 						!dataDependence.getData().equals(localVariableCriterion) && !dataDependence.getData().isField())
-					nDD.add(srcPDGNode);
+					nDD.add((PDGNode)denseGraph.getNode(src));
 			}
-			else if(dependence instanceof PDGControlDependence) {
-				if(sliceNodes.contains(srcPDGNode) && remainingNodes.contains(dstPDGNode))
-					nCD.add(srcPDGNode);
+			else if(denseGraph.isControlDependence(edgeIndex)) {
+				if(sliceNodeIds.get(src) && remainingNodeIds.get(dst))
+					nCD.add((PDGNode)denseGraph.getNode(src));
 			}
 		}
 		Set<PDGNode> controlIndispensableNodes = new LinkedHashSet<PDGNode>();
@@ -188,11 +161,20 @@ public class PDGSlice extends Graph {
 	}
 
 	public boolean nodeBelongsToBlockBasedRegion(GraphNode node) {
-		return nodes.contains(node);
+		return regionNodeIds.get(node.getId());
 	}
 
 	public boolean edgeBelongsToBlockBasedRegion(GraphEdge edge) {
-		return edges.contains(edge);
+		int edgeIndex = denseGraph.getEdgeIndex(edge);
+		return edgeIndex != -1 && regionEdges.get(edgeIndex);
+	}
+
+	public Set<GraphEdge> getEdges() {
+		Set<GraphEdge> regionEdgeSet = new LinkedHashSet<GraphEdge>();
+		for(int edgeIndex = regionEdges.nextSetBit(0); edgeIndex >= 0; edgeIndex = regionEdges.nextSetBit(edgeIndex + 1)) {
+			regionEdgeSet.add(denseGraph.getEdge(edgeIndex));
+		}
+		return regionEdgeSet;
 	}
 
 	public PDGNode getDeclarationOfVariableCriterion() {
@@ -319,7 +301,7 @@ public class PDGSlice extends Graph {
 			if(!duplicatedNodes.contains(sliceNode)) {
 				for(GraphEdge edge : sliceNode.incomingEdges) {
 					PDGDependence dependence = (PDGDependence)edge;
-					if(edges.contains(dependence) && dependence instanceof PDGAntiDependence) {
+					if(edgeBelongsToBlockBasedRegion(dependence) && dependence instanceof PDGAntiDependence) {
 						PDGAntiDependence antiDependence = (PDGAntiDependence)dependence;
 						PDGNode srcPDGNode = (PDGNode)antiDependence.src;
 						if(!removableNodes.contains(srcPDGNode) && !nodeDependsOnNonRemovableNode(srcPDGNode, antiDependence.getData()))
@@ -334,7 +316,7 @@ public class PDGSlice extends Graph {
 	private boolean nodeDependsOnNonRemovableNode(PDGNode node, AbstractVariable variable) {
 		for(GraphEdge edge : node.incomingEdges) {
 			PDGDependence dependence = (PDGDependence)edge;
-			if(edges.contains(dependence) && dependence instanceof PDGDataDependence) {
+			if(edgeBelongsToBlockBasedRegion(dependence) && dependence instanceof PDGDataDependence) {
 				PDGDataDependence dataDependence = (PDGDataDependence)dependence;
 				if(dataDependence.getData().equals(variable)) {
 					PDGNode srcPDGNode = (PDGNode)dataDependence.src;
@@ -354,7 +336,7 @@ public class PDGSlice extends Graph {
 			if(!duplicatedNodes.contains(sliceNode)) {
 				for(GraphEdge edge : sliceNode.incomingEdges) {
 					PDGDependence dependence = (PDGDependence)edge;
-					if(edges.contains(dependence) && dependence instanceof PDGOutputDependence) {
+					if(edgeBelongsToBlockBasedRegion(dependence) && dependence instanceof PDGOutputDependence) {
 						PDGOutputDependence outputDependence = (PDGOutputDependence)dependence;
 						PDGNode srcPDGNode = (PDGNode)outputDependence.src;
 						if(!removableNodes.contains(srcPDGNode))
@@ -376,7 +358,7 @@ public class PDGSlice extends Graph {
 				for(VariableDeclaration variableDeclaration : classInstantiations.keySet()) {
 					for(GraphEdge edge : duplicatedNode.outgoingEdges) {
 						PDGDependence dependence = (PDGDependence)edge;
-						if(edges.contains(dependence) && dependence instanceof PDGDependence) {
+						if(edgeBelongsToBlockBasedRegion(dependence) && dependence instanceof PDGDependence) {
 							PDGDependence dataDependence = (PDGDependence)dependence;
 							PDGNode dstPDGNode = (PDGNode)dataDependence.dst;
 							if(removableNodes.contains(dstPDGNode)) {
@@ -434,54 +416,30 @@ public class PDGSlice extends Graph {
 	}
 
 	public Set<PDGNode> computeSlice(PDGNode nodeCriterion, AbstractVariable localVariableCriterion) {
-		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
-		if(nodeCriterion.definesLocalVariable(localVariableCriterion)) {
-			sliceNodes.addAll(traverseBackward(nodeCriterion, new LinkedHashSet<PDGNode>()));
-		}
-		else if(nodeCriterion.usesLocalVariable(localVariableCriterion)) {
-			Set<PDGNode> defNodes = getDefNodes(nodeCriterion, localVariableCriterion);
-			for(PDGNode defNode : defNodes) {
-				sliceNodes.addAll(traverseBackward(defNode, new LinkedHashSet<PDGNode>()));
-			}
-			sliceNodes.addAll(traverseBackward(nodeCriterion, new LinkedHashSet<PDGNode>()));
-		}
+		Set<PDGNode> sliceNodes = new TreeSet<PDGNode>();
+		denseGraph.addPDGNodes(computeSliceNodeIds(nodeCriterion, localVariableCriterion), sliceNodes);
 		return sliceNodes;
 	}
 
 	public Set<PDGNode> computeSlice(PDGNode nodeCriterion) {
-		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
-		sliceNodes.addAll(traverseBackward(nodeCriterion, new LinkedHashSet<PDGNode>()));
+		Set<PDGNode> sliceNodes = new TreeSet<PDGNode>();
+		denseGraph.addPDGNodes(denseGraph.backwardSlice(nodeCriterion.getId(), regionEdges), sliceNodes);
 		return sliceNodes;
 	}
 
-	private Set<PDGNode> getDefNodes(PDGNode node, AbstractVariable localVariable) {
-		Set<PDGNode> defNodes = new LinkedHashSet<PDGNode>();
-		for(GraphEdge edge : node.incomingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(edges.contains(dependence) && dependence instanceof PDGDataDependence) {
-				PDGDataDependence dataDependence = (PDGDataDependence)dependence;
-				if(dataDependence.getData().equals(localVariable)) {
-					PDGNode srcPDGNode = (PDGNode)dependence.src;
-					defNodes.add(srcPDGNode);
-				}
-			}
+	private BitSet computeSliceNodeIds(PDGNode nodeCriterion, AbstractVariable localVariableCriterion) {
+		BitSet sliceNodeIds = new BitSet();
+		if(nodeCriterion.definesLocalVariable(localVariableCriterion)) {
+			sliceNodeIds.or(denseGraph.backwardSlice(nodeCriterion.getId(), regionEdges));
 		}
-		return defNodes;
-	}
-
-	private Set<PDGNode> traverseBackward(PDGNode node, Set<PDGNode> visitedNodes) {
-		Set<PDGNode> sliceNodes = new LinkedHashSet<PDGNode>();
-		sliceNodes.add(node);
-		visitedNodes.add(node);
-		for(GraphEdge edge : node.incomingEdges) {
-			PDGDependence dependence = (PDGDependence)edge;
-			if(edges.contains(dependence) && !(dependence instanceof PDGAntiDependence) && !(dependence instanceof PDGOutputDependence)) {
-				PDGNode srcPDGNode = (PDGNode)dependence.src;
-				if(!visitedNodes.contains(srcPDGNode))
-					sliceNodes.addAll(traverseBackward(srcPDGNode, visitedNodes));
+		else if(nodeCriterion.usesLocalVariable(localVariableCriterion)) {
+			BitSet defNodeIds = denseGraph.getDefNodes(nodeCriterion.getId(), localVariableCriterion, regionEdges);
+			for(int defNodeId = defNodeIds.nextSetBit(0); defNodeId >= 0; defNodeId = defNodeIds.nextSetBit(defNodeId + 1)) {
+				sliceNodeIds.or(denseGraph.backwardSlice(defNodeId, regionEdges));
 			}
+			sliceNodeIds.or(denseGraph.backwardSlice(nodeCriterion.getId(), regionEdges));
 		}
-		return sliceNodes;
+		return sliceNodeIds;
 	}
 
 	public String toString() {
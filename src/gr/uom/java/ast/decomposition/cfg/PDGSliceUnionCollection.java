@@ -1,10 +1,8 @@
 package gr.uom.java.ast.decomposition.cfg;
 
-import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,18 +12,17 @@ public class PDGSliceUnionCollection {
 	public PDGSliceUnionCollection(PDG pdg, PlainVariable localVariableCriterion) {
 		this.sliceUnionMap = new LinkedHashMap<BasicBlock, PDGSliceUnion>();
 		Set<PDGNode> nodeCriteria = pdg.getAssignmentNodesOfVariableCriterion(localVariableCriterion);
-		Map<PDGNode, Set<BasicBlock>> boundaryBlockMap = new LinkedHashMap<PDGNode, Set<BasicBlock>>();
+		PDGRegionCache regionCache = pdg.getRegionCache();
+		BitSet basicBlockIntersection = null;
 		for(PDGNode nodeCriterion : nodeCriteria) {
-			Set<BasicBlock> boundaryBlocks = pdg.boundaryBlocks(nodeCriterion);
-			boundaryBlockMap.put(nodeCriterion, boundaryBlocks);
+			BitSet boundaryBlocks = regionCache.getBoundaryBlockIndices(nodeCriterion);
+			if(basicBlockIntersection == null)
+				basicBlockIntersection = (BitSet)boundaryBlocks.clone();
+			else
+				basicBlockIntersection.and(boundaryBlocks);
 		}
-		List<Set<BasicBlock>> list = new ArrayList<Set<BasicBlock>>(boundaryBlockMap.values());
-		if(!list.isEmpty()) {
-			Set<BasicBlock> basicBlockIntersection = new LinkedHashSet<BasicBlock>(list.get(0));
-			for(int i=1; i<list.size(); i++) {
-				basicBlockIntersection.retainAll(list.get(i));
-			}
-			for(BasicBlock basicBlock : basicBlockIntersection) {
+		if(basicBlockIntersection != null) {
+			for(BasicBlock basicBlock : regionCache.toBasicBlocks(basicBlockIntersection)) {
 				PDGSliceUnion sliceUnion = new PDGSliceUnion(pdg, basicBlock, nodeCriteria, localVariableCriterion);
 				if(sliceUnion.satisfiesRules())
 					sliceUnionMap.put(basicBlock, sliceUnion);
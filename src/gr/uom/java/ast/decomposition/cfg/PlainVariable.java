@@ -4,7 +4,7 @@ import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
 public class PlainVariable extends AbstractVariable {
-	private volatile int hashCode = 0;
+	private transient volatile int hashCode = 0;
 	
 	public PlainVariable(VariableDeclaration variableName) {
 		super(variableName);
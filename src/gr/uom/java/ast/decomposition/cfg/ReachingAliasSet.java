@@ -1,64 +1,106 @@
 package gr.uom.java.ast.decomposition.cfg;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.eclipse.jdt.core.dom.VariableDeclaration;
 
+/*
+ * The alias sets are copied on write, so that copy() runs in constant time and the copies share the
+ * list of alias sets, as well as the alias sets themselves, until one of them is modified.
+ * A modified copy clones the list of alias sets once, and only the alias sets that it actually changes.
+ */
 public class ReachingAliasSet {
 
 	private List<LinkedHashSet<VariableDeclaration>> aliasSets;
+	//true if the list of alias sets may be shared with other copies
+	private boolean aliasSetListShared;
+	//the alias sets that are not shared with other copies, compared by identity
+	private Set<LinkedHashSet<VariableDeclaration>> ownedAliasSets;
 	
 	public ReachingAliasSet() {
 		this.aliasSets = new ArrayList<LinkedHashSet<VariableDeclaration>>();
+		this.aliasSetListShared = false;
+		this.ownedAliasSets = newIdentitySet();
 	}
 	
 	private ReachingAliasSet(List<LinkedHashSet<VariableDeclaration>> aliasSets) {
 		this.aliasSets = aliasSets;
+		this.aliasSetListShared = true;
+		this.ownedAliasSets = newIdentitySet();
+	}
+	
+	private static Set<LinkedHashSet<VariableDeclaration>> newIdentitySet() {
+		return Collections.newSetFromMap(new IdentityHashMap<LinkedHashSet<VariableDeclaration>, Boolean>());
+	}
+	
+	private void ensureAliasSetListOwned() {
+		if(aliasSetListShared) {
+			aliasSets = new ArrayList<LinkedHashSet<VariableDeclaration>>(aliasSets);
+			aliasSetListShared = false;
+		}
+	}
+	
+	private LinkedHashSet<VariableDeclaration> getOwnedAliasSet(int index) {
+		ensureAliasSetListOwned();
+		LinkedHashSet<VariableDeclaration> aliasSet = aliasSets.get(index);
+		if(!ownedAliasSets.contains(aliasSet)) {
+			aliasSet = new LinkedHashSet<VariableDeclaration>(aliasSet);
+			aliasSets.set(index, aliasSet);
+			ownedAliasSets.add(aliasSet);
+		}
+		return aliasSet;
+	}
+	
+	private void removeAliasSet(int index) {
+		ensureAliasSetListOwned();
+		ownedAliasSets.remove(aliasSets.remove(index));
 	}
 	
 	public void insertAlias(VariableDeclaration leftHandSideReference, VariableDeclaration rightHandSideReference) {
 		boolean rightHandSideReferenceFound = false;
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
+		for(int i=0; i<aliasSets.size(); i++) {
+			LinkedHashSet<VariableDeclaration> aliasSet = aliasSets.get(i);
 			if(aliasSet.contains(rightHandSideReference)) {
 				rightHandSideReferenceFound = true;
-				aliasSet.add(leftHandSideReference);
+				if(!aliasSet.contains(leftHandSideReference))
+					getOwnedAliasSet(i).add(leftHandSideReference);
 			}
 		}
 		if(!rightHandSideReferenceFound) {
 			LinkedHashSet<VariableDeclaration> aliasSet = new LinkedHashSet<VariableDeclaration>();
 			aliasSet.add(leftHandSideReference);
 			aliasSet.add(rightHandSideReference);
+			ensureAliasSetListOwned();
 			aliasSets.add(aliasSet);
+			ownedAliasSets.add(aliasSet);
 		}
-		List<LinkedHashSet<VariableDeclaration>> aliasSetsToBeRemoved = new ArrayList<LinkedHashSet<VariableDeclaration>>();
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
+		for(int i=aliasSets.size()-1; i>=0; i--) {
+			LinkedHashSet<VariableDeclaration> aliasSet = aliasSets.get(i);
 			if(aliasSet.contains(leftHandSideReference)) {
-				if(!aliasSet.contains(rightHandSideReference))
+				if(!aliasSet.contains(rightHandSideReference)) {
+					aliasSet = getOwnedAliasSet(i);
 					aliasSet.remove(leftHandSideReference);
+				}
 				if(aliasSet.size() == 1)
-					aliasSetsToBeRemoved.add(aliasSet);
+					removeAliasSet(i);
 			}
 		}
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSetsToBeRemoved) {
-			aliasSets.remove(aliasSet);
-		}
 	}
 	
 	public void removeAlias(VariableDeclaration leftHandSideReference) {
-		List<LinkedHashSet<VariableDeclaration>> aliasSetsToBeRemoved = new ArrayList<LinkedHashSet<VariableDeclaration>>();
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			if(aliasSet.contains(leftHandSideReference)) {
+		for(int i=aliasSets.size()-1; i>=0; i--) {
+			if(aliasSets.get(i).contains(leftHandSideReference)) {
+				LinkedHashSet<VariableDeclaration> aliasSet = getOwnedAliasSet(i);
 				aliasSet.remove(leftHandSideReference);
 				if(aliasSet.size() == 1)
-					aliasSetsToBeRemoved.add(aliasSet);
+					removeAliasSet(i);
 			}
 		}
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSetsToBeRemoved) {
-			aliasSets.remove(aliasSet);
-		}
 	}
 	
 	public boolean containsAlias(VariableDeclaration variableDeclaration) {
@@ -115,12 +157,10 @@ public class ReachingAliasSet {
 	}
 	
 	public ReachingAliasSet copy() {
-		List<LinkedHashSet<VariableDeclaration>> aliasSetsCopy = new ArrayList<LinkedHashSet<VariableDeclaration>>();
-		for(LinkedHashSet<VariableDeclaration> aliasSet : aliasSets) {
-			LinkedHashSet<VariableDeclaration> aliasSetCopy = new LinkedHashSet<VariableDeclaration>(aliasSet);
-			aliasSetsCopy.add(aliasSetCopy);
-		}
-		return new ReachingAliasSet(aliasSetsCopy);
+		//from now on the list and all the alias sets are shared with the copy
+		aliasSetListShared = true;
+		ownedAliasSets.clear();
+		return new ReachingAliasSet(aliasSets);
 	}
 	
 	public String toString() {
@@ -13,8 +13,8 @@ import gr.uom.java.ast.AbstractMethodDeclaration;
 import gr.uom.java.ast.ClassDeclarationObject;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 import gr.uom.java.ast.decomposition.cfg.PDGMethodEntryNode;
 import gr.uom.java.ast.decomposition.cfg.PDGNode;
 import gr.uom.java.ast.decomposition.matching.NodePairComparisonCache;
@@ -724,8 +724,7 @@ public class CloneInstanceMapper {
 
 		ITypeRoot typeRoot = classObject.getITypeRoot();
 		CompilationUnitCache.getInstance().lock(typeRoot);
-		CFG cfg = new CFG(methodObject);
-		final PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), progressMonitor);
+		final PDG pdg = PDGCache.getInstance().getPDG(methodObject, classObject, progressMonitor);
 		return pdg;
 	}
 
@@ -0,0 +1,12 @@
+package gr.uom.java.ast.util;
+
+/*
+ * Receives the refactoring opportunities of a detector one by one, as soon as they are identified,
+ * so that they can be reported or serialized without materializing the complete result.
+ * The sink is called in the thread running the detector, which waits until accept returns,
+ * so a sink that blocks throttles the detector (back-pressure).
+ */
+public interface CandidateSink<T> {
+	//returns false to stop the detector, in which case no more candidates are passed to the sink
+	public boolean accept(T candidate);
+}
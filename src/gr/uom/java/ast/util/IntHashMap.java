@@ -0,0 +1,120 @@
+package gr.uom.java.ast.util;
+
+import java.util.Arrays;
+
+/*
+ * A hash map with primitive int keys, using open addressing with linear probing,
+ * so that neither the keys nor the entries are allocated as objects.
+ * Null values are not supported, since a null value marks an empty slot.
+ */
+public class IntHashMap<V> {
+	private static final int DEFAULT_CAPACITY = 16;
+	private int[] keys;
+	private Object[] values;
+	private int size;
+
+	public IntHashMap() {
+		this.keys = new int[DEFAULT_CAPACITY];
+		this.values = new Object[DEFAULT_CAPACITY];
+		this.size = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		int mask = keys.length - 1;
+		for(int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+			if(keys[i] == key)
+				return (V)values[i];
+		}
+		return null;
+	}
+
+	public boolean containsKey(int key) {
+		return get(key) != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if(value == null)
+			throw new IllegalArgumentException("null values are not supported");
+		int mask = keys.length - 1;
+		int i = hash(key) & mask;
+		for(; values[i] != null; i = (i + 1) & mask) {
+			if(keys[i] == key) {
+				V previousValue = (V)values[i];
+				values[i] = value;
+				return previousValue;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		size++;
+		//the load factor is kept below 0.5, so that the probe sequences remain short
+		if(2 * size > keys.length)
+			resize(2 * keys.length);
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int mask = keys.length - 1;
+		for(int i = hash(key) & mask; values[i] != null; i = (i + 1) & mask) {
+			if(keys[i] == key) {
+				V previousValue = (V)values[i];
+				values[i] = null;
+				size--;
+				//the following entries of the probe sequence are shifted back, so that they remain reachable
+				for(int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+					int home = hash(keys[j]) & mask;
+					boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+					if(!reachable) {
+						keys[i] = keys[j];
+						values[i] = values[j];
+						values[j] = null;
+						i = j;
+					}
+				}
+				return previousValue;
+			}
+		}
+		return null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		if(size > 0) {
+			Arrays.fill(values, null);
+			size = 0;
+		}
+	}
+
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		this.keys = new int[capacity];
+		this.values = new Object[capacity];
+		int mask = capacity - 1;
+		for(int j=0; j<oldKeys.length; j++) {
+			if(oldValues[j] != null) {
+				int i = hash(oldKeys[j]) & mask;
+				while(values[i] != null)
+					i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	//dense ids are spread over the table, so that consecutive keys do not form long clusters
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
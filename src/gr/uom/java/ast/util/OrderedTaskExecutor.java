@@ -0,0 +1,68 @@
+package gr.uom.java.ast.util;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/*
+ * Runs a list of tasks on a bounded pool of worker threads, while the results are handed over to a ResultHandler
+ * in the calling thread in submission order, so that the results are consumed in the same order as in the serial mode.
+ * At most two tasks per worker thread are pending at any time, so that the results do not accumulate in memory.
+ * The tasks can also be supplied by an Iterator, which is advanced only when a task can be submitted, so that the tasks
+ * are created lazily while the results of the earlier ones are consumed.
+ * IProgressMonitor is not required to be thread-safe, so only the calling thread (and thus the ResultHandler) accesses it.
+ */
+public class OrderedTaskExecutor<T> {
+	private int numberOfThreads;
+
+	public interface ResultHandler<T> {
+		public void handleResult(T result);
+	}
+
+	public OrderedTaskExecutor() {
+		this.numberOfThreads = Math.max(1, Runtime.getRuntime().availableProcessors());
+	}
+
+	public void execute(List<? extends Callable<T>> tasks, ResultHandler<T> handler, IProgressMonitor monitor) {
+		execute(tasks.iterator(), handler, monitor);
+	}
+
+	public void execute(Iterator<? extends Callable<T>> tasks, ResultHandler<T> handler, IProgressMonitor monitor) {
+		int maximumPendingTasks = 2 * numberOfThreads;
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		LinkedList<Future<T>> pendingResults = new LinkedList<Future<T>>();
+		try {
+			while(tasks.hasNext() || !pendingResults.isEmpty()) {
+				while(pendingResults.size() < maximumPendingTasks && tasks.hasNext()) {
+					pendingResults.add(executor.submit(tasks.next()));
+				}
+				if(monitor != null && monitor.isCanceled())
+					throw new OperationCanceledException();
+				Future<T> result = pendingResults.removeFirst();
+				try {
+					handler.handleResult(result.get());
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if(cause instanceof RuntimeException)
+						throw (RuntimeException)cause;
+					if(cause instanceof Error)
+						throw (Error)cause;
+					throw new RuntimeException(cause);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package gr.uom.java.ast.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/*
+ * Runs a ForkJoinTask in a ForkJoinPool, while the calling thread reports the progress of the workers
+ * to an IProgressMonitor and propagates the cancellation of the monitor to the workers.
+ * IProgressMonitor is not required to be thread-safe, so the workers never access it directly;
+ * they report their progress through worked() and check for cancellation through isCanceled().
+ * The CompilationUnitCache is shared by the workers, so a task comparing AST nodes by identity must lock the type roots
+ * of these nodes while it runs, otherwise another worker may evict the AST and the nodes may be recovered from a new AST.
+ */
+public class ParallelTaskRunner {
+	private static final long POLLING_INTERVAL = 100;
+	private AtomicInteger work;
+	private volatile boolean canceled;
+
+	public ParallelTaskRunner() {
+		this.work = new AtomicInteger();
+		this.canceled = false;
+	}
+
+	public void worked(int work) {
+		this.work.addAndGet(work);
+	}
+
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	public <T> T invoke(ForkJoinTask<T> task, IProgressMonitor monitor) {
+		ForkJoinPool pool = new ForkJoinPool();
+		int reportedWork = 0;
+		try {
+			pool.execute(task);
+			while(!task.isDone()) {
+				if(monitor != null && monitor.isCanceled())
+					canceled = true;
+				try {
+					task.get(POLLING_INTERVAL, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					//the task is still running
+				}
+				reportedWork = reportProgress(reportedWork, monitor);
+			}
+			reportedWork = reportProgress(reportedWork, monitor);
+			if(canceled)
+				throw new OperationCanceledException();
+			return task.get();
+		} catch (InterruptedException e) {
+			canceled = true;
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if(cause instanceof Error)
+				throw (Error)cause;
+			throw new RuntimeException(cause);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private int reportProgress(int reportedWork, IProgressMonitor monitor) {
+		int currentWork = work.get();
+		if(monitor != null && currentWork > reportedWork)
+			monitor.worked(currentWork - reportedWork);
+		return currentWork;
+	}
+}
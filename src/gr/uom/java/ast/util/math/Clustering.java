@@ -7,13 +7,18 @@ import java.util.HashSet;
 
 public abstract class Clustering {
 
+	public static final int HIERARCHICAL = 0;
+	public static final int NEAREST_NEIGHBOR_HIERARCHICAL = 1;
+
 	protected ArrayList<ArrayList<Double>> distanceList;
-	protected double[][] distanceMatrix;
+	protected TriangularDistanceMatrix distanceMatrix;
 	
-	public static Clustering getInstance(int type, double[][] distanceMatrix) {
+	public static Clustering getInstance(int type, TriangularDistanceMatrix distanceMatrix) {
 		switch(type) {
-		case 0:
+		case HIERARCHICAL:
 			return new Hierarchical(distanceMatrix);
+		case NEAREST_NEIGHBOR_HIERARCHICAL:
+			return new NearestNeighborHierarchical(distanceMatrix);
 		default:
 			return null;
 		}
@@ -1,10 +1,5 @@
 package gr.uom.java.ast.util.math;
 
-import static gr.uom.java.ast.util.math.DoubleArray.deleteColumns;
-import static gr.uom.java.ast.util.math.DoubleArray.deleteRows;
-import static gr.uom.java.ast.util.math.DoubleArray.insertColumns;
-import static gr.uom.java.ast.util.math.DoubleArray.insertRows;
-
 import gr.uom.java.distance.Entity;
 
 import java.util.ArrayList;
@@ -14,27 +9,35 @@ public class Hierarchical extends Clustering {
 	
 	private HashSet<Cluster> clusterSet;
 	
-	public Hierarchical(double[][] distanceMatrix) {
+	public Hierarchical(TriangularDistanceMatrix distanceMatrix) {
 		this.distanceMatrix = distanceMatrix;
 		this.clusterSet = new HashSet<Cluster>();
 	}
 
 	public HashSet<Cluster> clustering(ArrayList<Entity> entities) {
+		//the clusters in the order of their (non-retired) indices in the distance matrix
 		ArrayList<Cluster> clusters = new ArrayList<Cluster>();
-		for(Entity entity : entities) {
+		Cluster[] clusterAtIndex = new Cluster[distanceMatrix.size()];
+		for(int i=0; i<entities.size(); i++) {
 			Cluster cluster = new Cluster();
-			cluster.addEntity(entity);
+			cluster.addEntity(entities.get(i));
 			clusters.add(cluster);
+			clusterAtIndex[i] = cluster;
 		}
 		while(clusters.size()>2) {
 			HashSet<Cluster> clustersNotPresentable = new HashSet<Cluster>();
 			double minVal = 2.0;
 			int minRow = 0;
 			int minCol = 1;
-			for(int i=1; i<distanceMatrix.length;i++) {
-				for(int j=0;j<i;j++) {
-					if (distanceMatrix[i][j] < minVal) {
-						minVal = distanceMatrix[i][j];
+			for(int i=1; i<distanceMatrix.size(); i++) {
+				if(distanceMatrix.isRetired(i))
+					continue;
+				for(int j=0; j<i; j++) {
+					if(distanceMatrix.isRetired(j))
+						continue;
+					double distance = distanceMatrix.get(i, j);
+					if (distance < minVal) {
+						minVal = distance;
 						minRow = i;
 						minCol = j;
 					}
@@ -43,82 +46,30 @@ public class Hierarchical extends Clustering {
 			
 			if(minVal >= 1.0)
 				break;
-			if(minRow < minCol) {
-				if(clusters.get(minCol).getEntities().size() == 1 && clusters.get(minRow).getEntities().size() > 1) {
-					clustersNotPresentable.add(new Cluster(clusters.get(minRow).getEntities()));
-				}
-				else if(clusters.get(minCol).getEntities().size() > 1 && clusters.get(minRow).getEntities().size() == 1) {
-					clustersNotPresentable.add(new Cluster(clusters.get(minCol).getEntities()));
-				}
-				clusters.get(minRow).addEntities(clusters.get(minCol).getEntities());
-				double[] newDistances = new double[distanceMatrix.length-1];
-				for(int i=0;i<distanceMatrix.length;i++) {
-					if (i != minCol) {
-						if (i != minRow) {
-							if (distanceMatrix[minRow][i] < distanceMatrix[minCol][i]) {
-								if (i > minCol) {
-									newDistances[i - 1] = distanceMatrix[minRow][i];
-								} else {
-									newDistances[i] = distanceMatrix[minRow][i];
-								}
-							} else {
-								if (i > minCol) {
-									newDistances[i - 1] = distanceMatrix[minCol][i];
-								} else {
-									newDistances[i] = distanceMatrix[minCol][i];
-								}
-							}
-						}
-						else {
-							newDistances[i] = 0.0;
-						}
+			//minCol < minRow, the cluster at minRow is merged into the cluster at minCol and its index is retired
+			Cluster rowCluster = clusterAtIndex[minRow];
+			Cluster colCluster = clusterAtIndex[minCol];
+			if(rowCluster.getEntities().size() == 1 && colCluster.getEntities().size() > 1) {
+				clustersNotPresentable.add(new Cluster(colCluster.getEntities()));
+			}
+			else if(rowCluster.getEntities().size() > 1 && colCluster.getEntities().size() == 1) {
+				clustersNotPresentable.add(new Cluster(rowCluster.getEntities()));
+			}
+			colCluster.addEntities(rowCluster.getEntities());
+			for(int i=0; i<distanceMatrix.size(); i++) {
+				if(i != minRow && i != minCol && !distanceMatrix.isRetired(i)) {
+					if (distanceMatrix.get(minRow, i) < distanceMatrix.get(minCol, i)) {
+						distanceMatrix.set(minCol, i, distanceMatrix.get(minRow, i));
 					}
 				}
-				distanceMatrix = deleteRows(distanceMatrix, minRow, minCol);
-				distanceMatrix = deleteColumns(distanceMatrix, minCol);
-				distanceMatrix = insertRows(distanceMatrix, minRow, newDistances);
-				distanceMatrix = deleteColumns(distanceMatrix, minRow);
-				distanceMatrix = insertColumns(distanceMatrix, minRow, newDistances);
-				clusters.remove(minCol);
 			}
-			else {
-				if(clusters.get(minRow).getEntities().size() == 1 && clusters.get(minCol).getEntities().size() > 1) {
-					clustersNotPresentable.add(new Cluster(clusters.get(minCol).getEntities()));
-				}
-				else if(clusters.get(minRow).getEntities().size() > 1 && clusters.get(minCol).getEntities().size() == 1) {
-					clustersNotPresentable.add(new Cluster(clusters.get(minRow).getEntities()));
-				}
-				clusters.get(minCol).addEntities(clusters.get(minRow).getEntities());
-				double[] newDistances = new double[distanceMatrix.length-1];
-				for(int i=0;i<distanceMatrix.length;i++) {
-					if (i != minRow) {
-						if (i != minCol) {
-							if (distanceMatrix[minRow][i] < distanceMatrix[minCol][i]) {
-								if (i > minRow) {
-									newDistances[i - 1] = distanceMatrix[minRow][i];
-								} else {
-									newDistances[i] = distanceMatrix[minRow][i];
-								}
-							} else {
-								if (i > minRow) {
-									newDistances[i - 1] = distanceMatrix[minCol][i];
-								} else {
-									newDistances[i] = distanceMatrix[minCol][i];
-								}
-							}
-						}
-						else {
-							newDistances[i] = 0.0;
-						}
-					}
-					
+			distanceMatrix.retire(minRow);
+			clusterAtIndex[minRow] = null;
+			for(int i=0; i<clusters.size(); i++) {
+				if(clusters.get(i) == rowCluster) {
+					clusters.remove(i);
+					break;
 				}
-				distanceMatrix = deleteRows(distanceMatrix, minRow, minCol);
-				distanceMatrix = deleteColumns(distanceMatrix, minRow);
-				distanceMatrix = insertRows(distanceMatrix, minCol, newDistances);
-				distanceMatrix = deleteColumns(distanceMatrix, minCol);
-				distanceMatrix = insertColumns(distanceMatrix, minCol, newDistances);
-				clusters.remove(minRow);
 			}
 			clusterSet.removeAll(clustersNotPresentable);
 			for(Cluster cluster : clusters) {
@@ -0,0 +1,121 @@
+package gr.uom.java.ast.util.math;
+
+import gr.uom.java.distance.Entity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * Single linkage hierarchical clustering that produces the same clusters as {@link Hierarchical} in O(n^2) time.
+ * Instead of scanning the whole distance matrix for the closest pair of clusters in every iteration,
+ * it caches for every row of the matrix its nearest neighbor among the preceding rows.
+ * Since single linkage distances can only decrease after a merge, the cached nearest neighbors
+ * can be maintained in linear time per merge, and ties are broken in the same row-major order as in {@link Hierarchical}.
+ */
+public class NearestNeighborHierarchical extends Clustering {
+
+	private HashSet<Cluster> clusterSet;
+	//for every non-retired row i, the non-retired column j < i with the minimum distance (the first one in case of ties), or -1
+	private int[] nearestNeighbors;
+
+	public NearestNeighborHierarchical(TriangularDistanceMatrix distanceMatrix) {
+		this.distanceMatrix = distanceMatrix;
+		this.clusterSet = new HashSet<Cluster>();
+	}
+
+	public HashSet<Cluster> clustering(ArrayList<Entity> entities) {
+		int size = distanceMatrix.size();
+		Cluster[] clusterAtIndex = new Cluster[size];
+		for(int i=0; i<entities.size(); i++) {
+			Cluster cluster = new Cluster();
+			cluster.addEntity(entities.get(i));
+			clusterAtIndex[i] = cluster;
+		}
+		nearestNeighbors = new int[size];
+		for(int i=0; i<size; i++) {
+			updateNearestNeighbor(i);
+		}
+		while(distanceMatrix.getNumberOfActiveIndices()>2) {
+			double minVal = 2.0;
+			int minRow = 0;
+			for(int i=1; i<size; i++) {
+				if(!distanceMatrix.isRetired(i) && nearestNeighbors[i] != -1) {
+					double distance = distanceMatrix.get(i, nearestNeighbors[i]);
+					if(distance < minVal) {
+						minVal = distance;
+						minRow = i;
+					}
+				}
+			}
+			
+			if(minVal >= 1.0)
+				break;
+			//minCol < minRow, the cluster at minRow is merged into the cluster at minCol and its index is retired
+			int minCol = nearestNeighbors[minRow];
+			Cluster rowCluster = clusterAtIndex[minRow];
+			Cluster colCluster = clusterAtIndex[minCol];
+			if(rowCluster.getEntities().size() == 1 && colCluster.getEntities().size() > 1) {
+				clusterSet.remove(new Cluster(colCluster.getEntities()));
+			}
+			else if(rowCluster.getEntities().size() > 1 && colCluster.getEntities().size() == 1) {
+				clusterSet.remove(new Cluster(rowCluster.getEntities()));
+			}
+			colCluster.addEntities(rowCluster.getEntities());
+			for(int i=0; i<size; i++) {
+				if(i != minRow && i != minCol && !distanceMatrix.isRetired(i)) {
+					if (distanceMatrix.get(minRow, i) < distanceMatrix.get(minCol, i)) {
+						distanceMatrix.set(minCol, i, distanceMatrix.get(minRow, i));
+					}
+				}
+			}
+			distanceMatrix.retire(minRow);
+			clusterAtIndex[minRow] = null;
+			updateNearestNeighbor(minCol);
+			for(int i=minCol+1; i<size; i++) {
+				if(!distanceMatrix.isRetired(i)) {
+					int nearestNeighbor = nearestNeighbors[i];
+					//the distance to minCol cannot be larger than the distance to the retired minRow, and minCol < minRow
+					if(nearestNeighbor == minRow || distanceMatrix.get(i, minCol) < distanceMatrix.get(i, nearestNeighbor) ||
+							(distanceMatrix.get(i, minCol) == distanceMatrix.get(i, nearestNeighbor) && minCol < nearestNeighbor)) {
+						nearestNeighbors[i] = minCol;
+					}
+				}
+			}
+			/*
+			 * All other clusters are unchanged and have already been added to the cluster set when they were created.
+			 * When only two clusters are left and one of them is a singleton, the merged cluster is not presentable.
+			 */
+			if(!(distanceMatrix.getNumberOfActiveIndices() == 2 && containsSingletonCluster(clusterAtIndex))) {
+				if(colCluster.getEntities().size() > 1) {
+					clusterSet.add(new Cluster(colCluster.getEntities()));
+				}
+			}
+		}
+		return clusterSet;
+	}
+
+	private void updateNearestNeighbor(int row) {
+		double minVal = 2.0;
+		int nearestNeighbor = -1;
+		if(!distanceMatrix.isRetired(row)) {
+			for(int j=0; j<row; j++) {
+				if(!distanceMatrix.isRetired(j)) {
+					double distance = distanceMatrix.get(row, j);
+					if(distance < minVal) {
+						minVal = distance;
+						nearestNeighbor = j;
+					}
+				}
+			}
+		}
+		nearestNeighbors[row] = nearestNeighbor;
+	}
+
+	private boolean containsSingletonCluster(Cluster[] clusterAtIndex) {
+		for(Cluster cluster : clusterAtIndex) {
+			if(cluster != null && cluster.getEntities().size() == 1)
+				return true;
+		}
+		return false;
+	}
+}
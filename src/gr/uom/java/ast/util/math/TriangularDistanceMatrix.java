@@ -0,0 +1,57 @@
+package gr.uom.java.ast.util.math;
+
+/**
+ * A symmetric distance matrix with a zero diagonal, which stores only its lower triangle in a packed array.
+ * Rows (and the corresponding columns) can be retired in place, so that a clustering algorithm
+ * can remove merged clusters without copying the remaining distances.
+ */
+public class TriangularDistanceMatrix {
+
+	private double[] distances;
+	private boolean[] retired;
+	private int size;
+	private int numberOfActiveIndices;
+
+	public TriangularDistanceMatrix(int size) {
+		this.size = size;
+		this.distances = new double[size*(size-1)/2];
+		this.retired = new boolean[size];
+		this.numberOfActiveIndices = size;
+	}
+
+	private static int index(int i, int j) {
+		if(i < j)
+			return j*(j-1)/2 + i;
+		return i*(i-1)/2 + j;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double get(int i, int j) {
+		if(i == j)
+			return 0.0;
+		return distances[index(i, j)];
+	}
+
+	public void set(int i, int j, double distance) {
+		if(i != j)
+			distances[index(i, j)] = distance;
+	}
+
+	public void retire(int i) {
+		if(!retired[i]) {
+			retired[i] = true;
+			numberOfActiveIndices--;
+		}
+	}
+
+	public boolean isRetired(int i) {
+		return retired[i];
+	}
+
+	public int getNumberOfActiveIndices() {
+		return numberOfActiveIndices;
+	}
+}
@@ -0,0 +1,66 @@
+package gr.uom.java.distance;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Computes the Jaccard distances between the full entity sets of a list of entities.
+ * The entity strings are interned to dense integer ids, and each entity set is represented as a bitset,
+ * so that the size of the intersection and union of two sets is computed with Long.bitCount()
+ * without allocating any intermediate set.
+ */
+public class BitSetDistanceCalculator {
+
+	private long[][] entitySets;
+	private int[] entitySetSizes;
+
+	public BitSetDistanceCalculator(List<Entity> entities) {
+		Map<String, Integer> entityIdMap = new HashMap<String, Integer>();
+		int[][] entityIds = new int[entities.size()][];
+		for(int i=0; i<entities.size(); i++) {
+			Set<String> fullEntitySet = entities.get(i).getFullEntitySet();
+			int[] ids = new int[fullEntitySet.size()];
+			int j = 0;
+			for(String entity : fullEntitySet) {
+				Integer id = entityIdMap.get(entity);
+				if(id == null) {
+					id = entityIdMap.size();
+					entityIdMap.put(entity, id);
+				}
+				ids[j++] = id;
+			}
+			entityIds[i] = ids;
+		}
+		int numberOfWords = (entityIdMap.size() + 63) >>> 6;
+		this.entitySets = new long[entities.size()][numberOfWords];
+		this.entitySetSizes = new int[entities.size()];
+		for(int i=0; i<entityIds.length; i++) {
+			for(int id : entityIds[i]) {
+				entitySets[i][id >>> 6] |= 1L << (id & 63);
+			}
+			entitySetSizes[i] = entityIds[i].length;
+		}
+	}
+
+	public int getNumberOfEntities() {
+		return entitySets.length;
+	}
+
+	/*
+	 * Returns the same value as DistanceCalculator.getDistance() for the full entity sets of the entities at the given positions.
+	 */
+	public double getDistance(int i, int j) {
+		if(entitySetSizes[i] == 0 && entitySetSizes[j] == 0)
+			return 1.0;
+		long[] set1 = entitySets[i];
+		long[] set2 = entitySets[j];
+		int intersectionSize = 0;
+		for(int k=0; k<set1.length; k++) {
+			intersectionSize += Long.bitCount(set1[k] & set2[k]);
+		}
+		int unionSize = entitySetSizes[i] + entitySetSizes[j] - intersectionSize;
+		return 1.0 - (double)intersectionSize/(double)unionSize;
+	}
+}
@@ -1,21 +1,28 @@
 package gr.uom.java.distance;
 
-import gr.uom.java.ast.ASTReader;
 import gr.uom.java.ast.ClassObject;
+import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.FieldInstructionObject;
 import gr.uom.java.ast.MethodInvocationObject;
 import gr.uom.java.ast.MethodObject;
 import gr.uom.java.ast.ParameterObject;
 import gr.uom.java.ast.association.Association;
+import gr.uom.java.ast.util.CandidateSink;
+import gr.uom.java.ast.util.ParallelTaskRunner;
 import gr.uom.java.ast.util.math.Cluster;
 import gr.uom.java.ast.util.math.Clustering;
+import gr.uom.java.ast.util.math.TriangularDistanceMatrix;
 import gr.uom.java.jdeodorant.preferences.PreferenceConstants;
 import gr.uom.java.jdeodorant.refactoring.Activator;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.MethodInvocation;
@@ -23,6 +30,7 @@ import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 public class DistanceMatrix {
+    private static final int PARALLEL_IDENTIFICATION_THRESHOLD = 8;
     private Map<String,Integer> entityIndexMap;
     private Map<String,Integer> classIndexMap;
     private List<Entity> entityList;
@@ -31,9 +39,16 @@ public class DistanceMatrix {
     private Map<String,Set<String>> entityMap;
     //holds the entity set of each class
     private Map<String,Set<String>> classMap;
+    //holds the parsed form of each entity string contained in the entity sets of the entities
+    private Map<String,EntityKey> entityKeyMap;
+    //holds the superclass of each class of the system having a superclass
+    private Map<String,String> superclassMap;
     private MySystem system;
     private int maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidate;
     private int maximumNumberOfSourceClassMembersAccessedByExtractClassCandidate;
+    private boolean parallelIdentification;
+    //a type root is walked by a single thread at a time, since the AST nodes and bindings of a CompilationUnit are not thread-safe
+    private ConcurrentHashMap<ITypeRoot,ReentrantLock> typeRootAccessLockMap;
 
     public DistanceMatrix(MySystem system) {
         this.system = system;
@@ -43,9 +58,13 @@ public class DistanceMatrix {
         classList = new ArrayList<MyClass>();
         entityMap = new LinkedHashMap<String,Set<String>>();
         classMap = new LinkedHashMap<String,Set<String>>();
+        entityKeyMap = new HashMap<String,EntityKey>();
+        superclassMap = new HashMap<String,String>();
+        typeRootAccessLockMap = new ConcurrentHashMap<ITypeRoot,ReentrantLock>();
         IPreferenceStore store = Activator.getDefault().getPreferenceStore();
 		this.maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidate = store.getInt(PreferenceConstants.P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_MOVE_METHOD_CANDIDATE);
 		this.maximumNumberOfSourceClassMembersAccessedByExtractClassCandidate = store.getInt(PreferenceConstants.P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_EXTRACT_CLASS_CANDIDATE);
+		this.parallelIdentification = store.getBoolean(PreferenceConstants.P_ENABLE_PARALLEL_IDENTIFICATION);
 		generateDistances();
     }
 
@@ -71,6 +90,27 @@ public class DistanceMatrix {
             classMap.put(myClass.getName(),myClass.getEntitySet());
         }
 
+        //class origins are shared among the entity keys, so that each class name is stored once
+        Map<String,String> classOriginMap = new HashMap<String,String>();
+        for(Set<String> entitySet : entityMap.values()) {
+            for(String entity : entitySet) {
+                if(!entityKeyMap.containsKey(entity)) {
+                    EntityKey entityKey = new EntityKey(entity);
+                    String classOrigin = classOriginMap.get(entityKey.getClassOrigin());
+                    if(classOrigin == null) {
+                        classOrigin = entityKey.getClassOrigin();
+                        classOriginMap.put(classOrigin, classOrigin);
+                    }
+                    entityKey.setClassOrigin(classOrigin);
+                    entityKeyMap.put(entity, entityKey);
+                }
+            }
+        }
+        for(ClassObject classObject : system.getSystemObject().getClassObjects()) {
+            if(classObject.getSuperclass() != null)
+                superclassMap.put(classObject.getName(), classObject.getSuperclass().getClassType());
+        }
+
         String[] entityNames = new String[entityList.size()];
         String[] classNames = new String[classList.size()];
         
@@ -187,86 +227,47 @@ public class DistanceMatrix {
 
     public List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByAccess(Set<String> classNamesToBeExamined, IProgressMonitor monitor) {
     	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
+    	if(monitor != null)
+    		monitor.beginTask("Identification of Move Method refactoring opportunities", entityList.size());
+    	if(parallelIdentification) {
+    		ParallelTaskRunner runner = new ParallelTaskRunner();
+    		candidateRefactoringList.addAll(runner.invoke(new MoveMethodCandidateIdentificationTask(classNamesToBeExamined, 0, entityList.size(), runner), monitor));
+    	}
+    	else {
+    		for(int i=0; i<entityList.size(); i++) {
+    			if(monitor != null && monitor.isCanceled())
+    				throw new OperationCanceledException();
+    			Entity entity = entityList.get(i);
+    			if(entity instanceof MyMethod && classNamesToBeExamined.contains(entity.getClassOrigin())) {
+    				candidateRefactoringList.addAll(getMoveMethodCandidateRefactoringsByAccess((MyMethod)entity));
+    			}
+    			if(monitor != null)
+    				monitor.worked(1);
+    		}
+    	}
+    	if(monitor != null)
+    		monitor.done();
+    	return candidateRefactoringList;
+    }
+
+    /*
+     * Passes the candidates of each examined method to the sink as soon as the method is processed,
+     * in the order of the entities of the system. The identification is serial, since the sink is called by the
+     * identifying thread, and stops as soon as the sink does not accept a candidate.
+     */
+    public void getMoveMethodCandidateRefactoringsByAccess(Set<String> classNamesToBeExamined, CandidateSink<MoveMethodCandidateRefactoring> sink, IProgressMonitor monitor) {
     	if(monitor != null)
     		monitor.beginTask("Identification of Move Method refactoring opportunities", entityList.size());
     	for(int i=0; i<entityList.size(); i++) {
     		if(monitor != null && monitor.isCanceled())
     			throw new OperationCanceledException();
     		Entity entity = entityList.get(i);
-    		if(entity instanceof MyMethod) {
-    			String sourceClass = entity.getClassOrigin();
-    			if(classNamesToBeExamined.contains(sourceClass)) {
-    				MyMethod method = (MyMethod)entity;
-    				Set<String> entitySetI = entityMap.get(entity.toString());
-    				Map<String, ArrayList<String>> accessMap = computeAccessMap(entitySetI);
-    				List<MoveMethodCandidateRefactoring> conceptuallyBoundRefactorings = identifyConceptualBindings(method, accessMap.keySet());
-    				if(!conceptuallyBoundRefactorings.isEmpty()) {
-    					candidateRefactoringList.addAll(conceptuallyBoundRefactorings);
-    				}
-    				else {
-    					//ArrayList<String> contains the target classes from which key number of entities are accessed
-    					TreeMap<Integer, ArrayList<String>> sortedByAccessMap = new TreeMap<Integer, ArrayList<String>>();
-    					for(String targetClass : accessMap.keySet()) {
-    						int numberOfAccessedEntities = accessMap.get(targetClass).size();
-    						if(sortedByAccessMap.containsKey(numberOfAccessedEntities)) {
-    							ArrayList<String> list = sortedByAccessMap.get(numberOfAccessedEntities);
-    							list.add(targetClass);
-    						}
-    						else {
-    							ArrayList<String> list = new ArrayList<String>();
-    							list.add(targetClass);
-    							sortedByAccessMap.put(numberOfAccessedEntities, list);
-    						}
-    					}
-
-    					boolean candidateFound = false;
-    					boolean sourceClassIsTarget = false;
-    					while(!candidateFound && !sourceClassIsTarget && !sortedByAccessMap.isEmpty()) {
-    						ArrayList<String> targetClasses = sortedByAccessMap.get(sortedByAccessMap.lastKey());
-							for(String targetClass : targetClasses) {
-								if(sourceClass.equals(targetClass)) {
-									sourceClassIsTarget = true;
-								}
-								else {
-									MyClass mySourceClass = classList.get(classIndexMap.get(sourceClass));
-									MyClass myTargetClass = classList.get(classIndexMap.get(targetClass));
-									MoveMethodCandidateRefactoring candidate = new MoveMethodCandidateRefactoring(system,mySourceClass,myTargetClass,method);
-									Map<MethodInvocation, MethodDeclaration> additionalMethodsToBeMoved = candidate.getAdditionalMethodsToBeMoved();
-									Collection<MethodDeclaration> values = additionalMethodsToBeMoved.values();
-									Set<String> methodEntitySet = entityMap.get(method.toString());
-									Set<String> sourceClassEntitySet = classMap.get(sourceClass);
-									Set<String> targetClassEntitySet = classMap.get(targetClass);
-									Set<String> intersectionWithSourceClass = DistanceCalculator.intersection(methodEntitySet, sourceClassEntitySet);
-									Set<String> intersectionWithTargetClass = DistanceCalculator.intersection(methodEntitySet, targetClassEntitySet);
-									Set<String> entitiesToRemoveFromIntersectionWithSourceClass = new LinkedHashSet<String>();
-									if(!values.isEmpty()) {
-										for(String s : intersectionWithSourceClass) {
-											int entityPosition = entityIndexMap.get(s);
-											Entity e = entityList.get(entityPosition);
-											if(e instanceof MyMethod) {
-												MyMethod invokedMethod = (MyMethod)e;
-												if(values.contains(invokedMethod.getMethodObject().getMethodDeclaration())) {
-													entitiesToRemoveFromIntersectionWithSourceClass.add(s);
-												}
-											}
-										}
-										intersectionWithSourceClass.removeAll(entitiesToRemoveFromIntersectionWithSourceClass);
-									}
-									if(intersectionWithTargetClass.size() >= intersectionWithSourceClass.size()) {
-										if(candidate.isApplicable() && !targetClassInheritedByAnotherCandidateTargetClass(targetClass, accessMap.keySet())) {
-											int sourceClassDependencies = candidate.getDistinctSourceDependencies();
-					    					int targetClassDependencies = candidate.getDistinctTargetDependencies();
-					    					if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidate &&
-					    							sourceClassDependencies < targetClassDependencies) {
-					    						candidateRefactoringList.add(candidate);
-					    					}
-											candidateFound = true;
-										}
-									}
-								}
-							}
-    						sortedByAccessMap.remove(sortedByAccessMap.lastKey());
-    					}
+    		if(entity instanceof MyMethod && classNamesToBeExamined.contains(entity.getClassOrigin())) {
+    			for(MoveMethodCandidateRefactoring candidate : getMoveMethodCandidateRefactoringsByAccess((MyMethod)entity)) {
+    				if(!sink.accept(candidate)) {
+    					if(monitor != null)
+    						monitor.done();
+    					return;
     				}
     			}
     		}
@@ -275,16 +276,162 @@ public class DistanceMatrix {
     	}
     	if(monitor != null)
     		monitor.done();
+    }
+
+    /*
+     * Reads only the DistanceMatrix, MySystem and SystemObject state built before the identification starts,
+     * and creates a new MoveMethodCandidateRefactoring for each examined target class,
+     * so it can be invoked for different methods concurrently.
+     * The candidates walk the ASTs of the source and candidate target classes, which are locked while the method
+     * is examined: they are pinned in the CompilationUnitCache, so that the identity checks between the AST nodes
+     * of the candidates (e.g., the additional methods to be moved) are not affected by the evictions caused by
+     * other threads, and they are accessed exclusively, so that no AST is walked by two threads at once.
+     */
+    private List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByAccess(MyMethod method) {
+    	String sourceClass = method.getClassOrigin();
+    	Set<String> entitySetI = entityMap.get(method.toString());
+    	Map<String, ArrayList<String>> accessMap = computeAccessMap(entitySetI);
+    	Set<String> lockedClasses = new LinkedHashSet<String>();
+    	lockedClasses.add(sourceClass);
+    	lockedClasses.addAll(accessMap.keySet());
+    	List<ITypeRoot> lockedTypeRoots = lockTypeRoots(lockedClasses);
+    	try {
+    		return getMoveMethodCandidateRefactoringsByAccess(method, accessMap);
+    	}
+    	finally {
+    		releaseTypeRoots(lockedTypeRoots);
+    	}
+    }
+
+    private List<MoveMethodCandidateRefactoring> getMoveMethodCandidateRefactoringsByAccess(MyMethod method, Map<String, ArrayList<String>> accessMap) {
+    	List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
+    	String sourceClass = method.getClassOrigin();
+    	List<MoveMethodCandidateRefactoring> conceptuallyBoundRefactorings = identifyConceptualBindings(method, accessMap.keySet());
+    	if(!conceptuallyBoundRefactorings.isEmpty()) {
+    		candidateRefactoringList.addAll(conceptuallyBoundRefactorings);
+    	}
+    	else {
+    		//ArrayList<String> contains the target classes from which key number of entities are accessed
+    		TreeMap<Integer, ArrayList<String>> sortedByAccessMap = new TreeMap<Integer, ArrayList<String>>();
+    		for(String targetClass : accessMap.keySet()) {
+    			int numberOfAccessedEntities = accessMap.get(targetClass).size();
+    			if(sortedByAccessMap.containsKey(numberOfAccessedEntities)) {
+    				ArrayList<String> list = sortedByAccessMap.get(numberOfAccessedEntities);
+    				list.add(targetClass);
+    			}
+    			else {
+    				ArrayList<String> list = new ArrayList<String>();
+    				list.add(targetClass);
+    				sortedByAccessMap.put(numberOfAccessedEntities, list);
+    			}
+    		}
+
+    		boolean candidateFound = false;
+    		boolean sourceClassIsTarget = false;
+    		while(!candidateFound && !sourceClassIsTarget && !sortedByAccessMap.isEmpty()) {
+    			ArrayList<String> targetClasses = sortedByAccessMap.get(sortedByAccessMap.lastKey());
+				for(String targetClass : targetClasses) {
+					if(sourceClass.equals(targetClass)) {
+						sourceClassIsTarget = true;
+					}
+					else {
+						MyClass mySourceClass = classList.get(classIndexMap.get(sourceClass));
+						MyClass myTargetClass = classList.get(classIndexMap.get(targetClass));
+						MoveMethodCandidateRefactoring candidate = new MoveMethodCandidateRefactoring(system,mySourceClass,myTargetClass,method);
+						Map<MethodInvocation, MethodDeclaration> additionalMethodsToBeMoved = candidate.getAdditionalMethodsToBeMoved();
+						Collection<MethodDeclaration> values = additionalMethodsToBeMoved.values();
+						Set<String> methodEntitySet = entityMap.get(method.toString());
+						Set<String> sourceClassEntitySet = classMap.get(sourceClass);
+						Set<String> targetClassEntitySet = classMap.get(targetClass);
+						Set<String> intersectionWithSourceClass = DistanceCalculator.intersection(methodEntitySet, sourceClassEntitySet);
+						Set<String> intersectionWithTargetClass = DistanceCalculator.intersection(methodEntitySet, targetClassEntitySet);
+						Set<String> entitiesToRemoveFromIntersectionWithSourceClass = new LinkedHashSet<String>();
+						if(!values.isEmpty()) {
+							for(String s : intersectionWithSourceClass) {
+								int entityPosition = entityIndexMap.get(s);
+								Entity e = entityList.get(entityPosition);
+								if(e instanceof MyMethod) {
+									MyMethod invokedMethod = (MyMethod)e;
+									if(values.contains(invokedMethod.getMethodObject().getMethodDeclaration())) {
+										entitiesToRemoveFromIntersectionWithSourceClass.add(s);
+									}
+								}
+							}
+							intersectionWithSourceClass.removeAll(entitiesToRemoveFromIntersectionWithSourceClass);
+						}
+						if(intersectionWithTargetClass.size() >= intersectionWithSourceClass.size()) {
+							if(candidate.isApplicable() && !targetClassInheritedByAnotherCandidateTargetClass(targetClass, accessMap.keySet())) {
+								int sourceClassDependencies = candidate.getDistinctSourceDependencies();
+		    					int targetClassDependencies = candidate.getDistinctTargetDependencies();
+		    					if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByMoveMethodCandidate &&
+		    							sourceClassDependencies < targetClassDependencies) {
+		    						candidateRefactoringList.add(candidate);
+		    					}
+								candidateFound = true;
+							}
+						}
+					}
+				}
+    			sortedByAccessMap.remove(sortedByAccessMap.lastKey());
+    		}
+    	}
     	return candidateRefactoringList;
     }
 
+    /*
+     * Splits the range of entities in halves until it contains at most PARALLEL_IDENTIFICATION_THRESHOLD entities.
+     * The candidates of the two halves are concatenated in the order of the entities,
+     * so the result (and its order after sorting) is the same as in the serial identification.
+     */
+    private class MoveMethodCandidateIdentificationTask extends RecursiveTask<List<MoveMethodCandidateRefactoring>> {
+    	private static final long serialVersionUID = 1L;
+    	private Set<String> classNamesToBeExamined;
+    	private int start;
+    	private int end;
+    	private ParallelTaskRunner runner;
+
+    	public MoveMethodCandidateIdentificationTask(Set<String> classNamesToBeExamined, int start, int end, ParallelTaskRunner runner) {
+    		this.classNamesToBeExamined = classNamesToBeExamined;
+    		this.start = start;
+    		this.end = end;
+    		this.runner = runner;
+    	}
+
+    	protected List<MoveMethodCandidateRefactoring> compute() {
+    		List<MoveMethodCandidateRefactoring> candidateRefactoringList = new ArrayList<MoveMethodCandidateRefactoring>();
+    		if(runner.isCanceled()) {
+    			return candidateRefactoringList;
+    		}
+    		if(end - start <= PARALLEL_IDENTIFICATION_THRESHOLD) {
+    			for(int i=start; i<end && !runner.isCanceled(); i++) {
+    				Entity entity = entityList.get(i);
+    				if(entity instanceof MyMethod && classNamesToBeExamined.contains(entity.getClassOrigin())) {
+    					candidateRefactoringList.addAll(getMoveMethodCandidateRefactoringsByAccess((MyMethod)entity));
+    				}
+    				runner.worked(1);
+    			}
+    			return candidateRefactoringList;
+    		}
+    		int middle = (start + end)/2;
+    		MoveMethodCandidateIdentificationTask firstHalf = new MoveMethodCandidateIdentificationTask(classNamesToBeExamined, start, middle, runner);
+    		MoveMethodCandidateIdentificationTask secondHalf = new MoveMethodCandidateIdentificationTask(classNamesToBeExamined, middle, end, runner);
+    		firstHalf.fork();
+    		List<MoveMethodCandidateRefactoring> secondHalfCandidates = secondHalf.compute();
+    		candidateRefactoringList.addAll(firstHalf.join());
+    		candidateRefactoringList.addAll(secondHalfCandidates);
+    		return candidateRefactoringList;
+    	}
+    }
+
 	private Map<String, ArrayList<String>> computeAccessMap(Set<String> entitySetI) {
 		//ArrayList<String> contains the accessed entities per target class (key)
 		Map<String, ArrayList<String>> accessMap = new LinkedHashMap<String, ArrayList<String>>();
 		for(String e : entitySetI) {
-			String[] tokens = e.split("::");
-			String classOrigin = tokens[0];
-			String entityName = tokens[1];
+			EntityKey entityKey = entityKeyMap.get(e);
+			if(entityKey == null)
+				entityKey = new EntityKey(e);
+			String classOrigin = entityKey.getClassOrigin();
+			String entityName = entityKey.getMemberName();
 			if(accessMap.containsKey(classOrigin)) {
 				ArrayList<String> list = accessMap.get(classOrigin);
 				list.add(entityName);
@@ -295,15 +442,12 @@ public class DistanceMatrix {
 				accessMap.put(classOrigin, list);
 			}
 		}
+		//a class has a single superclass, so at most one other key of the access map can be the superclass of a key
 		for(String key1 : accessMap.keySet()) {
-			ClassObject classObject = ASTReader.getSystemObject().getClassObject(key1);
-			if(classObject != null && classObject.getSuperclass() != null) {
-				for(String key2 : accessMap.keySet()) {
-					if(classObject.getSuperclass().getClassType().equals(key2)) {
-						ArrayList<String> list = accessMap.get(key1);
-						list.addAll(accessMap.get(key2));
-					}
-				}
+			String superclass = superclassMap.get(key1);
+			if(superclass != null && accessMap.containsKey(superclass)) {
+				ArrayList<String> list = accessMap.get(key1);
+				list.addAll(accessMap.get(superclass));
 			}
 		}
 		return accessMap;
@@ -322,51 +466,188 @@ public class DistanceMatrix {
     	}
     	if(monitor != null)
     		monitor.beginTask("Identification of Extract Class refactoring opportunities", oldClasses.size());
+    	if(parallelIdentification) {
+    		ParallelTaskRunner runner = new ParallelTaskRunner();
+    		candidateList.addAll(runner.invoke(new ExtractClassCandidateIdentificationTask(oldClasses, runner), monitor));
+    	}
+    	else {
+    		for(MyClass sourceClass : oldClasses) {
+    			if(monitor != null && monitor.isCanceled())
+    				throw new OperationCanceledException();
+    			candidateList.addAll(getExtractClassCandidateRefactorings(sourceClass));
+    			if(monitor != null)
+    				monitor.worked(1);
+    		}
+    	}
+    	if(monitor != null)
+    		monitor.done();
+    	return candidateList;
+    }
 
+    /*
+     * Passes the candidates of each examined class to the sink as a group, as soon as the class is processed.
+     * The identification is serial, and stops as soon as the sink does not accept a group.
+     */
+    public void getExtractClassCandidateGroups(Set<String> classNamesToBeExamined, CandidateSink<ExtractClassCandidateGroup> sink, IProgressMonitor monitor) {
+    	Iterator<MyClass> classIt = system.getClassIterator();
+    	ArrayList<MyClass> oldClasses = new ArrayList<MyClass>();
+
+    	while(classIt.hasNext()) {
+    		MyClass myClass = classIt.next();
+    		if(classNamesToBeExamined.contains(myClass.getName())) {
+    			oldClasses.add(myClass);
+    		}
+    	}
+    	if(monitor != null)
+    		monitor.beginTask("Identification of Extract Class refactoring opportunities", oldClasses.size());
     	for(MyClass sourceClass : oldClasses) {
     		if(monitor != null && monitor.isCanceled())
     			throw new OperationCanceledException();
-    		if (!sourceClass.getMethodList().isEmpty() && !sourceClass.getAttributeList().isEmpty()) {
-    			double[][] distanceMatrix = getJaccardDistanceMatrix(sourceClass);
-				Clustering clustering = Clustering.getInstance(0, distanceMatrix);
-				ArrayList<Entity> entities = new ArrayList<Entity>();
-				entities.addAll(sourceClass.getAttributeList());
-				entities.addAll(sourceClass.getMethodList());
-				HashSet<Cluster> clusters = clustering.clustering(entities);
-				for (Cluster cluster : clusters) {
-    				ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, cluster.getEntities());
-    				if (candidate.isApplicable()) {
-    					int sourceClassDependencies = candidate.getDistinctSourceDependencies();
-    					int extractedClassDependencies = candidate.getDistinctTargetDependencies();
-    					if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByExtractClassCandidate &&
-    							sourceClassDependencies < extractedClassDependencies) {
-    						candidateList.add(candidate);
-    					}
-    				}
+    		List<ExtractClassCandidateRefactoring> candidateList = getExtractClassCandidateRefactorings(sourceClass);
+    		if(!candidateList.isEmpty()) {
+    			ExtractClassCandidateGroup group = new ExtractClassCandidateGroup(candidateList.get(0).getSourceEntity());
+    			for(ExtractClassCandidateRefactoring candidate : candidateList) {
+    				group.addCandidate(candidate);
     			}
-    			// Clustering End
+    			group.groupConcepts();
+    			if(!sink.accept(group))
+    				break;
     		}
     		if(monitor != null)
     			monitor.worked(1);
     	}
     	if(monitor != null)
     		monitor.done();
+    }
+
+    /*
+     * The source class is locked while its candidates are created, so that the AST nodes recovered by the candidates
+     * are neither evicted nor walked by other threads (e.g., for another class of the same compilation unit).
+     */
+    private List<ExtractClassCandidateRefactoring> getExtractClassCandidateRefactorings(MyClass sourceClass) {
+    	List<ITypeRoot> lockedTypeRoots = lockTypeRoots(Collections.singleton(sourceClass.getName()));
+    	try {
+    		return createExtractClassCandidateRefactorings(sourceClass);
+    	}
+    	finally {
+    		releaseTypeRoots(lockedTypeRoots);
+    	}
+    }
+
+    private List<ExtractClassCandidateRefactoring> createExtractClassCandidateRefactorings(MyClass sourceClass) {
+    	List<ExtractClassCandidateRefactoring> candidateList = new ArrayList<ExtractClassCandidateRefactoring>();
+    	if (!sourceClass.getMethodList().isEmpty() && !sourceClass.getAttributeList().isEmpty()) {
+    		TriangularDistanceMatrix distanceMatrix = getJaccardDistanceMatrix(sourceClass);
+    		Clustering clustering = Clustering.getInstance(Clustering.NEAREST_NEIGHBOR_HIERARCHICAL, distanceMatrix);
+    		ArrayList<Entity> entities = new ArrayList<Entity>();
+    		entities.addAll(sourceClass.getAttributeList());
+    		entities.addAll(sourceClass.getMethodList());
+    		HashSet<Cluster> clusters = clustering.clustering(entities);
+    		for (Cluster cluster : clusters) {
+    			ExtractClassCandidateRefactoring candidate = new ExtractClassCandidateRefactoring(system, sourceClass, cluster.getEntities());
+    			if (candidate.isApplicable()) {
+    				int sourceClassDependencies = candidate.getDistinctSourceDependencies();
+    				int extractedClassDependencies = candidate.getDistinctTargetDependencies();
+    				if(sourceClassDependencies <= maximumNumberOfSourceClassMembersAccessedByExtractClassCandidate &&
+    						sourceClassDependencies < extractedClassDependencies) {
+    					candidateList.add(candidate);
+    				}
+    			}
+    		}
+    	}
     	return candidateList;
     }
 
-	public double[][] getJaccardDistanceMatrix(MyClass sourceClass) {
+    /*
+     * Splits the source classes in halves until a single class is left. The candidates of the two halves are
+     * concatenated in the order of the source classes, so the result is the same as in the serial identification.
+     */
+    private class ExtractClassCandidateIdentificationTask extends RecursiveTask<List<ExtractClassCandidateRefactoring>> {
+    	private static final long serialVersionUID = 1L;
+    	private List<MyClass> sourceClasses;
+    	private ParallelTaskRunner runner;
+
+    	public ExtractClassCandidateIdentificationTask(List<MyClass> sourceClasses, ParallelTaskRunner runner) {
+    		this.sourceClasses = sourceClasses;
+    		this.runner = runner;
+    	}
+
+    	protected List<ExtractClassCandidateRefactoring> compute() {
+    		if(runner.isCanceled() || sourceClasses.isEmpty()) {
+    			return new ArrayList<ExtractClassCandidateRefactoring>();
+    		}
+    		if(sourceClasses.size() == 1) {
+    			List<ExtractClassCandidateRefactoring> candidateList = getExtractClassCandidateRefactorings(sourceClasses.get(0));
+    			runner.worked(1);
+    			return candidateList;
+    		}
+    		int middle = sourceClasses.size()/2;
+    		ExtractClassCandidateIdentificationTask firstHalf = new ExtractClassCandidateIdentificationTask(sourceClasses.subList(0, middle), runner);
+    		ExtractClassCandidateIdentificationTask secondHalf = new ExtractClassCandidateIdentificationTask(sourceClasses.subList(middle, sourceClasses.size()), runner);
+    		firstHalf.fork();
+    		List<ExtractClassCandidateRefactoring> secondHalfCandidates = secondHalf.compute();
+    		List<ExtractClassCandidateRefactoring> candidateList = firstHalf.join();
+    		candidateList.addAll(secondHalfCandidates);
+    		return candidateList;
+    	}
+    }
+
+	/*
+	 * Pins the type roots of the classes in the CompilationUnitCache and acquires exclusive access to them.
+	 * The access locks are acquired in the order of the handle identifiers of the type roots,
+	 * so that threads locking overlapping sets of type roots cannot deadlock.
+	 */
+	private List<ITypeRoot> lockTypeRoots(Collection<String> classNames) {
+		List<ITypeRoot> lockedTypeRoots = new ArrayList<ITypeRoot>();
+		for(String className : classNames) {
+			MyClass myClass = system.getClass(className);
+			if(myClass != null) {
+				ITypeRoot typeRoot = myClass.getClassObject().getITypeRoot();
+				if(typeRoot != null && !lockedTypeRoots.contains(typeRoot)) {
+					lockedTypeRoots.add(typeRoot);
+				}
+			}
+		}
+		Collections.sort(lockedTypeRoots, new Comparator<ITypeRoot>() {
+			public int compare(ITypeRoot typeRoot1, ITypeRoot typeRoot2) {
+				return typeRoot1.getHandleIdentifier().compareTo(typeRoot2.getHandleIdentifier());
+			}
+		});
+		for(ITypeRoot typeRoot : lockedTypeRoots) {
+			CompilationUnitCache.getInstance().lock(typeRoot);
+			getTypeRootAccessLock(typeRoot).lock();
+		}
+		return lockedTypeRoots;
+	}
+
+	private ReentrantLock getTypeRootAccessLock(ITypeRoot typeRoot) {
+		ReentrantLock accessLock = typeRootAccessLockMap.get(typeRoot);
+		if(accessLock == null) {
+			ReentrantLock newAccessLock = new ReentrantLock();
+			accessLock = typeRootAccessLockMap.putIfAbsent(typeRoot, newAccessLock);
+			if(accessLock == null)
+				accessLock = newAccessLock;
+		}
+		return accessLock;
+	}
+
+	private void releaseTypeRoots(List<ITypeRoot> lockedTypeRoots) {
+		for(int i=lockedTypeRoots.size()-1; i>=0; i--) {
+			ITypeRoot typeRoot = lockedTypeRoots.get(i);
+			getTypeRootAccessLock(typeRoot).unlock();
+			CompilationUnitCache.getInstance().releaseLock(typeRoot);
+		}
+	}
+
+	public TriangularDistanceMatrix getJaccardDistanceMatrix(MyClass sourceClass) {
 		ArrayList<Entity> entities = new ArrayList<Entity>();
 		entities.addAll(sourceClass.getAttributeList());
 		entities.addAll(sourceClass.getMethodList());
-		double[][] jaccardDistanceMatrix = new double[entities.size()][entities.size()];
-		for(int i=0; i<jaccardDistanceMatrix.length; i++) {
-			for(int j=0; j<jaccardDistanceMatrix.length; j++) {
-				if(i != j) {
-					jaccardDistanceMatrix[i][j] = DistanceCalculator.getDistance(entities.get(i).getFullEntitySet(), entities.get(j).getFullEntitySet());
-				}
-				else {
-					jaccardDistanceMatrix[i][j] = 0.0;
-				}
+		BitSetDistanceCalculator distanceCalculator = new BitSetDistanceCalculator(entities);
+		TriangularDistanceMatrix jaccardDistanceMatrix = new TriangularDistanceMatrix(entities.size());
+		for(int i=1; i<jaccardDistanceMatrix.size(); i++) {
+			for(int j=0; j<i; j++) {
+				jaccardDistanceMatrix.set(i, j, distanceCalculator.getDistance(i, j));
 			}
 		}
 		return jaccardDistanceMatrix;
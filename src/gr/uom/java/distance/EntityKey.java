@@ -0,0 +1,33 @@
+package gr.uom.java.distance;
+
+/*
+ * The parsed form of an entity string of the form "classOrigin::member",
+ * created once per distinct entity string, so that the class origin and the member name
+ * do not have to be extracted with String.split() every time the entity is examined.
+ */
+public class EntityKey {
+	private static final String SEPARATOR = "::";
+	private String classOrigin;
+	private String memberName;
+
+	public EntityKey(String entity) {
+		int separatorIndex = entity.indexOf(SEPARATOR);
+		int memberEndIndex = entity.indexOf(SEPARATOR, separatorIndex + SEPARATOR.length());
+		if(memberEndIndex == -1)
+			memberEndIndex = entity.length();
+		this.classOrigin = entity.substring(0, separatorIndex);
+		this.memberName = entity.substring(separatorIndex + SEPARATOR.length(), memberEndIndex);
+	}
+
+	public String getClassOrigin() {
+		return classOrigin;
+	}
+
+	public String getMemberName() {
+		return memberName;
+	}
+
+	void setClassOrigin(String classOrigin) {
+		this.classOrigin = classOrigin;
+	}
+}
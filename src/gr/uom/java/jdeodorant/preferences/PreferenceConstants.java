@@ -23,6 +23,16 @@ public class PreferenceConstants {
 	
 	public static final String P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE = "libraryCompilationUnitCacheSize";
 	
+	public static final String P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY = "libraryCompilationUnitCacheMemory";
+	
+	public static final String P_PDG_CACHE_SIZE = "pdgCacheSize";
+	
+	public static final String P_ENABLE_SYSTEM_OBJECT_SNAPSHOT = "enableSystemObjectSnapshot";
+	
+	public static final String P_ENABLE_PARALLEL_PARSING = "enableParallelParsing";
+	
+	public static final String P_ENABLE_PARALLEL_IDENTIFICATION = "enableParallelIdentification";
+	
 	public static final String P_ENABLE_USAGE_REPORTING = "enableUsageReporting";
 	
 	public static final String P_ENABLE_SOURCE_CODE_REPORTING = "enableSourceCodeReporting";
@@ -26,6 +26,11 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 		store.setDefault(PreferenceConstants.P_ENABLE_ALIAS_ANALYSIS, true);
 		store.setDefault(PreferenceConstants.P_PROJECT_COMPILATION_UNIT_CACHE_SIZE, 20);
 		store.setDefault(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_SIZE, 50);
+		store.setDefault(PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY, 64);
+		store.setDefault(PreferenceConstants.P_PDG_CACHE_SIZE, 100);
+		store.setDefault(PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT, false);
+		store.setDefault(PreferenceConstants.P_ENABLE_PARALLEL_PARSING, false);
+		store.setDefault(PreferenceConstants.P_ENABLE_PARALLEL_IDENTIFICATION, false);
 		store.setDefault(PreferenceConstants.P_ENABLE_USAGE_REPORTING, true);
 		store.setDefault(PreferenceConstants.P_ENABLE_SOURCE_CODE_REPORTING, false);
 		store.setDefault(PreferenceConstants.P_MAXIMUM_NUMBER_OF_SOURCE_CLASS_MEMBERS_ACCESSED_BY_MOVE_METHOD_CANDIDATE, 2);
@@ -37,6 +37,11 @@ public class PropertyManagerPreferencePage
 	private BooleanFieldEditor enableAliasAnalysisFieldEditor;
 	private IntegerFieldEditor projectCompilationUnitCacheSizeFieldEditor;
 	private IntegerFieldEditor libraryCompilationUnitCacheSizeFieldEditor;
+	private IntegerFieldEditor libraryCompilationUnitCacheMemoryFieldEditor;
+	private IntegerFieldEditor pdgCacheSizeFieldEditor;
+	private BooleanFieldEditor enableSystemObjectSnapshotFieldEditor;
+	private BooleanFieldEditor enableParallelParsingFieldEditor;
+	private BooleanFieldEditor enableParallelIdentificationFieldEditor;
 	private BooleanFieldEditor enableUsageReportingFieldEditor;
 	private BooleanFieldEditor enableSourceCodeReportingFieldEditor;
 	private IntegerFieldEditor maximumSourceClassAccessedMembersByMoveMethodCandidate;
@@ -142,6 +147,37 @@ public class PropertyManagerPreferencePage
 		libraryCompilationUnitCacheSizeFieldEditor.setEmptyStringAllowed(false);
 		addField(libraryCompilationUnitCacheSizeFieldEditor);
 		
+		libraryCompilationUnitCacheMemoryFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_LIBRARY_COMPILATION_UNIT_CACHE_MEMORY,
+				"&Library CompilationUnit cache memory (MB):", compilationUnitCachePreferenceGroup);
+		libraryCompilationUnitCacheMemoryFieldEditor.setEmptyStringAllowed(false);
+		addField(libraryCompilationUnitCacheMemoryFieldEditor);
+		
+		pdgCacheSizeFieldEditor = new IntegerFieldEditor(
+				PreferenceConstants.P_PDG_CACHE_SIZE,
+				"&Program dependence graph cache size (methods):", compilationUnitCachePreferenceGroup);
+		pdgCacheSizeFieldEditor.setEmptyStringAllowed(false);
+		addField(pdgCacheSizeFieldEditor);
+		
+		enableSystemObjectSnapshotFieldEditor = new BooleanFieldEditor(
+				PreferenceConstants.P_ENABLE_SYSTEM_OBJECT_SNAPSHOT,
+				"&Keep an on-disk snapshot of the parsed project for faster restart", compilationUnitCachePreferenceGroup);
+		addField(enableSystemObjectSnapshotFieldEditor);
+		
+		Group parallelProcessingPreferenceGroup = new Group(composite, SWT.SHADOW_ETCHED_IN);
+		parallelProcessingPreferenceGroup.setLayout(new GridLayout(1, false));
+		parallelProcessingPreferenceGroup.setText("Parallel Processing Preferences");
+		
+		enableParallelParsingFieldEditor = new BooleanFieldEditor(
+				PreferenceConstants.P_ENABLE_PARALLEL_PARSING,
+				"&Enable parallel parsing of compilation units", parallelProcessingPreferenceGroup);
+		addField(enableParallelParsingFieldEditor);
+		
+		enableParallelIdentificationFieldEditor = new BooleanFieldEditor(
+				PreferenceConstants.P_ENABLE_PARALLEL_IDENTIFICATION,
+				"&Enable parallel identification of refactoring opportunities", parallelProcessingPreferenceGroup);
+		addField(enableParallelIdentificationFieldEditor);
+		
 		Group usageReportingGroup = new Group(composite, SWT.SHADOW_ETCHED_IN);
 		usageReportingGroup.setLayout(new GridLayout(1, false));
 		usageReportingGroup.setText("Usage Reporting");
@@ -296,6 +332,40 @@ public class PropertyManagerPreferencePage
 			setValid(false);
 			return;
 		}
+		try {
+			int libraryCompilationUnitCacheMemory = libraryCompilationUnitCacheMemoryFieldEditor.getIntValue();
+			if(libraryCompilationUnitCacheMemory >= 1) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Cache memory must be >= 1 MB");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Cache memory must be an Integer");
+			setValid(false);
+			return;
+		}
+		try {
+			int pdgCacheSize = pdgCacheSizeFieldEditor.getIntValue();
+			if(pdgCacheSize >= 0) {
+				setErrorMessage(null);
+				setValid(true);
+			}
+			else {
+				setErrorMessage("Program dependence graph cache size must be >= 0");
+				setValid(false);
+				return;
+			}
+		}
+		catch(NumberFormatException e) {
+			setErrorMessage("Cache size must be an Integer");
+			setValid(false);
+			return;
+		}
 		try {
 			int sourceClassAccessedMembers = maximumSourceClassAccessedMembersByMoveMethodCandidate.getIntValue();
 			if(sourceClassAccessedMembers >= 0) {
@@ -0,0 +1,291 @@
+package gr.uom.java.jdeodorant.refactoring;
+
+import gr.uom.java.ast.ASTReader;
+import gr.uom.java.ast.CompilationErrorDetectedException;
+import gr.uom.java.ast.CompilationUnitCache;
+import gr.uom.java.ast.Standalone;
+import gr.uom.java.ast.SystemObject;
+import gr.uom.java.ast.util.CandidateSink;
+import gr.uom.java.distance.ExtractClassCandidateGroup;
+import gr.uom.java.distance.ExtractClassCandidateRefactoring;
+import gr.uom.java.distance.MoveMethodCandidateRefactoring;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSlice;
+import gr.uom.java.jdeodorant.refactoring.manipulators.ASTSliceGroup;
+import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckElimination;
+import gr.uom.java.jdeodorant.refactoring.manipulators.TypeCheckEliminationGroup;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/*
+ * Headless entry point, which parses each project once and runs all the selected detectors against the same
+ * SystemObject, writing every refactoring opportunity as a JSON object on a separate line as soon as it is identified.
+ * Usage: -application gr.uom.java.jdeodorant.BatchAnalysis -data <workspace>
+ *        [-project <name>]... [-smells featureEnvy,godClass,typeChecking,longMethod] [-output <file>]
+ * If no project is given, all the open Java projects of the workspace are analyzed.
+ * The output is written to the standard output, unless an output file is given.
+ */
+public class BatchAnalysisApplication implements IApplication {
+	private static final String FEATURE_ENVY = "featureEnvy";
+	private static final String GOD_CLASS = "godClass";
+	private static final String TYPE_CHECKING = "typeChecking";
+	private static final String LONG_METHOD = "longMethod";
+	private static final List<String> SMELLS = Arrays.asList(FEATURE_ENVY, GOD_CLASS, TYPE_CHECKING, LONG_METHOD);
+	private static final Integer EXIT_ERROR = Integer.valueOf(1);
+
+	public Object start(IApplicationContext context) throws Exception {
+		String[] args = (String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		if(args == null)
+			args = new String[0];
+		List<String> projectNames = new ArrayList<String>();
+		Set<String> smells = new LinkedHashSet<String>(SMELLS);
+		String outputFile = null;
+		for(int i=0; i<args.length; i++) {
+			if(args[i].equals("-project") && i+1 < args.length) {
+				projectNames.add(args[++i]);
+			}
+			else if(args[i].equals("-smells") && i+1 < args.length) {
+				smells = new LinkedHashSet<String>(Arrays.asList(args[++i].split(",")));
+				if(!SMELLS.containsAll(smells)) {
+					System.err.println("Unknown smell in " + smells + ", expected one of " + SMELLS);
+					return EXIT_ERROR;
+				}
+			}
+			else if(args[i].equals("-output") && i+1 < args.length) {
+				outputFile = args[++i];
+			}
+		}
+		JSONLineWriter writer;
+		if(outputFile != null)
+			writer = new JSONLineWriter(new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8"));
+		else
+			writer = new JSONLineWriter(new OutputStreamWriter(System.out, "UTF-8"));
+		boolean errorsDetected = false;
+		try {
+			List<IJavaProject> javaProjects = getJavaProjects(projectNames, writer);
+			//the projects that could not be resolved have already been reported
+			if(javaProjects.size() < projectNames.size())
+				errorsDetected = true;
+			for(IJavaProject javaProject : javaProjects) {
+				if(!analyzeProject(javaProject, smells, writer))
+					errorsDetected = true;
+			}
+		}
+		finally {
+			if(outputFile != null)
+				writer.close();
+		}
+		return errorsDetected ? EXIT_ERROR : IApplication.EXIT_OK;
+	}
+
+	public void stop() {
+	}
+
+	private List<IJavaProject> getJavaProjects(List<String> projectNames, JSONLineWriter writer) throws CoreException, IOException {
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		List<IJavaProject> javaProjects = new ArrayList<IJavaProject>();
+		if(projectNames.isEmpty()) {
+			for(IProject project : root.getProjects()) {
+				if(project.isOpen() && project.hasNature(JavaCore.NATURE_ID))
+					javaProjects.add(JavaCore.create(project));
+			}
+		}
+		else {
+			for(String projectName : projectNames) {
+				IProject project = root.getProject(projectName);
+				if(!project.exists()) {
+					writer.writeLine(createErrorRecord(projectName, "project does not exist in the workspace"));
+					continue;
+				}
+				if(!project.isOpen())
+					project.open(null);
+				if(!project.hasNature(JavaCore.NATURE_ID)) {
+					writer.writeLine(createErrorRecord(projectName, "project is not a Java project"));
+					continue;
+				}
+				javaProjects.add(JavaCore.create(project));
+			}
+		}
+		return javaProjects;
+	}
+
+	//returns false if the project could not be analyzed
+	private boolean analyzeProject(IJavaProject javaProject, Set<String> smells, JSONLineWriter writer) throws CoreException, IOException {
+		final String projectName = javaProject.getElementName();
+		javaProject.getProject().refreshLocal(IResource.DEPTH_INFINITE, null);
+		CompilationUnitCache.getInstance().clearCache();
+		try {
+			new ASTReader(javaProject, null);
+		}
+		catch(CompilationErrorDetectedException e) {
+			List<String> errors = new ArrayList<String>();
+			for(IMarker marker : e.getMarkers()) {
+				errors.add(marker.getResource().getFullPath() + ":" + marker.getAttribute(IMarker.LINE_NUMBER, -1) + ": " +
+						marker.getAttribute(IMarker.MESSAGE, ""));
+			}
+			Map<String, Object> record = createErrorRecord(projectName, "compilation errors detected");
+			record.put("compilationErrors", errors);
+			writer.writeLine(record);
+			return false;
+		}
+		SystemObject systemObject = ASTReader.getSystemObject();
+		if(smells.contains(FEATURE_ENVY)) {
+			RecordSink<MoveMethodCandidateRefactoring> sink = new RecordSink<MoveMethodCandidateRefactoring>(writer) {
+				protected void write(MoveMethodCandidateRefactoring candidate) throws IOException {
+					writeLine(createRecord(projectName, FEATURE_ENVY, candidate));
+				}
+			};
+			Standalone.getMoveMethodRefactoringOpportunities(systemObject, sink);
+			sink.checkError();
+		}
+		if(smells.contains(GOD_CLASS)) {
+			RecordSink<ExtractClassCandidateGroup> sink = new RecordSink<ExtractClassCandidateGroup>(writer) {
+				protected void write(ExtractClassCandidateGroup group) throws IOException {
+					for(ExtractClassCandidateRefactoring candidate : group.getCandidates()) {
+						writeLine(createRecord(projectName, GOD_CLASS, candidate));
+					}
+				}
+			};
+			Standalone.getExtractClassRefactoringOpportunities(systemObject, sink);
+			sink.checkError();
+		}
+		if(smells.contains(TYPE_CHECKING)) {
+			RecordSink<TypeCheckEliminationGroup> sink = new RecordSink<TypeCheckEliminationGroup>(writer) {
+				protected void write(TypeCheckEliminationGroup group) throws IOException {
+					for(TypeCheckElimination candidate : group.getCandidates()) {
+						writeLine(createRecord(projectName, TYPE_CHECKING, candidate));
+					}
+				}
+			};
+			Standalone.getTypeCheckEliminationRefactoringOpportunities(systemObject, sink);
+			sink.checkError();
+		}
+		if(smells.contains(LONG_METHOD)) {
+			RecordSink<ASTSliceGroup> sink = new RecordSink<ASTSliceGroup>(writer) {
+				protected void write(ASTSliceGroup group) throws IOException {
+					for(ASTSlice candidate : group.getCandidates()) {
+						writeLine(createRecord(projectName, LONG_METHOD, candidate));
+					}
+				}
+			};
+			//the PDGs are not cached, since the slices are dropped as soon as they are written
+			Standalone.getExtractMethodRefactoringOpportunities(systemObject, sink, false);
+			sink.checkError();
+		}
+		return true;
+	}
+
+	/*
+	 * Writes the records of each candidate as soon as the detector identifies it, and retains no candidate afterwards.
+	 * Writing blocks the detector, which is thus throttled by the output. An I/O error stops the detector,
+	 * and is rethrown by checkError after the detector returns.
+	 */
+	private static abstract class RecordSink<T> implements CandidateSink<T> {
+		private JSONLineWriter writer;
+		private IOException exception;
+
+		public RecordSink(JSONLineWriter writer) {
+			this.writer = writer;
+		}
+
+		public boolean accept(T candidate) {
+			try {
+				write(candidate);
+				return true;
+			} catch (IOException e) {
+				exception = e;
+				return false;
+			}
+		}
+
+		protected abstract void write(T candidate) throws IOException;
+
+		protected void writeLine(Map<String, Object> record) throws IOException {
+			writer.writeLine(record);
+		}
+
+		public void checkError() throws IOException {
+			if(exception != null)
+				throw exception;
+		}
+	}
+
+	private static Map<String, Object> createErrorRecord(String projectName, String error) {
+		Map<String, Object> record = new LinkedHashMap<String, Object>();
+		record.put("project", projectName);
+		record.put("error", error);
+		return record;
+	}
+
+	private static Map<String, Object> createRecord(String projectName, String smell, String refactoring, IFile file) {
+		Map<String, Object> record = new LinkedHashMap<String, Object>();
+		record.put("project", projectName);
+		record.put("smell", smell);
+		record.put("refactoring", refactoring);
+		record.put("file", file != null ? file.getFullPath().toString() : null);
+		return record;
+	}
+
+	private static Map<String, Object> createRecord(String projectName, String smell, MoveMethodCandidateRefactoring candidate) {
+		Map<String, Object> record = createRecord(projectName, smell, "Move Method", candidate.getSourceIFile());
+		record.put("sourceEntity", candidate.getSourceEntity());
+		record.put("targetClass", candidate.getTarget());
+		record.put("sourceDependencies", candidate.getDistinctSourceDependencies());
+		record.put("targetDependencies", candidate.getDistinctTargetDependencies());
+		return record;
+	}
+
+	private static Map<String, Object> createRecord(String projectName, String smell, ExtractClassCandidateRefactoring candidate) {
+		Map<String, Object> record = createRecord(projectName, smell, "Extract Class", candidate.getSourceIFile());
+		record.put("sourceClass", candidate.getSourceEntity());
+		record.put("topics", candidate.getTopics());
+		record.put("extractedEntities", candidate.getEntitySet());
+		record.put("sourceDependencies", candidate.getDistinctSourceDependencies());
+		record.put("targetDependencies", candidate.getDistinctTargetDependencies());
+		return record;
+	}
+
+	private static Map<String, Object> createRecord(String projectName, String smell, TypeCheckElimination candidate) {
+		String refactoring = candidate.getExistingInheritanceTree() == null ?
+				"Replace Type Code with State/Strategy" : "Replace Conditional with Polymorphism";
+		Map<String, Object> record = createRecord(projectName, smell, refactoring, candidate.getTypeCheckIFile());
+		record.put("typeCheckMethod", candidate.toString());
+		record.put("abstractMethodName", candidate.getAbstractMethodName());
+		record.put("groupSizeAtClassLevel", candidate.getGroupSizeAtClassLevel());
+		record.put("averageNumberOfStatements", candidate.getAverageNumberOfStatements());
+		return record;
+	}
+
+	private static Map<String, Object> createRecord(String projectName, String smell, ASTSlice candidate) {
+		Map<String, Object> record = createRecord(projectName, smell, "Extract Method", candidate.getIFile());
+		String declaringClass = candidate.getSourceTypeDeclaration().resolveBinding().getQualifiedName();
+		String methodName = candidate.getSourceMethodDeclaration().resolveBinding().toString();
+		record.put("sourceMethod", declaringClass + "::" + methodName);
+		record.put("variableCriterion", candidate.getLocalVariableCriterion().getName().getIdentifier());
+		record.put("boundaryBlock", "B" + candidate.getBoundaryBlock().getId());
+		record.put("extractedMethodName", candidate.getExtractedMethodName());
+		record.put("sliceStatements", candidate.getNumberOfSliceStatements());
+		record.put("duplicatedStatements", candidate.getNumberOfDuplicatedStatements());
+		return record;
+	}
+}
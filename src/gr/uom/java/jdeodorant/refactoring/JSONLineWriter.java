@@ -0,0 +1,108 @@
+package gr.uom.java.jdeodorant.refactoring;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
+
+/*
+ * Writes each record as a JSON object on a separate line, and flushes the writer after every line,
+ * so that the records can be consumed while the analysis is still running.
+ * The values of a record may be null, strings, numbers, booleans, collections or maps with string keys.
+ */
+public class JSONLineWriter {
+	private Writer writer;
+
+	public JSONLineWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	public synchronized void writeLine(Map<String, ?> record) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		appendValue(sb, record);
+		sb.append('\n');
+		writer.write(sb.toString());
+		writer.flush();
+	}
+
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+	private static void appendValue(StringBuilder sb, Object value) {
+		if(value == null) {
+			sb.append("null");
+		}
+		else if(value instanceof Boolean) {
+			sb.append(value.toString());
+		}
+		else if(value instanceof Number) {
+			double doubleValue = ((Number)value).doubleValue();
+			if(Double.isNaN(doubleValue) || Double.isInfinite(doubleValue))
+				sb.append("null");
+			else
+				sb.append(value.toString());
+		}
+		else if(value instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>)value;
+			sb.append('{');
+			boolean first = true;
+			for(Map.Entry<?, ?> entry : map.entrySet()) {
+				if(!first)
+					sb.append(',');
+				appendString(sb, String.valueOf(entry.getKey()));
+				sb.append(':');
+				appendValue(sb, entry.getValue());
+				first = false;
+			}
+			sb.append('}');
+		}
+		else if(value instanceof Collection) {
+			Collection<?> collection = (Collection<?>)value;
+			sb.append('[');
+			boolean first = true;
+			for(Object element : collection) {
+				if(!first)
+					sb.append(',');
+				appendValue(sb, element);
+				first = false;
+			}
+			sb.append(']');
+		}
+		else {
+			appendString(sb, value.toString());
+		}
+	}
+
+	private static void appendString(StringBuilder sb, String value) {
+		sb.append('"');
+		for(int i=0; i<value.length(); i++) {
+			char c = value.charAt(i);
+			switch(c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if(c < 0x20) {
+					sb.append(String.format("\\u%04x", (int)c));
+				}
+				else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+}
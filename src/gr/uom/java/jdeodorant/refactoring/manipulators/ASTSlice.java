@@ -51,6 +51,11 @@ public class ASTSlice {
 	private boolean isObjectSlice;
 	private int methodSize;
 	private Integer userRate;
+	//the statement counts and the textual representation are kept when the AST nodes are detached
+	private int numberOfSliceStatements;
+	private int numberOfRemovableStatements;
+	private String qualifiedName;
+	private String description;
 	
 	public ASTSlice(PDGSlice pdgSlice) {
 		this.sourceMethodDeclaration = pdgSlice.getMethod().getMethodDeclaration();
@@ -402,6 +407,40 @@ public class ASTSlice {
 		return new Object[] {annotationMap, duplicationMap};
 	}
 
+	/*
+	 * Drops the references to the AST nodes and the PDG of the slice, so that they can be released while the slice
+	 * is still referenced, e.g., after it has been serialized. Afterwards, only the statement counts, the names
+	 * and the textual representation of the slice are available, and the accessors of the AST nodes return null.
+	 */
+	public void detachASTNodes() {
+		if(sliceStatements != null) {
+			this.numberOfSliceStatements = sliceStatements.size();
+			this.numberOfRemovableStatements = removableStatements.size();
+			this.qualifiedName = getQualifiedName();
+			this.description = toString();
+			this.sourceTypeDeclaration = null;
+			this.sourceMethodDeclaration = null;
+			this.sliceNodes = null;
+			this.sliceStatements = null;
+			this.removableStatements = null;
+			this.duplicatedStatements = null;
+			this.localVariableCriterion = null;
+			this.passedParameters = null;
+			this.variableCriterionDeclarationStatement = null;
+			this.extractedMethodInvocationInsertionStatement = null;
+			this.boundaryBlock = null;
+		}
+	}
+
+	//the declaring class, the method and the variable criterion of the slice
+	public String getQualifiedName() {
+		if(sliceStatements == null)
+			return qualifiedName;
+		return getSourceTypeDeclaration().resolveBinding().getQualifiedName() + "::" +
+		getSourceMethodDeclaration().resolveBinding().toString() + "::" +
+		getLocalVariableCriterion().getName().getIdentifier();
+	}
+
 	public String sliceToString() {
 		StringBuilder sb = new StringBuilder();
 		for(PDGNode sliceNode : sliceNodes) {
@@ -411,6 +450,8 @@ public class ASTSlice {
 	}
 
 	public String toString() {
+		if(sliceStatements == null)
+			return description;
 		int numberOfSliceStatements = getNumberOfSliceStatements();
 		int numberOfDuplicatedStatements = getNumberOfDuplicatedStatements();
 		return getSourceTypeDeclaration().resolveBinding().getQualifiedName() + "\t" +
@@ -421,12 +462,14 @@ public class ASTSlice {
 	}
 
 	public int getNumberOfSliceStatements() {
+		if(sliceStatements == null)
+			return numberOfSliceStatements;
 		return getSliceStatements().size();
 	}
 
 	public int getNumberOfDuplicatedStatements() {
 		int numberOfSliceStatements = getNumberOfSliceStatements();
-		int numberOfRemovableStatements = getRemovableStatements().size();
+		int numberOfRemovableStatements = removableStatements == null ? this.numberOfRemovableStatements : getRemovableStatements().size();
 		int numberOfDuplicatedStatements = numberOfSliceStatements - numberOfRemovableStatements;
 		return numberOfDuplicatedStatements;
 	}
@@ -34,6 +34,13 @@ public class ASTSliceGroup implements Comparable<ASTSliceGroup> {
 		return candidates;
 	}
 
+	//drops the AST nodes of the candidates, which can no longer be refactored but are still ordered and reported
+	public void detachASTNodes() {
+		for(ASTSlice slice : candidates) {
+			slice.detachASTNodes();
+		}
+	}
+
 	public TypeDeclaration getSourceTypeDeclaration() {
 		return ((ASTSlice)candidates.toArray()[0]).getSourceTypeDeclaration();
 	}
@@ -99,13 +106,8 @@ public class ASTSliceGroup implements Comparable<ASTSliceGroup> {
 		else if(averageNumberOfExtractedStatements1 > averageNumberOfExtractedStatements2)
 			return -1;
 		
-		String group1 = this.getSourceTypeDeclaration().resolveBinding().getQualifiedName() + "::" +
-						this.getSourceMethodDeclaration().resolveBinding().toString() + "::" +
-						this.getLocalVariableCriterion().getName().getIdentifier();
-		
-		String group2 = other.getSourceTypeDeclaration().resolveBinding().getQualifiedName() + "::" +
-						other.getSourceMethodDeclaration().resolveBinding().toString() + "::" +
-						other.getLocalVariableCriterion().getName().getIdentifier();
+		String group1 = ((ASTSlice)this.candidates.toArray()[0]).getQualifiedName();
+		String group2 = ((ASTSlice)other.candidates.toArray()[0]).getQualifiedName();
 		return group1.compareTo(group2);
 	}
 }
@@ -6,8 +6,8 @@ import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationErrorDetectedException;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 import gr.uom.java.ast.decomposition.cfg.mapping.PDGMapper;
 import gr.uom.java.ast.decomposition.cfg.mapping.PDGSubTreeMapper;
 import gr.uom.java.jdeodorant.refactoring.manipulators.ExtractCloneRefactoring;
@@ -93,10 +93,8 @@ public class CloneRefactoringAction implements IObjectActionDelegate {
 											ITypeRoot typeRoot2 = classObject2.getITypeRoot();
 											CompilationUnitCache.getInstance().lock(typeRoot1);
 											CompilationUnitCache.getInstance().lock(typeRoot2);
-											CFG cfg1 = new CFG(methodObject1);
-											final PDG pdg1 = new PDG(cfg1, classObject1.getIFile(), classObject1.getFieldsAccessedInsideMethod(methodObject1), monitor);
-											CFG cfg2 = new CFG(methodObject2);
-											final PDG pdg2 = new PDG(cfg2, classObject2.getIFile(), classObject2.getFieldsAccessedInsideMethod(methodObject2), monitor);
+											final PDG pdg1 = PDGCache.getInstance().getPDG(methodObject1, classObject1, monitor);
+											final PDG pdg2 = PDGCache.getInstance().getPDG(methodObject2, classObject2, monitor);
 											mapper = new PDGMapper(pdg1, pdg2, monitor);
 											//CompilationUnitCache.getInstance().releaseLock();
 										}
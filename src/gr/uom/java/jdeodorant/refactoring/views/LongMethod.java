@@ -23,9 +23,10 @@ import gr.uom.java.ast.ClassObject;
 import gr.uom.java.ast.CompilationErrorDetectedException;
 import gr.uom.java.ast.CompilationUnitCache;
 import gr.uom.java.ast.MethodObject;
+import gr.uom.java.ast.ParallelMethodProcessor;
 import gr.uom.java.ast.SystemObject;
-import gr.uom.java.ast.decomposition.cfg.CFG;
 import gr.uom.java.ast.decomposition.cfg.PDG;
+import gr.uom.java.ast.decomposition.cfg.PDGCache;
 import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnion;
 import gr.uom.java.ast.decomposition.cfg.PDGObjectSliceUnionCollection;
 import gr.uom.java.ast.decomposition.cfg.PDGSliceUnion;
@@ -739,7 +740,16 @@ public class LongMethod extends ViewPart {
 
 				ps.busyCursorWhile(new IRunnableWithProgress() {
 					public void run(IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
-						if(!classObjectsToBeExamined.isEmpty()) {
+						IPreferenceStore store = Activator.getDefault().getPreferenceStore();
+						if(!classObjectsToBeExamined.isEmpty() && store.getBoolean(PreferenceConstants.P_ENABLE_PARALLEL_IDENTIFICATION)) {
+							int workSize = 0;
+							for(ClassObject classObject : classObjectsToBeExamined) {
+								workSize += classObject.getNumberOfMethods();
+							}
+							monitor.beginTask("Identification of Extract Method refactoring opportunities", workSize);
+							processClassesInParallel(extractedSliceGroups, classObjectsToBeExamined, monitor);
+						}
+						else if(!classObjectsToBeExamined.isEmpty()) {
 							int workSize = 0;
 							for(ClassObject classObject : classObjectsToBeExamined) {
 								workSize += classObject.getNumberOfMethods();
@@ -789,6 +799,19 @@ public class LongMethod extends ViewPart {
 		return table;
 	}
 
+	//the slice groups are added in the order of the methods of the system, so that the table lists them as in the serial mode
+	private void processClassesInParallel(final List<ASTSliceGroup> extractedSliceGroups, Set<ClassObject> classObjectsToBeExamined, final IProgressMonitor monitor) {
+		new ParallelMethodProcessor<ASTSliceGroup>() {
+			protected void collectResults(List<ASTSliceGroup> sliceGroups, ClassObject classObject, MethodObject methodObject) {
+				processMethod(sliceGroups, classObject, methodObject);
+			}
+			protected void handleResults(List<ASTSliceGroup> sliceGroups, int numberOfMethods) {
+				extractedSliceGroups.addAll(sliceGroups);
+				monitor.worked(numberOfMethods);
+			}
+		}.processClasses(classObjectsToBeExamined, monitor);
+	}
+
 	private void processMethod(final List<ASTSliceGroup> extractedSliceGroups, ClassObject classObject, AbstractMethodDeclaration methodObject) {
 		if(methodObject.getMethodBody() != null) {
 			IPreferenceStore store = Activator.getDefault().getPreferenceStore();
@@ -798,71 +821,74 @@ public class LongMethod extends ViewPart {
 			if(numberOfStatements >= minimumMethodSize) {
 				ITypeRoot typeRoot = classObject.getITypeRoot();
 				CompilationUnitCache.getInstance().lock(typeRoot);
-				CFG cfg = new CFG(methodObject);
-				PDG pdg = new PDG(cfg, classObject.getIFile(), classObject.getFieldsAccessedInsideMethod(methodObject), null);
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = sliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(sliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
+				try {
+					PDG pdg = PDGCache.getInstance().getPDG(methodObject, classObject, null);
+					for(VariableDeclaration declaration : pdg.getVariableDeclarationsInMethod()) {
+						PlainVariable variable = new PlainVariable(declaration);
+						PDGSliceUnionCollection sliceUnionCollection = new PDGSliceUnionCollection(pdg, variable);
+						double sumOfExtractedStatementsInGroup = 0.0;
+						double sumOfDuplicatedStatementsInGroup = 0.0;
+						double sumOfDuplicationRatioInGroup = 0.0;
+						int maximumNumberOfExtractedStatementsInGroup = 0;
+						int groupSize = sliceUnionCollection.getSliceUnions().size();
+						ASTSliceGroup sliceGroup = new ASTSliceGroup();
+						for(PDGSliceUnion sliceUnion : sliceUnionCollection.getSliceUnions()) {
+							ASTSlice slice = new ASTSlice(sliceUnion);
+							if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
+								int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
+								int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
+								double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+								sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+								sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+								sumOfDuplicationRatioInGroup += duplicationRatio;
+								if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+									maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+								sliceGroup.addCandidate(slice);
+							}
 						}
-					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
-					}
-				}
-				for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
-					PlainVariable variable = new PlainVariable(declaration);
-					PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
-					double sumOfExtractedStatementsInGroup = 0.0;
-					double sumOfDuplicatedStatementsInGroup = 0.0;
-					double sumOfDuplicationRatioInGroup = 0.0;
-					int maximumNumberOfExtractedStatementsInGroup = 0;
-					int groupSize = objectSliceUnionCollection.getSliceUnions().size();
-					ASTSliceGroup sliceGroup = new ASTSliceGroup();
-					for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
-						ASTSlice slice = new ASTSlice(objectSliceUnion);
-						if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
-							int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
-							int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
-							double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
-							sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
-							sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
-							sumOfDuplicationRatioInGroup += duplicationRatio;
-							if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
-								maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
-							sliceGroup.addCandidate(slice);
+						if(!sliceGroup.getCandidates().isEmpty()) {
+							sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+							sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+							extractedSliceGroups.add(sliceGroup);
 						}
 					}
-					if(!sliceGroup.getCandidates().isEmpty()) {
-						sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
-						sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
-						sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
-						extractedSliceGroups.add(sliceGroup);
+					for(VariableDeclaration declaration : pdg.getVariableDeclarationsAndAccessedFieldsInMethod()) {
+						PlainVariable variable = new PlainVariable(declaration);
+						PDGObjectSliceUnionCollection objectSliceUnionCollection = new PDGObjectSliceUnionCollection(pdg, variable);
+						double sumOfExtractedStatementsInGroup = 0.0;
+						double sumOfDuplicatedStatementsInGroup = 0.0;
+						double sumOfDuplicationRatioInGroup = 0.0;
+						int maximumNumberOfExtractedStatementsInGroup = 0;
+						int groupSize = objectSliceUnionCollection.getSliceUnions().size();
+						ASTSliceGroup sliceGroup = new ASTSliceGroup();
+						for(PDGObjectSliceUnion objectSliceUnion : objectSliceUnionCollection.getSliceUnions()) {
+							ASTSlice slice = new ASTSlice(objectSliceUnion);
+							if(!slice.isVariableCriterionDeclarationStatementIsDeeperNestedThanExtractedMethodInvocationInsertionStatement()) {
+								int numberOfExtractedStatements = slice.getNumberOfSliceStatements();
+								int numberOfDuplicatedStatements = slice.getNumberOfDuplicatedStatements();
+								double duplicationRatio = (double)numberOfDuplicatedStatements/(double)numberOfExtractedStatements;
+								sumOfExtractedStatementsInGroup += numberOfExtractedStatements;
+								sumOfDuplicatedStatementsInGroup += numberOfDuplicatedStatements;
+								sumOfDuplicationRatioInGroup += duplicationRatio;
+								if(numberOfExtractedStatements > maximumNumberOfExtractedStatementsInGroup)
+									maximumNumberOfExtractedStatementsInGroup = numberOfExtractedStatements;
+								sliceGroup.addCandidate(slice);
+							}
+						}
+						if(!sliceGroup.getCandidates().isEmpty()) {
+							sliceGroup.setAverageNumberOfExtractedStatementsInGroup(sumOfExtractedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageNumberOfDuplicatedStatementsInGroup(sumOfDuplicatedStatementsInGroup/(double)groupSize);
+							sliceGroup.setAverageDuplicationRatioInGroup(sumOfDuplicationRatioInGroup/(double)groupSize);
+							sliceGroup.setMaximumNumberOfExtractedStatementsInGroup(maximumNumberOfExtractedStatementsInGroup);
+							extractedSliceGroups.add(sliceGroup);
+						}
 					}
 				}
-				CompilationUnitCache.getInstance().releaseLock();
+				finally {
+					CompilationUnitCache.getInstance().releaseLock(typeRoot);
+				}
 			}
 		}
 	}